@@ -0,0 +1,948 @@
+package list;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A Class to measure MyLinkedList and its variants.
+ * <p>
+ * Each benchmark is run by passing its name on the command line, or all of
+ * them are run if there are no arguments. The numbers are rough since they
+ * come from System.nanoTime() and Runtime rather than a benchmark harness, so
+ * they are best compared to each other within one run.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ */
+public class Benchmark {
+	/* Inner Classes */
+	/**
+	 * The Node layout MyLinkedList used before Node became static: a
+	 * non-static inner class with its own type parameter, so every node also
+	 * holds a reference to the list. Only kept to measure the difference.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the elements to be stored in the list
+	 */
+	static class InnerNodeList<E> {
+		public class Node<T> {
+			public T data;
+			public Node<T> prev;
+			public Node<T> next;
+
+			public Node(T data) {
+				this.data = data;
+			}
+		}
+
+		Node<E> head;
+		Node<E> tail;
+		int size;
+
+		void add(E e) {
+			Node<E> newNode = new Node<E>(e);
+			if (tail == null) {
+				head = newNode;
+			} else {
+				tail.next = newNode;
+				newNode.prev = tail;
+			}
+			tail = newNode;
+			size++;
+		}
+	}
+
+	/**
+	 * Runs the benchmarks named in args, or all of them.
+	 *
+	 * @param args
+	 *            The names of the benchmarks to run.
+	 * @throws Exception
+	 *             If a benchmark fails.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			args = new String[] { "footprint", "pool" };
+		}
+		for (String name : args) {
+			if (name.equals("footprint")) {
+				footprint();
+			} else if (name.equals("pool")) {
+				pool();
+			} else if (name.equals("offheap")) {
+				offHeap();
+			} else if (name.equals("iterate")) {
+				iterate();
+			} else if (name.equals("spliterator")) {
+				spliterator();
+			} else if (name.equals("bulk")) {
+				bulk();
+			} else if (name.equals("bulkload")) {
+				bulkLoad();
+			} else if (name.equals("sort")) {
+				sort();
+			} else if (name.equals("removeall")) {
+				removeAll();
+			} else if (name.equals("clone")) {
+				cloneList();
+			} else if (name.equals("versions")) {
+				versions();
+			} else if (name.equals("serialize")) {
+				serialize();
+			} else if (name.equals("codec")) {
+				codec();
+			} else if (name.equals("mapped")) {
+				mapped();
+			} else if (name.equals("wal")) {
+				wal();
+			} else if (name.equals("deque")) {
+				deque();
+			} else if (name.equals("blocking")) {
+				blocking();
+			} else {
+				throw new IllegalArgumentException("unknown benchmark " + name);
+			}
+		}
+	}
+
+	/* Methods */
+	/**
+	 * Print the bytes used per element by each list layout for 1K, 1M, and 10M
+	 * elements. Every element is the same object so only the list structure
+	 * is measured. The 10M lists need a heap of about 1 GB.
+	 */
+	public static void footprint() {
+		System.out.println("Bytes per element (list structure only)");
+		System.out.printf("%10s %12s %12s %12s %12s%n", "elements", "inner Node", "MyLinked", "MyUnrolled",
+				"LinkedList");
+		Integer element = Integer.valueOf(0);
+		for (int n : new int[] { 1000, 1000000, 10000000 }) {
+			long before = usedMemory();
+			InnerNodeList<Integer> inner = new InnerNodeList<Integer>();
+			for (int i = 0; i < n; i++) {
+				inner.add(element);
+			}
+			double innerBytes = (usedMemory() - before) / (double) inner.size;
+			inner = null;
+
+			double myBytes = bytesPerElement(new MyLinkedList<Integer>(), element, n);
+			double unrolledBytes = bytesPerElement(new MyUnrolledLinkedList<Integer>(), element, n);
+			double javaBytes = bytesPerElement(new LinkedList<Integer>(), element, n);
+			System.out.printf("%10d %12.1f %12.1f %12.1f %12.1f%n", n, innerBytes, myBytes, unrolledBytes, javaBytes);
+		}
+	}
+
+	/**
+	 * Print the bytes allocated per offer/poll pair by a queue holding 1000
+	 * elements, with and without a pre-warmed node pool. Needs a HotSpot JVM
+	 * for the per thread allocation counter.
+	 */
+	public static void pool() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			System.out.println("pool: per thread allocation counter not available");
+			return;
+		}
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		long id = Thread.currentThread().getId();
+		int ops = 10000000;
+		for (int capacity : new int[] { 0, 1024 }) {
+			MyLinkedList<Integer> queue = new MyLinkedList<Integer>();
+			queue.setNodePoolCapacity(capacity);
+			queue.ensureCapacity(capacity);
+			Integer element = Integer.valueOf(1);
+			for (int i = 0; i < 1000; i++) {
+				queue.offer(element);
+			}
+			// Warm up before measuring
+			for (int i = 0; i < ops; i++) {
+				queue.offer(queue.poll());
+			}
+			long bytes = threads.getThreadAllocatedBytes(id);
+			long start = System.nanoTime();
+			for (int i = 0; i < ops; i++) {
+				queue.offer(queue.poll());
+			}
+			long nanos = System.nanoTime() - start;
+			bytes = threads.getThreadAllocatedBytes(id) - bytes;
+			System.out.printf("pool capacity %5d: %6.2f bytes and %5.1f ns per offer/poll%n", capacity,
+					bytes / (double) ops, nanos / (double) ops);
+		}
+	}
+
+	/**
+	 * Print the time spent in full garbage collections while 10M Integers are
+	 * queued in MyLinkedList and in MyOffHeapLinkedList. Needs a heap of about
+	 * 1 GB.
+	 */
+	public static void offHeap() {
+		int n = 10000000;
+		MyLinkedList<Integer> onHeap = new MyLinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			onHeap.add(i);
+		}
+		System.out.printf("MyLinkedList        %,10d elements: %6.1f ms per full gc%n", onHeap.size(), gcMillis());
+		onHeap = null;
+
+		MyOffHeapLinkedList<Integer> offHeap = new MyOffHeapLinkedList<Integer>(SlotCodec.INTEGER);
+		for (int i = 0; i < n; i++) {
+			offHeap.add(i);
+		}
+		System.out.printf("MyOffHeapLinkedList %,10d elements: %6.1f ms per full gc%n", offHeap.size(), gcMillis());
+		offHeap.close();
+	}
+
+	/**
+	 * Print the time to iterate over 1M Integers in ArrayList, MyLinkedList,
+	 * and MyArrayLinkedList before and after compact(). The linked lists are
+	 * shuffled first by moving random elements to the end so that list order
+	 * no longer follows allocation order.
+	 */
+	public static void iterate() {
+		int n = 1000000;
+		MyLinkedList<Integer> linked = new MyLinkedList<Integer>();
+		// Cached Integers so the elements themselves never miss the cache
+		for (int i = 0; i < n; i++) {
+			linked.add(i & 127);
+		}
+		scatter(linked);
+		// The same elements in the same order so only the structure differs
+		java.util.ArrayList<Integer> array = new java.util.ArrayList<Integer>(linked);
+		MyArrayLinkedList<Integer> slots = new MyArrayLinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			slots.add(i & 127);
+		}
+		scatter(slots);
+		System.out.printf("%-28s %6.2f ms%n", "ArrayList", iterateMillis(array));
+		System.out.printf("%-28s %6.2f ms%n", "MyLinkedList", iterateMillis(linked));
+		System.out.printf("%-28s %6.2f ms%n", "MyArrayLinkedList", iterateMillis(slots));
+		slots.compact();
+		System.out.printf("%-28s %6.2f ms%n", "MyArrayLinkedList compacted", iterateMillis(slots));
+	}
+
+	/**
+	 * Print the time of a CPU bound stream over 1M elements of MyLinkedList
+	 * run sequentially, in parallel with the iterator based spliterator that
+	 * List inherits, and in parallel with MyLinkedList's own spliterator.
+	 */
+	public static void spliterator() {
+		int n = 1000000;
+		MyLinkedList<Integer> list = new MyLinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			list.add(i);
+		}
+		System.out.println("parallelism " + java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+		double sequential = 0;
+		for (int run = 0; run < 3; run++) {
+			sequential = streamMillis(list.stream());
+		}
+		double inherited = 0;
+		for (int run = 0; run < 3; run++) {
+			inherited = streamMillis(java.util.stream.StreamSupport
+					.stream(java.util.Spliterators.spliterator(list, java.util.Spliterator.ORDERED), true));
+		}
+		double own = 0;
+		for (int run = 0; run < 3; run++) {
+			own = streamMillis(list.parallelStream());
+		}
+		System.out.printf("%-24s %8.1f ms%n", "sequential", sequential);
+		System.out.printf("%-24s %8.1f ms %5.2fx%n", "parallel, inherited", inherited, sequential / inherited);
+		System.out.printf("%-24s %8.1f ms %5.2fx%n", "parallel, MyLinkedList", own, sequential / own);
+	}
+
+	/**
+	 * Print the time of indexOf, replaceAll, and removeIf over 4M elements of
+	 * MyLinkedList next to their parallel versions.
+	 */
+	public static void bulk() {
+		int n = 4000000;
+		System.out.println("parallelism " + java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+		for (int run = 0; run < 3; run++) {
+			MyLinkedList<Integer> a = new MyLinkedList<Integer>();
+			MyLinkedList<Integer> b = new MyLinkedList<Integer>();
+			// Cached Integers so replaceAll does not allocate
+			for (int i = 0; i < n; i++) {
+				a.add(i & 127);
+				b.add(i & 127);
+			}
+			Integer missing = Integer.valueOf(-1);
+			long t0 = System.nanoTime();
+			a.indexOf(missing);
+			long t1 = System.nanoTime();
+			b.parallelIndexOf(missing);
+			long t2 = System.nanoTime();
+			a.replaceAll(e -> (e + 1) & 127);
+			long t3 = System.nanoTime();
+			b.parallelReplaceAll(e -> (e + 1) & 127);
+			long t4 = System.nanoTime();
+			a.removeIf(e -> (e & 1) == 0);
+			long t5 = System.nanoTime();
+			b.parallelRemoveIf(e -> (e & 1) == 0);
+			long t6 = System.nanoTime();
+			System.out.printf("indexOf %6.1f / %6.1f ms, replaceAll %6.1f / %6.1f ms, removeIf %6.1f / %6.1f ms%n",
+					(t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e6, (t4 - t3) / 1e6, (t5 - t4) / 1e6,
+					(t6 - t5) / 1e6);
+		}
+	}
+
+	/**
+	 * Print the time to insert 10M elements into the middle of a MyLinkedList
+	 * one at a time through a ListIterator, which is what addAll used to do,
+	 * next to addAll, the copy constructor, clone, and LinkedList's addAll.
+	 * Needs a heap of about 2 GB.
+	 */
+	public static void bulkLoad() {
+		int n = 10000000;
+		java.util.ArrayList<Integer> source = new java.util.ArrayList<Integer>(n);
+		Integer element = Integer.valueOf(0);
+		for (int i = 0; i < n; i++) {
+			source.add(element);
+		}
+		for (int run = 0; run < 2; run++) {
+			MyLinkedList<Integer> list = new MyLinkedList<Integer>();
+			list.add(element);
+			list.add(element);
+			long start = System.nanoTime();
+			java.util.ListIterator<Integer> iter = list.listIterator(1);
+			for (Integer e : source) {
+				iter.add(e);
+			}
+			System.out.printf("%-28s %8.1f ms%n", "ListIterator.add", (System.nanoTime() - start) / 1e6);
+			list = null;
+
+			list = new MyLinkedList<Integer>();
+			list.add(element);
+			list.add(element);
+			start = System.nanoTime();
+			list.addAll(1, source);
+			System.out.printf("%-28s %8.1f ms%n", "MyLinkedList.addAll", (System.nanoTime() - start) / 1e6);
+			list = null;
+
+			start = System.nanoTime();
+			list = new MyLinkedList<Integer>(source);
+			System.out.printf("%-28s %8.1f ms%n", "new MyLinkedList(c)", (System.nanoTime() - start) / 1e6);
+			start = System.nanoTime();
+			Object copy = list.clone();
+			System.out.printf("%-28s %8.1f ms%n", "MyLinkedList.clone", (System.nanoTime() - start) / 1e6);
+			list = null;
+			copy = null;
+
+			LinkedList<Integer> javaList = new LinkedList<Integer>();
+			javaList.add(element);
+			javaList.add(element);
+			start = System.nanoTime();
+			javaList.addAll(1, source);
+			System.out.printf("%-28s %8.1f ms%n", "LinkedList.addAll", (System.nanoTime() - start) / 1e6);
+		}
+	}
+
+	/**
+	 * Print the time to sort 1M random, sorted, and mostly sorted Integers
+	 * with MyLinkedList.sort and with LinkedList.sort, which copies to an
+	 * array and back.
+	 */
+	public static void sort() {
+		int n = 1000000;
+		java.util.Random random = new java.util.Random(1);
+		String[] names = { "random", "sorted", "mostly sorted" };
+		for (int run = 0; run < 2; run++) {
+			for (int kind = 0; kind < names.length; kind++) {
+				MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+				LinkedList<Integer> java = new LinkedList<Integer>();
+				for (int i = 0; i < n; i++) {
+					int v = (kind == 0 || (kind == 2 && random.nextInt(100) == 0)) ? random.nextInt(n) : i;
+					my.add(v);
+					java.add(v);
+				}
+				long start = System.nanoTime();
+				my.sort(null);
+				long middle = System.nanoTime();
+				java.sort(null);
+				long end = System.nanoTime();
+				System.out.printf("%-14s MyLinkedList %7.1f ms, LinkedList %7.1f ms%n", names[kind],
+						(middle - start) / 1e6, (end - middle) / 1e6);
+			}
+		}
+	}
+
+	/**
+	 * Print the time of removeAll and retainAll on a 100K element list with a
+	 * 10K element ArrayList argument for MyLinkedList and for LinkedList,
+	 * which calls contains on the argument for every element.
+	 */
+	public static void removeAll() {
+		int n = 100000;
+		java.util.ArrayList<Integer> argument = new java.util.ArrayList<Integer>();
+		for (int i = 0; i < n; i += 10) {
+			argument.add(i);
+		}
+		for (int run = 0; run < 2; run++) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			LinkedList<Integer> java = new LinkedList<Integer>();
+			for (int i = 0; i < n; i++) {
+				my.add(i);
+				java.add(i);
+			}
+			long t0 = System.nanoTime();
+			my.removeAll(argument);
+			long t1 = System.nanoTime();
+			java.removeAll(argument);
+			long t2 = System.nanoTime();
+			my.retainAll(argument.subList(0, argument.size() / 2));
+			long t3 = System.nanoTime();
+			java.retainAll(argument.subList(0, argument.size() / 2));
+			long t4 = System.nanoTime();
+			System.out.printf("removeAll MyLinkedList %7.1f ms, LinkedList %7.1f ms; "
+					+ "retainAll MyLinkedList %7.1f ms, LinkedList %7.1f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+					(t3 - t2) / 1e6, (t4 - t3) / 1e6);
+		}
+	}
+
+	/**
+	 * Print the time to take 100 clones of a 1M element list for MyLinkedList
+	 * and for LinkedList, and the time of the first set on a MyLinkedList
+	 * clone, which copies its nodes, and of the second, which does not.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void cloneList() {
+		int n = 1000000;
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> java = new LinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			my.add(i & 127);
+			java.add(i & 127);
+		}
+		for (int run = 0; run < 3; run++) {
+			MyLinkedList<Integer> myClone = null;
+			long t0 = System.nanoTime();
+			for (int i = 0; i < 100; i++) {
+				myClone = (MyLinkedList<Integer>) my.clone();
+			}
+			long t1 = System.nanoTime();
+			for (int i = 0; i < 100; i++) {
+				((LinkedList<Integer>) java.clone()).size();
+			}
+			long t2 = System.nanoTime();
+			myClone.set(0, 1);
+			long t3 = System.nanoTime();
+			myClone.set(1, 1);
+			long t4 = System.nanoTime();
+			System.out.printf("100 clones MyLinkedList %8.2f ms, LinkedList %8.1f ms; "
+					+ "first set %6.1f ms, second set %6.3f ms%n", (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+					(t3 - t2) / 1e6, (t4 - t3) / 1e6);
+		}
+	}
+
+	/**
+	 * Print the heap used per retained version of a 10K element queue where
+	 * each version adds one element at the end and removes the first, for
+	 * PersistentLinkedList and for a changed MyLinkedList clone per version.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void versions() {
+		int n = 10000;
+		MyLinkedList<Integer> start = new MyLinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			start.add(i & 127);
+		}
+		for (int run = 0; run < 2; run++) {
+			int count = 10000;
+			java.util.ArrayList<Object> kept = new java.util.ArrayList<Object>(count);
+			long before = usedMemory();
+			PersistentLinkedList<Integer> version = PersistentLinkedList.from(start);
+			for (int i = 0; i < count; i++) {
+				version = version.addLast(i & 127).pollFirst();
+				kept.add(version);
+			}
+			double persistent = (usedMemory() - before) / (double) count;
+			kept.clear();
+
+			count = 200;
+			before = usedMemory();
+			MyLinkedList<Integer> list = start;
+			for (int i = 0; i < count; i++) {
+				list = (MyLinkedList<Integer>) list.clone();
+				list.add(i & 127);
+				list.removeFirst();
+				kept.add(list);
+			}
+			double cloned = (usedMemory() - before) / (double) count;
+			kept.clear();
+			System.out.printf("bytes per version of %d elements: PersistentLinkedList %8.0f, "
+					+ "MyLinkedList clone %10.0f%n", n, persistent, cloned);
+		}
+	}
+
+	/**
+	 * Print the time to serialize and deserialize a 1M element list and the
+	 * bytes written for MyLinkedList and for LinkedList.
+	 *
+	 * @throws Exception
+	 *             If serialization fails.
+	 */
+	public static void serialize() throws Exception {
+		int n = 1000000;
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> java = new LinkedList<Integer>();
+		for (int i = 0; i < n; i++) {
+			my.add(i & 127);
+			java.add(i & 127);
+		}
+		for (int run = 0; run < 3; run++) {
+			for (Collection<?> list : new Collection<?>[] { my, java }) {
+				long t0 = System.nanoTime();
+				java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+				java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes);
+				out.writeObject(list);
+				out.close();
+				long t1 = System.nanoTime();
+				java.io.ObjectInputStream in = new java.io.ObjectInputStream(
+						new java.io.ByteArrayInputStream(bytes.toByteArray()));
+				Collection<?> copy = (Collection<?>) in.readObject();
+				long t2 = System.nanoTime();
+				System.out.printf("%-13s write %6.1f ms, read %6.1f ms, %8d bytes for %d elements%n",
+						list.getClass().getSimpleName(), (t1 - t0) / 1e6, (t2 - t1) / 1e6, bytes.size(),
+						copy.size());
+			}
+		}
+	}
+
+	/**
+	 * Print the bytes and the time to write and read a 1M element list of
+	 * increasing Long timestamps with Java serialization and with
+	 * MyLinkedListCodec in each of its forms.
+	 *
+	 * @throws Exception
+	 *             If writing or reading fails.
+	 */
+	public static void codec() throws Exception {
+		int n = 1000000;
+		MyLinkedList<Long> list = new MyLinkedList<Long>();
+		java.util.Random random = new java.util.Random(1);
+		long time = System.currentTimeMillis();
+		for (int i = 0; i < n; i++) {
+			time += random.nextInt(50);
+			list.add(time);
+		}
+		for (int run = 0; run < 3; run++) {
+			long t0 = System.nanoTime();
+			java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+			java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes);
+			out.writeObject(list);
+			out.close();
+			long t1 = System.nanoTime();
+			new java.io.ObjectInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray())).readObject();
+			long t2 = System.nanoTime();
+			System.out.printf("%-22s %9d bytes, write %6.1f ms, read %6.1f ms%n", "serialization",
+					bytes.size(), (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+			codecRun("varint", new MyLinkedListCodec<Long>(ElementCodec.VARINT_LONG), list);
+			codecRun("delta", new MyLinkedListCodec<Long>(ElementCodec.DELTA_LONG), list);
+			codecRun("delta + deflate", new MyLinkedListCodec<Long>(ElementCodec.DELTA_LONG, true), list);
+		}
+	}
+
+	/**
+	 * Print the bytes and time for codec to write and read list.
+	 *
+	 * @param name
+	 * @param codec
+	 * @param list
+	 * @throws Exception
+	 *             If writing or reading fails.
+	 */
+	private static void codecRun(String name, MyLinkedListCodec<Long> codec, MyLinkedList<Long> list)
+			throws Exception {
+		long t0 = System.nanoTime();
+		java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+		codec.write(list, new java.io.DataOutputStream(bytes));
+		long t1 = System.nanoTime();
+		codec.read(new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray())));
+		long t2 = System.nanoTime();
+		System.out.printf("%-22s %9d bytes, write %6.1f ms, read %6.1f ms%n", name, bytes.size(),
+				(t1 - t0) / 1e6, (t2 - t1) / 1e6);
+	}
+
+	/**
+	 * Print the time to open a 10M element MyMappedLinkedList file again and
+	 * read both ends, and the time to deserialize a MyLinkedList of the same
+	 * elements. Needs about 150 MB in the temporary directory.
+	 *
+	 * @throws Exception
+	 *             If the file can not be written.
+	 */
+	public static void mapped() throws Exception {
+		int n = 10000000;
+		java.io.File file = java.io.File.createTempFile("benchmark", ".list");
+		file.delete();
+		try {
+			MyMappedLinkedList<Integer> list = new MyMappedLinkedList<Integer>(file.toPath(), SlotCodec.INTEGER);
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			for (int i = 0; i < n; i++) {
+				list.addLast(i & 127);
+				my.add(i & 127);
+			}
+			list.close();
+			java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+			java.io.ObjectOutputStream out = new java.io.ObjectOutputStream(bytes);
+			out.writeObject(my);
+			out.close();
+			my = null;
+			for (int run = 0; run < 3; run++) {
+				long t0 = System.nanoTime();
+				list = new MyMappedLinkedList<Integer>(file.toPath(), SlotCodec.INTEGER);
+				int ends = list.peekFirst() + list.peekLast() + list.size();
+				long t1 = System.nanoTime();
+				list.close();
+				java.io.ObjectInputStream in = new java.io.ObjectInputStream(
+						new java.io.ByteArrayInputStream(bytes.toByteArray()));
+				MyLinkedList<?> copy = (MyLinkedList<?>) in.readObject();
+				long t2 = System.nanoTime();
+				if (ends != n + 127 || copy.size() != n) {
+					throw new IllegalStateException("lists do not match");
+				}
+				System.out.printf("%d elements: open MyMappedLinkedList %7.2f ms, "
+						+ "deserialize MyLinkedList %7.1f ms%n", n, (t1 - t0) / 1e6, (t2 - t1) / 1e6);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Print the durable offers per second and the forces per offer of a
+	 * MyJournaledLinkedList for 1, 4, and 16 threads, with no commit delay and
+	 * with a delay of 1 ms.
+	 *
+	 * @throws Exception
+	 *             If the log can not be written.
+	 */
+	public static void wal() throws Exception {
+		for (long delay : new long[] { 0, 1000 }) {
+			for (int threads : new int[] { 1, 4, 16 }) {
+				java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("benchmark");
+				try {
+					MyJournaledLinkedList<Integer> list = new MyJournaledLinkedList<Integer>(dir,
+							ElementCodec.VARINT_INTEGER, delay, 1 << 26);
+					int each = 4000 / threads;
+					Thread[] workers = new Thread[threads];
+					for (int t = 0; t < threads; t++) {
+						workers[t] = new Thread(() -> {
+							for (int i = 0; i < each; i++) {
+								list.offer(i);
+							}
+						});
+					}
+					long syncs = list.syncs();
+					long start = System.nanoTime();
+					for (Thread worker : workers) {
+						worker.start();
+					}
+					for (Thread worker : workers) {
+						worker.join();
+					}
+					double seconds = (System.nanoTime() - start) / 1e9;
+					int offers = each * threads;
+					System.out.printf("delay %4d us, %2d threads: %8.0f offers/s, %5.3f forces per offer%n", delay,
+							threads, offers / seconds, (double) (list.syncs() - syncs) / offers);
+					list.close();
+				} finally {
+					for (java.io.File file : dir.toFile().listFiles()) {
+						file.delete();
+					}
+					dir.toFile().delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Print the offers and polls per second of MyLinkedList behind one lock,
+	 * MyConcurrentLinkedDeque, and java.util.concurrent.ConcurrentLinkedDeque
+	 * for 1 to 32 threads, half of them producers and half consumers.
+	 *
+	 * @throws Exception
+	 *             If a thread is interrupted.
+	 */
+	public static void deque() throws Exception {
+		int ops = 2000000;
+		for (int threads = 1; threads <= 32; threads *= 2) {
+			System.out.printf("%2d threads: locked MyLinkedList %6.2f Mops/s, MyConcurrentLinkedDeque %6.2f Mops/s, "
+					+ "ConcurrentLinkedDeque %6.2f Mops/s%n", threads,
+					dequeRun(new MyLinkedList<Integer>(), true, threads, ops),
+					dequeRun(new MyConcurrentLinkedDeque<Integer>(), false, threads, ops),
+					dequeRun(new java.util.concurrent.ConcurrentLinkedDeque<Integer>(), false, threads, ops));
+		}
+	}
+
+	/**
+	 * @param deque
+	 * @param lock
+	 *            Whether to hold the monitor of deque around every call.
+	 * @param threads
+	 * @param ops
+	 *            The number of offers and of polls, split among the threads.
+	 * @return double The millions of offers and polls per second, once each
+	 *         thread has made its share of both.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the threads.
+	 */
+	private static double dequeRun(java.util.Deque<Integer> deque, boolean lock, int threads, int ops)
+			throws InterruptedException {
+		Thread[] workers = new Thread[threads];
+		int each = ops / threads;
+		for (int t = 0; t < threads; t++) {
+			// With one thread it both offers and polls
+			boolean producer = (threads == 1) || (t % 2 == 0);
+			boolean consumer = (threads == 1) || (t % 2 == 1);
+			workers[t] = new Thread(() -> {
+				Integer e = 1;
+				int offered = 0;
+				int polled = 0;
+				while ((producer && offered < each) || (consumer && polled < each)) {
+					if (producer && offered < each) {
+						if (lock) {
+							synchronized (deque) {
+								deque.offerLast(e);
+							}
+						} else {
+							deque.offerLast(e);
+						}
+						offered++;
+					}
+					if (consumer && polled < each) {
+						Integer got;
+						if (lock) {
+							synchronized (deque) {
+								got = deque.pollFirst();
+							}
+						} else {
+							got = deque.pollFirst();
+						}
+						if (got != null) {
+							polled++;
+						}
+					}
+				}
+			});
+		}
+		long start = System.nanoTime();
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return 2.0 * each * threads / ((System.nanoTime() - start) / 1e3);
+	}
+
+	/**
+	 * Print the time for 100K producers putting 10 elements each into a
+	 * deque of capacity 1024 while 4 consumers take them, for
+	 * MyLinkedBlockingDeque and java.util.concurrent.LinkedBlockingDeque. The
+	 * producers are virtual threads when the JDK has them, and otherwise
+	 * tasks on a pool of 256 threads.
+	 *
+	 * @throws Exception
+	 *             If a thread is interrupted.
+	 */
+	public static void blocking() throws Exception {
+		Method virtual = null;
+		try {
+			virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			// Before JDK 21
+		}
+		System.out.println("producers on " + ((virtual != null) ? "virtual threads" : "a pool of 256 threads"));
+		for (int run = 0; run < 3; run++) {
+			for (boolean mine : new boolean[] { true, false }) {
+				BlockingDeque<Integer> deque = mine ? new MyLinkedBlockingDeque<Integer>(1024)
+						: new LinkedBlockingDeque<Integer>(1024);
+				ExecutorService producers = (virtual != null)
+						? (ExecutorService) virtual.invoke(null)
+						: Executors.newFixedThreadPool(256);
+				System.out.printf("%-21s %7.1f ms%n", mine ? "MyLinkedBlockingDeque" : "LinkedBlockingDeque",
+						blockingRun(deque, producers, 100000, 10, 4));
+			}
+		}
+	}
+
+	/**
+	 * @param deque
+	 * @param producers
+	 *            Runs the producer tasks, and is shut down afterwards.
+	 * @param tasks
+	 * @param each
+	 *            The elements each producer puts.
+	 * @param consumers
+	 * @return double The time until the consumers have taken every element.
+	 * @throws Exception
+	 *             If a thread is interrupted.
+	 */
+	private static double blockingRun(BlockingDeque<Integer> deque, ExecutorService producers, int tasks, int each,
+			int consumers) throws Exception {
+		AtomicInteger left = new AtomicInteger(tasks * each);
+		Thread[] takers = new Thread[consumers];
+		for (int t = 0; t < consumers; t++) {
+			takers[t] = new Thread(() -> {
+				try {
+					while (left.get() > 0) {
+						if (deque.pollFirst(1, TimeUnit.MILLISECONDS) != null) {
+							left.decrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		long start = System.nanoTime();
+		for (Thread taker : takers) {
+			taker.start();
+		}
+		for (int i = 0; i < tasks; i++) {
+			final int base = i * each;
+			producers.execute(() -> {
+				try {
+					for (int k = 0; k < each; k++) {
+						deque.putLast(base + k);
+					}
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for (Thread taker : takers) {
+			taker.join();
+		}
+		double millis = (System.nanoTime() - start) / 1e6;
+		producers.shutdown();
+		producers.awaitTermination(1, TimeUnit.MINUTES);
+		return millis;
+	}
+
+	/**
+	 * @param stream
+	 * @return double The time to sum a hash of every element of stream.
+	 */
+	private static double streamMillis(java.util.stream.Stream<Integer> stream) {
+		long start = System.nanoTime();
+		long sum = stream.mapToLong(e -> {
+			long h = e;
+			for (int i = 0; i < 100; i++) {
+				h = h * 6364136223846793005L + 1442695040888963407L;
+			}
+			return h;
+		}).sum();
+		double millis = (System.nanoTime() - start) / 1e6;
+		if (sum == 42) {
+			System.out.println();
+		}
+		return millis;
+	}
+
+	/**
+	 * Move about half of the elements of list to its end in a random order,
+	 * ten times.
+	 *
+	 * @param list
+	 */
+	private static void scatter(java.util.Deque<Integer> list) {
+		java.util.Random random = new java.util.Random(1);
+		java.util.ArrayList<Integer> moved = new java.util.ArrayList<Integer>();
+		int n = list.size();
+		for (int round = 0; round < 10; round++) {
+			moved.clear();
+			for (int i = 0; i < n; i++) {
+				Integer e = list.pollFirst();
+				if (random.nextBoolean()) {
+					list.addLast(e);
+				} else {
+					moved.add(e);
+				}
+			}
+			java.util.Collections.shuffle(moved, random);
+			list.addAll(moved);
+		}
+	}
+
+	/**
+	 * @param list
+	 * @return double The best time of 10 passes summing list with its
+	 *         iterator.
+	 */
+	private static double iterateMillis(Collection<Integer> list) {
+		long best = Long.MAX_VALUE;
+		long sum = 0;
+		for (int run = 0; run < 10; run++) {
+			long start = System.nanoTime();
+			for (Integer e : list) {
+				sum += e;
+			}
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		if (sum == 42) {
+			System.out.println();
+		}
+		return best / 1e6;
+	}
+
+	/**
+	 * @return double The average wall time of a few System.gc() calls.
+	 */
+	private static double gcMillis() {
+		System.gc();
+		int runs = 5;
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			System.gc();
+		}
+		return (System.nanoTime() - start) / 1e6 / runs;
+	}
+
+	/**
+	 * @param list
+	 *            An empty list to fill.
+	 * @param element
+	 *            The element to add n times.
+	 * @param n
+	 * @return double The growth of the heap divided by n.
+	 */
+	private static double bytesPerElement(Collection<Integer> list, Integer element, int n) {
+		long before = usedMemory();
+		for (int i = 0; i < n; i++) {
+			list.add(element);
+		}
+		long after = usedMemory();
+		// Keep the list reachable until after the measurement
+		return (after - before) / (double) list.size();
+	}
+
+	/**
+	 * @return long The bytes in use on the heap after asking for a few
+	 *         garbage collections.
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,131 @@
+package list;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts elements to and from bytes for {@link MyLinkedListCodec}.
+ * <p>
+ * Every call gets the element written or read just before this one, or null
+ * for the first element, so a codec can store the difference between
+ * neighbors instead of the whole value. The integral codecs store their
+ * values as zigzag varints, which take one byte for values from -64 to 63,
+ * so the delta codecs make sorted or slowly changing lists very small. They
+ * do not accept null elements.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to convert
+ */
+public interface ElementCodec<E> {
+	/**
+	 * Stores each Integer as a zigzag varint of its value.
+	 */
+	ElementCodec<Integer> VARINT_INTEGER = new ElementCodec<Integer>() {
+		@Override
+		public void write(DataOutput out, Integer e, Integer previous) throws IOException {
+			MyLinkedListCodec.writeVarLong(out, MyLinkedListCodec.zigzag(e));
+		}
+
+		@Override
+		public Integer read(DataInput in, Integer previous) throws IOException {
+			return (int) MyLinkedListCodec.unzigzag(MyLinkedListCodec.readVarLong(in));
+		}
+	};
+
+	/**
+	 * Stores each Integer as a zigzag varint of its difference from the
+	 * previous one, wrapping around on overflow.
+	 */
+	ElementCodec<Integer> DELTA_INTEGER = new ElementCodec<Integer>() {
+		@Override
+		public void write(DataOutput out, Integer e, Integer previous) throws IOException {
+			int delta = (previous == null) ? e : e - previous;
+			MyLinkedListCodec.writeVarLong(out, MyLinkedListCodec.zigzag(delta));
+		}
+
+		@Override
+		public Integer read(DataInput in, Integer previous) throws IOException {
+			int delta = (int) MyLinkedListCodec.unzigzag(MyLinkedListCodec.readVarLong(in));
+			return (previous == null) ? delta : previous + delta;
+		}
+	};
+
+	/**
+	 * Stores each Long as a zigzag varint of its value.
+	 */
+	ElementCodec<Long> VARINT_LONG = new ElementCodec<Long>() {
+		@Override
+		public void write(DataOutput out, Long e, Long previous) throws IOException {
+			MyLinkedListCodec.writeVarLong(out, MyLinkedListCodec.zigzag(e));
+		}
+
+		@Override
+		public Long read(DataInput in, Long previous) throws IOException {
+			return MyLinkedListCodec.unzigzag(MyLinkedListCodec.readVarLong(in));
+		}
+	};
+
+	/**
+	 * Stores each Long as a zigzag varint of its difference from the
+	 * previous one, wrapping around on overflow.
+	 */
+	ElementCodec<Long> DELTA_LONG = new ElementCodec<Long>() {
+		@Override
+		public void write(DataOutput out, Long e, Long previous) throws IOException {
+			long delta = (previous == null) ? e : e - previous;
+			MyLinkedListCodec.writeVarLong(out, MyLinkedListCodec.zigzag(delta));
+		}
+
+		@Override
+		public Long read(DataInput in, Long previous) throws IOException {
+			long delta = MyLinkedListCodec.unzigzag(MyLinkedListCodec.readVarLong(in));
+			return (previous == null) ? delta : previous + delta;
+		}
+	};
+
+	/**
+	 * Stores each String in modified UTF-8 with writeUTF, so no String may
+	 * encode to more than 65535 bytes.
+	 */
+	ElementCodec<String> UTF = new ElementCodec<String>() {
+		@Override
+		public void write(DataOutput out, String e, String previous) throws IOException {
+			out.writeUTF(e);
+		}
+
+		@Override
+		public String read(DataInput in, String previous) throws IOException {
+			return in.readUTF();
+		}
+	};
+
+	/**
+	 * Store e in at least one byte.
+	 *
+	 * @param out
+	 * @param e
+	 *            The element to store.
+	 * @param previous
+	 *            The element stored before e, or null if e is the first.
+	 * @throws IOException
+	 *             if out throws.
+	 */
+	void write(DataOutput out, E e, E previous) throws IOException;
+
+	/**
+	 * Read an element stored by write.
+	 *
+	 * @param in
+	 * @param previous
+	 *            The element read before this one, or null for the first.
+	 * @return E The element.
+	 * @throws IOException
+	 *             if in throws or ends early.
+	 */
+	E read(DataInput in, E previous) throws IOException;
+
+}
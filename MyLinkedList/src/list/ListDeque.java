@@ -0,0 +1,26 @@
+package list;
+
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The List and Deque operations shared by the linked list implementations in
+ * this package.
+ * <p>
+ * Tester runs the same randomized test sequence against every implementation
+ * through this interface and compares each one to Java's LinkedList.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements stored in the list
+ */
+interface ListDeque<E> extends List<E>, Deque<E>, Cloneable {
+	/**
+	 * @see java.lang.Object#clone()
+	 * @return Object A shallow copy of this list.
+	 */
+	Object clone();
+
+}
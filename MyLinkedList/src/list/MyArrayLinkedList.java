@@ -0,0 +1,915 @@
+package list;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * A doubly linked list whose nodes are slots in parallel arrays.
+ * <p>
+ * MyArrayLinkedList has the same List, Deque, and ListIterator behavior as
+ * {@link MyLinkedList} but keeps the element of slot i in items[i] and the
+ * slot numbers of its neighbors in prev[i] and next[i] instead of in a Node
+ * object. Removed slots are chained through next[] and reused by later
+ * insertions, so adding and removing through an iterator or at the ends stays
+ * O(1). {@link MyArrayLinkedList#compact()} moves the elements into slots
+ * 0 through size - 1 in list order so that later traversals read the arrays
+ * sequentially, and until the next structural change get(int) and set(int, E)
+ * go straight to the slot.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the linked list
+ */
+public class MyArrayLinkedList<E> extends AbstractSequentialList<E>
+		implements Serializable, Cloneable, Iterable<E>, Collection<E>, Deque<E>, List<E>, Queue<E>, ListDeque<E> {
+	/* Inner Classes */
+	/**
+	 * The same contract as {@link MyLinkedList.MyListIterator} with slot
+	 * numbers in place of nodes.
+	 *
+	 * @author David Simmons
+	 */
+	public class MyArrayListIterator implements ListIterator<E> {
+		/* Fields */
+		// The last slot returned by next() or previous(), NIL if remove and
+		// set can not be used
+		int curr = NIL;
+		// The slot the next call to next() returns, NIL past the tail
+		int next;
+		int index;
+		int expectedModCount = modCount;
+
+		/* Constructor */
+		/**
+		 * Constructor to start the iterator at index i so that i is the next
+		 * index to be returned.
+		 *
+		 * @param i
+		 *            The index to start the iterator at.
+		 * @throws IndexOutOfBoundsException
+		 *             if i is less than 0 or more than size.
+		 */
+		public MyArrayListIterator(int i) {
+			if (i < 0 || i > size) {
+				throw new IndexOutOfBoundsException();
+			}
+			next = (i == size) ? NIL : slot(i);
+			index = i;
+		}
+
+		/* Methods */
+		/**
+		 * Adds e to the list so that it would be the next element returned by
+		 * {@link MyArrayLinkedList.MyArrayListIterator#previous}.
+		 *
+		 * @see java.util.ListIterator#add(java.lang.Object)
+		 * @param e
+		 *            The element to add.
+		 */
+		@Override
+		public void add(E e) {
+			checkForComodification();
+			curr = NIL;
+			linkBefore(e, next);
+			index++;
+			expectedModCount++;
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasNext()
+		 * @return boolean if a next() call would return an element.
+		 */
+		@Override
+		public boolean hasNext() {
+			return index < size;
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasPrevious()
+		 * @return boolean if a previous() call would return an element.
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return index > 0;
+		}
+
+		/**
+		 * Returns the next element from the list in the forwards direction.
+		 *
+		 * @see java.util.ListIterator#next()
+		 * @return E The next element.
+		 * @throws NoSuchElementException
+		 *             if hasNext() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		@Override
+		public E next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			curr = next;
+			next = MyArrayLinkedList.this.next[curr];
+			index++;
+			return item(curr);
+		}
+
+		/**
+		 * @see java.util.ListIterator#nextIndex()
+		 * @return int The index of the element that a call to next() would
+		 *         have.
+		 */
+		@Override
+		public int nextIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the previous element from the list in the backwards
+		 * direction.
+		 *
+		 * @see java.util.ListIterator#previous()
+		 * @return E The previous element.
+		 * @throws NoSuchElementException
+		 *             if hasPrevious() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		@Override
+		public E previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			next = (next == NIL) ? tail : prev[next];
+			curr = next;
+			index--;
+			return item(curr);
+		}
+
+		/**
+		 * @see java.util.ListIterator#previousIndex()
+		 * @return int The index of the element that a call to previous() would
+		 *         have.
+		 */
+		@Override
+		public int previousIndex() {
+			return index - 1;
+		}
+
+		/**
+		 * Removes the last element returned by next() or previous().
+		 *
+		 * @see java.util.ListIterator#remove()
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		@Override
+		public void remove() {
+			if (curr == NIL) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			if (next == curr) {
+				// The last call was previous()
+				next = MyArrayLinkedList.this.next[curr];
+			} else {
+				index--;
+			}
+			unlink(curr);
+			curr = NIL;
+			expectedModCount++;
+		}
+
+		/**
+		 * Sets the last element returned by next() or previous().
+		 *
+		 * @see java.util.ListIterator#set(java.lang.Object)
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		@Override
+		public void set(E e) {
+			if (curr == NIL) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			items[curr] = e;
+		}
+
+		/**
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator.
+		 */
+		private void checkForComodification() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+	}
+
+	/* Fields */
+	private static final long serialVersionUID = 1L;
+	// The slot number that marks the end of the list or of the free list
+	private static final int NIL = -1;
+	/**
+	 * The number of slots allocated if no capacity is given.
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+	private transient Object[] items;
+	private transient int[] prev;
+	private transient int[] next;
+	private transient int head = NIL;
+	private transient int tail = NIL;
+	private transient int size = 0;
+	// Removed slots linked through next[]
+	private transient int freeHead = NIL;
+	// The number of slots ever handed out, so slot used is the next new one
+	private transient int used = 0;
+	// The modCount right after the last compact(), when slot i is index i
+	private transient int compactModCount = -1;
+
+	/* Constructors */
+	/**
+	 * Default constructor.
+	 */
+	public MyArrayLinkedList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which allocates slots for capacity elements.
+	 *
+	 * @param capacity
+	 *            The number of elements the list holds before growing.
+	 * @throws IllegalArgumentException
+	 *             if capacity is negative.
+	 */
+	public MyArrayLinkedList(int capacity) {
+		super();
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity: " + capacity);
+		}
+		items = new Object[capacity];
+		prev = new int[capacity];
+		next = new int[capacity];
+	}
+
+	/**
+	 * Constructor which adds all of c to the new list.
+	 *
+	 * @param c
+	 *            Collection to add to list
+	 */
+	public MyArrayLinkedList(Collection<? extends E> c) {
+		this(c.size());
+		this.addAll(c);
+	}
+
+	/* Methods */
+	@SuppressWarnings("unchecked")
+	private E item(int slot) {
+		return (E) items[slot];
+	}
+
+	/**
+	 * Returns the slot holding index, which is the index itself right after
+	 * compact(), otherwise found by walking from the nearer end.
+	 *
+	 * @param index
+	 *            An index from 0 to size - 1.
+	 * @return int The slot number.
+	 */
+	private int slot(int index) {
+		if (compactModCount == modCount) {
+			return index;
+		}
+		int x;
+		if (index < (size >> 1)) {
+			x = head;
+			for (int i = 0; i < index; i++) {
+				x = next[x];
+			}
+		} else {
+			x = tail;
+			for (int i = size - 1; i > index; i--) {
+				x = prev[x];
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * Take a slot from the free list, or the next unused slot after growing
+	 * the arrays if they are full, and store e in it.
+	 *
+	 * @param e
+	 * @return int The slot number.
+	 */
+	private int allocate(E e) {
+		int slot = freeHead;
+		if (slot != NIL) {
+			freeHead = next[slot];
+		} else {
+			if (used == items.length) {
+				grow(used + 1);
+			}
+			slot = used++;
+		}
+		items[slot] = e;
+		return slot;
+	}
+
+	/**
+	 * Grow the arrays by half, or to minCapacity if that is more.
+	 *
+	 * @param minCapacity
+	 */
+	private void grow(int minCapacity) {
+		int capacity = items.length + (items.length >> 1);
+		if (capacity < minCapacity) {
+			capacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+		}
+		items = Arrays.copyOf(items, capacity);
+		prev = Arrays.copyOf(prev, capacity);
+		next = Arrays.copyOf(next, capacity);
+	}
+
+	/**
+	 * Link a new slot holding e before succ, or after tail if succ is NIL.
+	 *
+	 * @param e
+	 * @param succ
+	 */
+	private void linkBefore(E e, int succ) {
+		int pred = (succ == NIL) ? tail : prev[succ];
+		int slot = allocate(e);
+		prev[slot] = pred;
+		next[slot] = succ;
+		if (pred == NIL) {
+			head = slot;
+		} else {
+			next[pred] = slot;
+		}
+		if (succ == NIL) {
+			tail = slot;
+		} else {
+			prev[succ] = slot;
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Unlink slot from the list and put it on the free list.
+	 *
+	 * @param slot
+	 *            A slot in the list.
+	 * @return E The element slot held.
+	 */
+	private E unlink(int slot) {
+		E result = item(slot);
+		int pred = prev[slot];
+		int succ = next[slot];
+		if (pred == NIL) {
+			head = succ;
+		} else {
+			next[pred] = succ;
+		}
+		if (succ == NIL) {
+			tail = pred;
+		} else {
+			prev[succ] = pred;
+		}
+		items[slot] = null;
+		next[slot] = freeHead;
+		freeHead = slot;
+		size--;
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Moves the elements into slots 0 through size - 1 in list order and
+	 * trims the arrays to size, so traversals read the arrays from front to
+	 * back and get(int) and set(int, E) take O(1) until the next structural
+	 * change. Open iterators are invalidated since the slots move.
+	 */
+	public void compact() {
+		int capacity = Math.max(size, DEFAULT_CAPACITY);
+		Object[] newItems = new Object[capacity];
+		int[] newPrev = new int[capacity];
+		int[] newNext = new int[capacity];
+		int i = 0;
+		for (int x = head; x != NIL; x = next[x]) {
+			newItems[i] = items[x];
+			newPrev[i] = i - 1;
+			newNext[i] = i + 1;
+			i++;
+		}
+		items = newItems;
+		prev = newPrev;
+		next = newNext;
+		if (size == 0) {
+			head = NIL;
+			tail = NIL;
+		} else {
+			head = 0;
+			tail = size - 1;
+			next[tail] = NIL;
+		}
+		freeHead = NIL;
+		used = size;
+		modCount++;
+		compactModCount = modCount;
+	}
+
+	/**
+	 * Add an element to the end of the list.
+	 *
+	 * @see java.util.AbstractList#add(java.lang.Object)
+	 * @param e
+	 *            The element to add
+	 * @return true
+	 */
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Returns the element at index.
+	 *
+	 * @see java.util.AbstractSequentialList#get(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return E The element at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return item(slot(index));
+	}
+
+	/**
+	 * Replaces the element at index.
+	 *
+	 * @see java.util.AbstractSequentialList#set(int, java.lang.Object)
+	 * @param index
+	 *            The index of the element.
+	 * @param e
+	 *            The new element.
+	 * @return E The element that was at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E set(int index, E e) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		int x = slot(index);
+		E result = item(x);
+		items[x] = e;
+		return result;
+	}
+
+	/**
+	 * Makes a ListIterator and moves its current position to i.
+	 *
+	 * @see java.util.AbstractSequentialList#listIterator(int)
+	 * @param i
+	 *            The index in the list to start the iterator at.
+	 * @return ListIterator The iterator starting at index i.
+	 */
+	@Override
+	public ListIterator<E> listIterator(int i) {
+		return new MyArrayListIterator(i);
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#size()
+	 * @return The size of this list.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every element and keeps the arrays for reuse.
+	 *
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(items, 0, used, null);
+		head = NIL;
+		tail = NIL;
+		size = 0;
+		freeHead = NIL;
+		used = 0;
+		modCount++;
+	}
+
+	/**
+	 * Adds an element in front of the first element.
+	 *
+	 * @see java.util.Deque#addFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addFirst(E e) {
+		linkBefore(e, head);
+	}
+
+	/**
+	 * Adds an element after the last element.
+	 *
+	 * @see java.util.Deque#addLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addLast(E e) {
+		linkBefore(e, NIL);
+	}
+
+	/**
+	 * Returns an iterator that follows prev[] from the tail.
+	 *
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator Traverses the list backwards.
+	 */
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new Iterator<E>() {
+			ListIterator<E> iter = listIterator(size);
+
+			@Override
+			public boolean hasNext() {
+				return iter.hasPrevious();
+			}
+
+			@Override
+			public E next() {
+				return iter.previous();
+			}
+
+			@Override
+			public void remove() {
+				iter.remove();
+			}
+		};
+	}
+
+	/**
+	 * Returns the first element.
+	 *
+	 * @see java.util.Deque#element()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	@Override
+	public E element() {
+		if (head == NIL) {
+			throw new NoSuchElementException();
+		}
+		return item(head);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#element}.
+	 *
+	 * @see java.util.Deque#getFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E getFirst() {
+		return element();
+	}
+
+	/**
+	 * Returns the last element.
+	 *
+	 * @see java.util.Deque#getLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	@Override
+	public E getLast() {
+		if (tail == NIL) {
+			throw new NoSuchElementException();
+		}
+		return item(tail);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#addLast}.
+	 *
+	 * @see java.util.Deque#offer(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offer(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#addFirst}.
+	 *
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerFirst(E e) {
+		addFirst(e);
+		return true;
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#addLast}.
+	 *
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerLast(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Returns the first element or null if the list is empty.
+	 *
+	 * @see java.util.Deque#peek()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E peek() {
+		return head == NIL ? null : item(head);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#peek}.
+	 *
+	 * @see java.util.Deque#peekFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E peekFirst() {
+		return peek();
+	}
+
+	/**
+	 * Returns the last element or null if the list is empty.
+	 *
+	 * @see java.util.Deque#peekLast()
+	 * @return E The tail of the list.
+	 */
+	@Override
+	public E peekLast() {
+		return tail == NIL ? null : item(tail);
+	}
+
+	/**
+	 * Returns and removes the first element or returns null if the list is
+	 * empty.
+	 *
+	 * @see java.util.Deque#poll()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E poll() {
+		return head == NIL ? null : unlink(head);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#poll()}.
+	 *
+	 * @see java.util.Deque#pollFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E pollFirst() {
+		return poll();
+	}
+
+	/**
+	 * Returns and removes the last element or returns null if the list is
+	 * empty.
+	 *
+	 * @see java.util.Deque#pollLast()
+	 * @return E The tail of the list.
+	 */
+	@Override
+	public E pollLast() {
+		return tail == NIL ? null : unlink(tail);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#removeFirst}.
+	 *
+	 * @see java.util.Deque#pop()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#addFirst}.
+	 *
+	 * @see java.util.Deque#push(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	/**
+	 * Alias for {@link MyArrayLinkedList#removeFirst}.
+	 *
+	 * @see java.util.Deque#remove()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	/**
+	 * Throws exception if the list is empty, otherwise this is an alias for
+	 * {@link MyArrayLinkedList#poll}.
+	 *
+	 * @see java.util.Deque#removeFirst()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeFirst() {
+		if (head == NIL) {
+			throw new NoSuchElementException();
+		}
+		return unlink(head);
+	}
+
+	/**
+	 * Removes the first element that equals o.
+	 *
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		for (int x = head; x != NIL; x = next[x]) {
+			if (o == null ? items[x] == null : o.equals(items[x])) {
+				unlink(x);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Throws an exception if the list is empty, otherwise it is an alias for
+	 * {@link MyArrayLinkedList#pollLast}.
+	 *
+	 * @see java.util.Deque#removeLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeLast() {
+		if (tail == NIL) {
+			throw new NoSuchElementException();
+		}
+		return unlink(tail);
+	}
+
+	/**
+	 * Removes the last element that equals o (the first while iterating
+	 * backwards from the tail).
+	 *
+	 * @see java.util.Deque#removeLastOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		for (int x = tail; x != NIL; x = prev[x]) {
+			if (o == null ? items[x] == null : o.equals(items[x])) {
+				unlink(x);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Does a shallow copy of this list into a new, compacted instance of
+	 * MyArrayLinkedList.
+	 *
+	 * @see java.lang.Object#clone()
+	 * @return Object The new instance which is the clone.
+	 */
+	@Override
+	public Object clone() {
+		MyArrayLinkedList<E> result = new MyArrayLinkedList<E>(size);
+		for (int x = head; x != NIL; x = next[x]) {
+			result.addLast(item(x));
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the size followed by the elements in order.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (int x = head; x != NIL; x = next[x]) {
+			out.writeObject(items[x]);
+		}
+	}
+
+	/**
+	 * Reads the size and elements written by writeObject into slots in list
+	 * order.
+	 *
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int n = in.readInt();
+		if (n < 0) {
+			throw new InvalidObjectException("negative size " + n);
+		}
+		// n is not trusted yet, so grow as the elements actually arrive
+		int capacity = Math.min(n, DEFAULT_CAPACITY);
+		items = new Object[capacity];
+		prev = new int[capacity];
+		next = new int[capacity];
+		head = NIL;
+		tail = NIL;
+		freeHead = NIL;
+		compactModCount = -1;
+		for (int i = 0; i < n; i++) {
+			addLast((E) in.readObject());
+		}
+	}
+
+}
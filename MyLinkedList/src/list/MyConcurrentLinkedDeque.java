@@ -0,0 +1,1111 @@
+package list;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A lock free deque of doubly linked nodes that any number of threads can
+ * use at once without a lock around it.
+ * <p>
+ * Every change is a compare and set of one link or element, so a thread that
+ * stops in the middle of a change never blocks the others. A node is removed
+ * by first setting its element to null, which is the moment the element
+ * leaves the deque, and then unlinking it. Threads that find a removed node
+ * in their way help skip it, so the nodes can be unlinked from the middle of
+ * the deque as safely as from its ends. head and tail may lag up to two nodes
+ * behind the real ends, which halves the number of compare and sets on them.
+ * The algorithm is the one of java.util.concurrent.ConcurrentLinkedDeque.
+ * </p>
+ * <p>
+ * The iterators are weakly consistent: they never throw
+ * ConcurrentModificationException, return each element at most once, and
+ * return every element that was in the deque for the whole iteration. size()
+ * walks the whole deque and is only an estimate while other threads change
+ * it. Unlike {@link MyLinkedList}, null elements are not allowed, because a
+ * null element marks a removed node.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the deque
+ */
+public class MyConcurrentLinkedDeque<E> extends AbstractCollection<E> implements Deque<E> {
+	/* Inner Classes */
+	/**
+	 * A node whose links and element are changed with compare and set.
+	 * <p>
+	 * A node is live while its element is not null. A removed node that is
+	 * unlinked from the deque has its next pointing to itself, or its prev
+	 * pointing to itself, or one of them pointing to a terminator node, so a
+	 * thread that holds it knows to start again from an end.
+	 * </p>
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the element stored in the Node
+	 */
+	@SuppressWarnings("rawtypes")
+	static final class Node<E> {
+		private static final AtomicReferenceFieldUpdater<Node, Node> PREV = AtomicReferenceFieldUpdater
+				.newUpdater(Node.class, Node.class, "prev");
+		private static final AtomicReferenceFieldUpdater<Node, Object> ITEM = AtomicReferenceFieldUpdater
+				.newUpdater(Node.class, Object.class, "item");
+		private static final AtomicReferenceFieldUpdater<Node, Node> NEXT = AtomicReferenceFieldUpdater
+				.newUpdater(Node.class, Node.class, "next");
+		volatile Node<E> prev;
+		volatile E item;
+		volatile Node<E> next;
+
+		Node(E item) {
+			this.item = item;
+		}
+
+		boolean casItem(E cmp, E val) {
+			return ITEM.compareAndSet(this, cmp, val);
+		}
+
+		boolean casNext(Node<E> cmp, Node<E> val) {
+			return NEXT.compareAndSet(this, cmp, val);
+		}
+
+		boolean casPrev(Node<E> cmp, Node<E> val) {
+			return PREV.compareAndSet(this, cmp, val);
+		}
+
+		void lazySetNext(Node<E> val) {
+			NEXT.lazySet(this, val);
+		}
+
+		void lazySetPrev(Node<E> val) {
+			PREV.lazySet(this, val);
+		}
+
+	}
+
+	/**
+	 * An iterator that walks the live nodes from startNode() with
+	 * nextNode(Node), reading each element one step ahead so hasNext() is
+	 * always right about the element next() returns.
+	 *
+	 * @author David Simmons
+	 */
+	private abstract class AbstractItr implements Iterator<E> {
+		// The node and element next() returns, or null at the end
+		private Node<E> nextNode;
+		private E nextItem;
+		// The node of the element last returned, for remove()
+		private Node<E> lastRet;
+
+		abstract Node<E> startNode();
+
+		abstract Node<E> nextNode(Node<E> p);
+
+		AbstractItr() {
+			advance();
+		}
+
+		/**
+		 * Move to the next live node after nextNode.
+		 */
+		private void advance() {
+			lastRet = nextNode;
+			Node<E> p = (nextNode == null) ? startNode() : nextNode(nextNode);
+			for (;; p = nextNode(p)) {
+				if (p == null) {
+					nextNode = null;
+					nextItem = null;
+					break;
+				}
+				E item = p.item;
+				if (item != null) {
+					nextNode = p;
+					nextItem = item;
+					break;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextItem != null;
+		}
+
+		@Override
+		public E next() {
+			E item = nextItem;
+			if (item == null) {
+				throw new NoSuchElementException();
+			}
+			advance();
+			return item;
+		}
+
+		/**
+		 * Remove the element last returned, unless another thread already
+		 * has.
+		 */
+		@Override
+		public void remove() {
+			Node<E> l = lastRet;
+			if (l == null) {
+				throw new IllegalStateException();
+			}
+			lastRet = null;
+			E item = l.item;
+			if (item != null && l.casItem(item, null)) {
+				unlink(l);
+			}
+		}
+
+	}
+
+	/**
+	 * Iterates from first to last.
+	 *
+	 * @author David Simmons
+	 */
+	private class Itr extends AbstractItr {
+		@Override
+		Node<E> startNode() {
+			return first();
+		}
+
+		@Override
+		Node<E> nextNode(Node<E> p) {
+			return succ(p);
+		}
+
+	}
+
+	/**
+	 * Iterates from last to first.
+	 *
+	 * @author David Simmons
+	 */
+	private class DescendingItr extends AbstractItr {
+		@Override
+		Node<E> startNode() {
+			return last();
+		}
+
+		@Override
+		Node<E> nextNode(Node<E> p) {
+			return pred(p);
+		}
+
+	}
+
+	/* Fields */
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<MyConcurrentLinkedDeque, Node> HEAD = AtomicReferenceFieldUpdater
+			.newUpdater(MyConcurrentLinkedDeque.class, Node.class, "head");
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<MyConcurrentLinkedDeque, Node> TAIL = AtomicReferenceFieldUpdater
+			.newUpdater(MyConcurrentLinkedDeque.class, Node.class, "tail");
+	// The prev of an unlinked first node and the next of an unlinked last node
+	private static final Node<Object> PREV_TERMINATOR = new Node<Object>(null);
+	private static final Node<Object> NEXT_TERMINATOR = new Node<Object>(null);
+	// head and tail are moved once they are this many nodes from the ends
+	private static final int HOPS = 2;
+	// A node from which the first node can be reached by prev links
+	private volatile Node<E> head;
+	// A node from which the last node can be reached by next links
+	private volatile Node<E> tail;
+
+	static {
+		PREV_TERMINATOR.next = PREV_TERMINATOR;
+		NEXT_TERMINATOR.prev = NEXT_TERMINATOR;
+	}
+
+	/* Constructors */
+	/**
+	 * Constructor which makes an empty deque.
+	 */
+	public MyConcurrentLinkedDeque() {
+		head = tail = new Node<E>(null);
+	}
+
+	/**
+	 * Constructor which makes a deque of the elements of c in its iteration
+	 * order.
+	 *
+	 * @param c
+	 * @throws NullPointerException
+	 *             if c holds null.
+	 */
+	public MyConcurrentLinkedDeque(Iterable<? extends E> c) {
+		this();
+		for (E e : c) {
+			linkLast(e);
+		}
+	}
+
+	/* Methods */
+	@SuppressWarnings("unchecked")
+	private Node<E> prevTerminator() {
+		return (Node<E>) PREV_TERMINATOR;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Node<E> nextTerminator() {
+		return (Node<E>) NEXT_TERMINATOR;
+	}
+
+	private boolean casHead(Node<E> cmp, Node<E> val) {
+		return HEAD.compareAndSet(this, cmp, val);
+	}
+
+	private boolean casTail(Node<E> cmp, Node<E> val) {
+		return TAIL.compareAndSet(this, cmp, val);
+	}
+
+	/**
+	 * Link e as the first element. Walks from head to the node with a null
+	 * prev and sets that prev to the new node, moving head only when it was
+	 * passed on the way.
+	 *
+	 * @param e
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	private void linkFirst(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		final Node<E> newNode = new Node<E>(e);
+		restartFromHead: for (;;) {
+			for (Node<E> h = head, p = h, q;;) {
+				if ((q = p.prev) != null && (q = (p = q).prev) != null) {
+					// Check for head updates every other hop
+					p = (h != (h = head)) ? h : q;
+				} else if (p.next == p) {
+					// p is PREV_TERMINATOR
+					continue restartFromHead;
+				} else {
+					// p is the first node
+					newNode.lazySetNext(p);
+					if (p.casPrev(null, newNode)) {
+						if (p != h) {
+							// Failure is fine, another thread moved head
+							casHead(h, newNode);
+						}
+						return;
+					}
+					// Lost to another thread, read prev again
+				}
+			}
+		}
+	}
+
+	/**
+	 * Link e as the last element.
+	 *
+	 * @see MyConcurrentLinkedDeque#linkFirst(Object)
+	 * @param e
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	private void linkLast(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		final Node<E> newNode = new Node<E>(e);
+		restartFromTail: for (;;) {
+			for (Node<E> t = tail, p = t, q;;) {
+				if ((q = p.next) != null && (q = (p = q).next) != null) {
+					// Check for tail updates every other hop
+					p = (t != (t = tail)) ? t : q;
+				} else if (p.prev == p) {
+					// p is NEXT_TERMINATOR
+					continue restartFromTail;
+				} else {
+					// p is the last node
+					newNode.lazySetPrev(p);
+					if (p.casNext(null, newNode)) {
+						if (p != t) {
+							casTail(t, newNode);
+						}
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unlink x, whose element has already been set to null. The removed nodes
+	 * around x are skipped as well, and x is only cut off completely when it
+	 * sits at an end, so a thread that is on x can always find its way back.
+	 *
+	 * @param x
+	 */
+	void unlink(Node<E> x) {
+		final Node<E> prev = x.prev;
+		final Node<E> next = x.next;
+		if (prev == null) {
+			unlinkFirst(x, next);
+		} else if (next == null) {
+			unlinkLast(x, prev);
+		} else {
+			// x is interior. Find its live neighbors, or the ends.
+			Node<E> activePred, activeSucc;
+			boolean isFirst, isLast;
+			int hops = 1;
+			for (Node<E> p = prev;; ++hops) {
+				if (p.item != null) {
+					activePred = p;
+					isFirst = false;
+					break;
+				}
+				Node<E> q = p.prev;
+				if (q == null) {
+					if (p.next == p) {
+						return;
+					}
+					activePred = p;
+					isFirst = true;
+					break;
+				} else if (p == q) {
+					return;
+				} else {
+					p = q;
+				}
+			}
+			for (Node<E> p = next;; ++hops) {
+				if (p.item != null) {
+					activeSucc = p;
+					isLast = false;
+					break;
+				}
+				Node<E> q = p.next;
+				if (q == null) {
+					if (p.prev == p) {
+						return;
+					}
+					activeSucc = p;
+					isLast = true;
+					break;
+				} else if (p == q) {
+					return;
+				} else {
+					p = q;
+				}
+			}
+			// Interior removed nodes are always squeezed out, ones near an
+			// end only once they add up
+			if (hops < HOPS && (isFirst | isLast)) {
+				return;
+			}
+			skipDeletedSuccessors(activePred);
+			skipDeletedPredecessors(activeSucc);
+			// Cut x off if the neighbors are still as they were found
+			if ((isFirst | isLast) && activePred.next == activeSucc && activeSucc.prev == activePred
+					&& (isFirst ? activePred.prev == null : activePred.item != null)
+					&& (isLast ? activeSucc.next == null : activeSucc.item != null)) {
+				// Make sure x can not be reached from head or tail
+				updateHead();
+				updateTail();
+				x.lazySetPrev(isFirst ? prevTerminator() : x);
+				x.lazySetNext(isLast ? nextTerminator() : x);
+			}
+		}
+	}
+
+	/**
+	 * Unlink the removed nodes after first, which has a null prev.
+	 *
+	 * @param first
+	 * @param next
+	 *            The next of first when it was read.
+	 */
+	private void unlinkFirst(Node<E> first, Node<E> next) {
+		for (Node<E> o = null, p = next, q;;) {
+			if (p.item != null || (q = p.next) == null) {
+				if (o != null && p.prev != p && first.casNext(next, p)) {
+					skipDeletedPredecessors(p);
+					if (first.prev == null && (p.next == null || p.item != null) && p.prev == first) {
+						updateHead();
+						updateTail();
+						o.lazySetNext(o);
+						o.lazySetPrev(prevTerminator());
+					}
+				}
+				return;
+			} else if (p == q) {
+				return;
+			} else {
+				o = p;
+				p = q;
+			}
+		}
+	}
+
+	/**
+	 * Unlink the removed nodes before last, which has a null next.
+	 *
+	 * @param last
+	 * @param prev
+	 *            The prev of last when it was read.
+	 */
+	private void unlinkLast(Node<E> last, Node<E> prev) {
+		for (Node<E> o = null, p = prev, q;;) {
+			if (p.item != null || (q = p.prev) == null) {
+				if (o != null && p.next != p && last.casPrev(prev, p)) {
+					skipDeletedSuccessors(p);
+					if (last.next == null && (p.prev == null || p.item != null) && p.next == last) {
+						updateHead();
+						updateTail();
+						o.lazySetPrev(o);
+						o.lazySetNext(nextTerminator());
+					}
+				}
+				return;
+			} else if (p == q) {
+				return;
+			} else {
+				o = p;
+				p = q;
+			}
+		}
+	}
+
+	/**
+	 * Move head to the first node if it is removed and not the first.
+	 */
+	private void updateHead() {
+		Node<E> h, p, q;
+		restartFromHead: while ((h = head).item == null && (p = h.prev) != null) {
+			for (;;) {
+				if ((q = p.prev) == null || (q = (p = q).prev) == null) {
+					if (casHead(h, p)) {
+						return;
+					}
+					continue restartFromHead;
+				} else if (h != head) {
+					continue restartFromHead;
+				} else {
+					p = q;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Move tail to the last node if it is removed and not the last.
+	 */
+	private void updateTail() {
+		Node<E> t, p, q;
+		restartFromTail: while ((t = tail).item == null && (p = t.next) != null) {
+			for (;;) {
+				if ((q = p.next) == null || (q = (p = q).next) == null) {
+					if (casTail(t, p)) {
+						return;
+					}
+					continue restartFromTail;
+				} else if (t != tail) {
+					continue restartFromTail;
+				} else {
+					p = q;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Point the prev of x past any removed nodes before it, for as long as x
+	 * is live or last.
+	 *
+	 * @param x
+	 */
+	private void skipDeletedPredecessors(Node<E> x) {
+		whileActive: do {
+			Node<E> prev = x.prev;
+			Node<E> p = prev;
+			findActive: for (;;) {
+				if (p.item != null) {
+					break findActive;
+				}
+				Node<E> q = p.prev;
+				if (q == null) {
+					if (p.next == p) {
+						continue whileActive;
+					}
+					break findActive;
+				} else if (p == q) {
+					continue whileActive;
+				} else {
+					p = q;
+				}
+			}
+			if (prev == p || x.casPrev(prev, p)) {
+				return;
+			}
+		} while (x.item != null || x.next == null);
+	}
+
+	/**
+	 * Point the next of x past any removed nodes after it, for as long as x
+	 * is live or first.
+	 *
+	 * @param x
+	 */
+	private void skipDeletedSuccessors(Node<E> x) {
+		whileActive: do {
+			Node<E> next = x.next;
+			Node<E> p = next;
+			findActive: for (;;) {
+				if (p.item != null) {
+					break findActive;
+				}
+				Node<E> q = p.next;
+				if (q == null) {
+					if (p.prev == p) {
+						continue whileActive;
+					}
+					break findActive;
+				} else if (p == q) {
+					continue whileActive;
+				} else {
+					p = q;
+				}
+			}
+			if (next == p || x.casNext(next, p)) {
+				return;
+			}
+		} while (x.item != null || x.prev == null);
+	}
+
+	/**
+	 * @param p
+	 * @return Node The node after p, or the first node if p was cut off.
+	 */
+	private Node<E> succ(Node<E> p) {
+		Node<E> q = p.next;
+		return (p == q) ? first() : q;
+	}
+
+	/**
+	 * @param p
+	 * @return Node The node before p, or the last node if p was cut off.
+	 */
+	private Node<E> pred(Node<E> p) {
+		Node<E> q = p.prev;
+		return (p == q) ? last() : q;
+	}
+
+	/**
+	 * Find the first node, which may be removed, and move head to it.
+	 *
+	 * @return Node The node with a null prev.
+	 */
+	private Node<E> first() {
+		restartFromHead: for (;;) {
+			for (Node<E> h = head, p = h, q;;) {
+				if ((q = p.prev) != null && (q = (p = q).prev) != null) {
+					p = (h != (h = head)) ? h : q;
+				} else if (p == h || casHead(h, p)) {
+					// The CAS always fails if p is PREV_TERMINATOR
+					return p;
+				} else {
+					continue restartFromHead;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the last node, which may be removed, and move tail to it.
+	 *
+	 * @return Node The node with a null next.
+	 */
+	private Node<E> last() {
+		restartFromTail: for (;;) {
+			for (Node<E> t = tail, p = t, q;;) {
+				if ((q = p.next) != null && (q = (p = q).next) != null) {
+					p = (t != (t = tail)) ? t : q;
+				} else if (p == t || casTail(t, p)) {
+					return p;
+				} else {
+					continue restartFromTail;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param e
+	 * @return E e
+	 * @throws NoSuchElementException
+	 *             if e is null.
+	 */
+	private static <E> E screenNullResult(E e) {
+		if (e == null) {
+			throw new NoSuchElementException();
+		}
+		return e;
+	}
+
+	/**
+	 * Adds e at the front.
+	 *
+	 * @see java.util.Deque#addFirst(java.lang.Object)
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public void addFirst(E e) {
+		linkFirst(e);
+	}
+
+	/**
+	 * Adds e at the end.
+	 *
+	 * @see java.util.Deque#addLast(java.lang.Object)
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public void addLast(E e) {
+		linkLast(e);
+	}
+
+	/**
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @return boolean true, since the deque has no bound.
+	 */
+	@Override
+	public boolean offerFirst(E e) {
+		linkFirst(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @return boolean true, since the deque has no bound.
+	 */
+	@Override
+	public boolean offerLast(E e) {
+		linkLast(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offer(java.lang.Object)
+	 */
+	@Override
+	public boolean offer(E e) {
+		return offerLast(e);
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#add(java.lang.Object)
+	 */
+	@Override
+	public boolean add(E e) {
+		return offerLast(e);
+	}
+
+	/**
+	 * Adds the elements of c at the end in its iteration order, all at once.
+	 * They are first linked into a chain of new nodes, and the chain is
+	 * appended with a single compare and set, so other threads see either
+	 * none of them or all of them.
+	 *
+	 * @see java.util.AbstractCollection#addAll(java.util.Collection)
+	 * @param c
+	 * @return boolean If c was not empty.
+	 * @throws NullPointerException
+	 *             if c holds null, in which case nothing is added.
+	 * @throws IllegalArgumentException
+	 *             if c is this deque, whose iterator would keep finding the
+	 *             elements it added.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		Node<E> first = null;
+		Node<E> last = null;
+		for (E e : c) {
+			if (e == null) {
+				throw new NullPointerException();
+			}
+			Node<E> newNode = new Node<E>(e);
+			if (first == null) {
+				first = last = newNode;
+			} else {
+				last.lazySetNext(newNode);
+				newNode.lazySetPrev(last);
+				last = newNode;
+			}
+		}
+		if (first == null) {
+			return false;
+		}
+		// Append the chain as linkLast appends one node
+		restartFromTail: for (;;) {
+			for (Node<E> t = tail, p = t, q;;) {
+				if ((q = p.next) != null && (q = (p = q).next) != null) {
+					p = (t != (t = tail)) ? t : q;
+				} else if (p.prev == p) {
+					// p is NEXT_TERMINATOR
+					continue restartFromTail;
+				} else {
+					// p is the last node
+					first.lazySetPrev(p);
+					if (p.casNext(null, first)) {
+						// tail may now lag many nodes behind, so try harder
+						// than linkLast to move it to the end of the chain
+						if (!casTail(t, last)) {
+							t = tail;
+							if (last.next == null) {
+								casTail(t, last);
+							}
+						}
+						return true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#push(java.lang.Object)
+	 */
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	/**
+	 * The element is read from the first live node, and the read is retried
+	 * if a node was added before that one meanwhile, so a deque that is never
+	 * empty never seems to be.
+	 *
+	 * @see java.util.Deque#peekFirst()
+	 */
+	@Override
+	public E peekFirst() {
+		restart: for (;;) {
+			E item;
+			Node<E> first = first(), p = first;
+			while ((item = p.item) == null) {
+				if (p == (p = p.next)) {
+					continue restart;
+				}
+				if (p == null) {
+					break;
+				}
+			}
+			if (first.prev != null) {
+				continue restart;
+			}
+			return item;
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#peekLast()
+	 */
+	@Override
+	public E peekLast() {
+		restart: for (;;) {
+			E item;
+			Node<E> last = last(), p = last;
+			while ((item = p.item) == null) {
+				if (p == (p = p.prev)) {
+					continue restart;
+				}
+				if (p == null) {
+					break;
+				}
+			}
+			if (last.next != null) {
+				continue restart;
+			}
+			return item;
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#peek()
+	 */
+	@Override
+	public E peek() {
+		return peekFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#getFirst()
+	 */
+	@Override
+	public E getFirst() {
+		return screenNullResult(peekFirst());
+	}
+
+	/**
+	 * @see java.util.Deque#getLast()
+	 */
+	@Override
+	public E getLast() {
+		return screenNullResult(peekLast());
+	}
+
+	/**
+	 * @see java.util.Deque#element()
+	 */
+	@Override
+	public E element() {
+		return getFirst();
+	}
+
+	/**
+	 * Takes the element of the first live node by setting it to null, then
+	 * unlinks the node.
+	 *
+	 * @see java.util.Deque#pollFirst()
+	 */
+	@Override
+	public E pollFirst() {
+		restart: for (;;) {
+			for (Node<E> first = first(), p = first;;) {
+				final E item;
+				if ((item = p.item) != null) {
+					if (first.prev != null) {
+						continue restart;
+					}
+					if (p.casItem(item, null)) {
+						unlink(p);
+						return item;
+					}
+				}
+				if (p == (p = p.next)) {
+					continue restart;
+				}
+				if (p == null) {
+					if (first.prev != null) {
+						continue restart;
+					}
+					return null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#pollLast()
+	 */
+	@Override
+	public E pollLast() {
+		restart: for (;;) {
+			for (Node<E> last = last(), p = last;;) {
+				final E item;
+				if ((item = p.item) != null) {
+					if (last.next != null) {
+						continue restart;
+					}
+					if (p.casItem(item, null)) {
+						unlink(p);
+						return item;
+					}
+				}
+				if (p == (p = p.prev)) {
+					continue restart;
+				}
+				if (p == null) {
+					if (last.next != null) {
+						continue restart;
+					}
+					return null;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#poll()
+	 */
+	@Override
+	public E poll() {
+		return pollFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#removeFirst()
+	 */
+	@Override
+	public E removeFirst() {
+		return screenNullResult(pollFirst());
+	}
+
+	/**
+	 * @see java.util.Deque#removeLast()
+	 */
+	@Override
+	public E removeLast() {
+		return screenNullResult(pollLast());
+	}
+
+	/**
+	 * @see java.util.Deque#remove()
+	 */
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#pop()
+	 */
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * Removes the first element equal to o, which may be anywhere in the
+	 * deque.
+	 *
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		if (o == null) {
+			return false;
+		}
+		for (Node<E> p = first(); p != null; p = succ(p)) {
+			E item = p.item;
+			if (item != null && o.equals(item) && p.casItem(item, null)) {
+				unlink(p);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.Deque#removeLastOccurrence(java.lang.Object)
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		if (o == null) {
+			return false;
+		}
+		for (Node<E> p = last(); p != null; p = pred(p)) {
+			E item = p.item;
+			if (item != null && o.equals(item) && p.casItem(item, null)) {
+				unlink(p);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.Deque#remove(java.lang.Object)
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#contains(java.lang.Object)
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (o == null) {
+			return false;
+		}
+		for (Node<E> p = first(); p != null; p = succ(p)) {
+			E item = p.item;
+			if (item != null && o.equals(item)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return peekFirst() == null;
+	}
+
+	/**
+	 * Counts the live nodes, so it takes O(n) time and is only an estimate
+	 * while other threads change the deque.
+	 *
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size() {
+		restart: for (;;) {
+			int count = 0;
+			for (Node<E> p = first(); p != null;) {
+				if (p.item != null) {
+					if (++count == Integer.MAX_VALUE) {
+						break;
+					}
+				}
+				if (p == (p = p.next)) {
+					continue restart;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * Removes elements from the front until the deque is empty.
+	 *
+	 * @see java.util.AbstractCollection#clear()
+	 */
+	@Override
+	public void clear() {
+		while (pollFirst() != null) {
+			// Keep polling
+		}
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#iterator()
+	 * @return Iterator A weakly consistent iterator from first to last.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	/**
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator A weakly consistent iterator from last to first.
+	 */
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new DescendingItr();
+	}
+
+	/**
+	 * @see java.util.Collection#spliterator()
+	 * @return Spliterator A weakly consistent spliterator that does not
+	 *         report a size.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliteratorUnknownSize(iterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+	}
+
+}
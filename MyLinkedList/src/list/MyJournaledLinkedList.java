@@ -0,0 +1,954 @@
+package list;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A thread safe queue over a MyLinkedList whose changes survive a crash,
+ * because each one is written to a write ahead log before the call that
+ * made it returns.
+ * <p>
+ * offer, poll, removeFirstOccurrence, and clear change the list and add a
+ * small record to the current batch, then wait until a flusher thread has
+ * written that batch to the log and forced it to the disk. The flusher lets
+ * a batch collect records for up to the commit delay before writing it, so
+ * many callers share one force. Every batch is written with its length, the
+ * length with its bits flipped, and a CRC32, and a batch that was only partly
+ * written when the process stopped is cut off when the log is read again. A
+ * damaged batch with a whole batch after it is not a partial write, so
+ * opening the list fails with a StreamCorruptedException instead of dropping
+ * the batches after it, and so does a log newer than the snapshot.
+ * </p>
+ * <p>
+ * When the log grows past the checkpoint size, or when
+ * {@link MyJournaledLinkedList#checkpoint()} is called, the flusher writes
+ * a snapshot of the list with {@link MyLinkedListCodec} and starts an empty
+ * log. The snapshot and the log carry a generation number, so a crash
+ * between the two leaves a log that is known to be older than the snapshot.
+ * The snapshot is taken from an O(1) copy on write clone, so the lock is not
+ * held while it is written. The first change made before the snapshot is
+ * written still shares the nodes with the clone, so it copies the list in
+ * O(n) time while holding the lock, and every other caller waits for that
+ * copy, though not for the disk. Opening the directory again reads the
+ * snapshot and replays the log.
+ * </p>
+ * <p>
+ * Reads see changes that are not durable yet, but every call that changes
+ * the list returns only after its record, and so every record before it,
+ * is on the disk. If writing the log fails, the list rejects every call
+ * after that and must be opened again.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements stored in the list
+ */
+public class MyJournaledLinkedList<E> implements Closeable {
+	/* Inner Classes */
+	/**
+	 * The records waiting to be written.
+	 *
+	 * @author David Simmons
+	 */
+	private static final class Batch extends ByteArrayOutputStream {
+		final DataOutputStream out = new DataOutputStream(this);
+
+		/**
+		 * Drop everything after the first length bytes.
+		 *
+		 * @param length
+		 */
+		void truncate(int length) {
+			count = length;
+		}
+
+		byte[] array() {
+			return buf;
+		}
+
+	}
+
+	/* Fields */
+	private static final int MAGIC = 0x4A4C4C32;
+	// The log starts with MAGIC and its generation
+	private static final int HEADER_BYTES = 12;
+	// Each batch is its length, the length with every bit flipped, its
+	// CRC32, and its records. The flipped copy lets a damaged length be told
+	// apart from a good one, and the next batch be found after it.
+	private static final int FRAME_BYTES = 12;
+	// Record types, each followed by its element or index if it has one
+	private static final int OFFER_FIRST = 1;
+	private static final int OFFER_LAST = 2;
+	private static final int POLL_FIRST = 3;
+	private static final int POLL_LAST = 4;
+	private static final int REMOVE_AT = 5;
+	private static final int CLEAR = 6;
+	// A batch this large is written without waiting out the commit delay
+	private static final int MAX_BATCH_BYTES = 1 << 20;
+	private final Path dir;
+	private final Path snapshotFile;
+	private final Path snapshotTemp;
+	private final ElementCodec<E> codec;
+	private final long commitDelayNanos;
+	private final long checkpointBytes;
+	private final FileChannel log;
+	private final Thread flusher;
+	private final ReentrantLock lock = new ReentrantLock();
+	// The flusher waits on work for records, callers wait on committed for
+	// the flusher
+	private final Condition work = lock.newCondition();
+	private final Condition committed = lock.newCondition();
+	// The rest is guarded by lock
+	private MyLinkedList<E> list;
+	private Batch batch = new Batch();
+	private Batch spare = new Batch();
+	// The number of the last record appended and of the last one on the disk
+	private long appended = 0;
+	private long durable = 0;
+	private long generation;
+	private long logBytes;
+	private long checkpoints = 0;
+	private boolean checkpointRequested = false;
+	private boolean checkpointing = false;
+	private long syncs = 0;
+	private IOException failure = null;
+	private boolean closed = false;
+
+	/* Constructors */
+	/**
+	 * Constructor with no commit delay and a checkpoint every 64 MB of log.
+	 * Callers that arrive while a batch is being forced still share the next
+	 * force, so a delay only helps when the force is faster than the gap
+	 * between callers.
+	 *
+	 * @param dir
+	 *            The directory for the snapshot and the log.
+	 * @param codec
+	 *            Converts the elements to and from bytes.
+	 * @throws IOException
+	 *             if the files can not be read or written.
+	 */
+	public MyJournaledLinkedList(Path dir, ElementCodec<E> codec) throws IOException {
+		this(dir, codec, 0, 64L << 20);
+	}
+
+	/**
+	 * Constructor which opens the list kept in dir, or starts an empty one.
+	 *
+	 * @param dir
+	 *            The directory for the snapshot and the log.
+	 * @param codec
+	 *            Converts the elements to and from bytes.
+	 * @param commitDelayMicros
+	 *            How long a batch may wait for more records before it is
+	 *            written, 0 to write each batch as soon as possible.
+	 * @param checkpointBytes
+	 *            The size of the log that starts a checkpoint.
+	 * @throws IOException
+	 *             if the files can not be read or written, or are damaged
+	 *             other than by a partly written last batch.
+	 */
+	public MyJournaledLinkedList(Path dir, ElementCodec<E> codec, long commitDelayMicros, long checkpointBytes)
+			throws IOException {
+		if (codec == null) {
+			throw new NullPointerException();
+		}
+		this.dir = dir;
+		this.codec = codec;
+		this.commitDelayNanos = TimeUnit.MICROSECONDS.toNanos(commitDelayMicros);
+		this.checkpointBytes = checkpointBytes;
+		Files.createDirectories(dir);
+		snapshotFile = dir.resolve("snapshot");
+		snapshotTemp = dir.resolve("snapshot.tmp");
+		if (Files.exists(snapshotFile)) {
+			try (DataInputStream in = new DataInputStream(
+					new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+				generation = in.readLong();
+				list = new MyLinkedListCodec<E>(codec).read(in);
+			}
+		} else {
+			generation = 0;
+			list = new MyLinkedList<E>();
+		}
+		log = FileChannel.open(dir.resolve("log"), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			replay();
+		} catch (IOException | RuntimeException e) {
+			log.close();
+			throw e;
+		}
+		flusher = new Thread(this::flushLoop, "MyJournaledLinkedList flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/* Methods */
+	/**
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true once the change is durable.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	public boolean offerFirst(E e) {
+		return offer(e, OFFER_FIRST);
+	}
+
+	/**
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true once the change is durable.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	public boolean offerLast(E e) {
+		return offer(e, OFFER_LAST);
+	}
+
+	/**
+	 * @see java.util.Queue#offer(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true once the change is durable.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	public boolean offer(E e) {
+		return offer(e, OFFER_LAST);
+	}
+
+	/**
+	 * @see java.util.Deque#pollFirst()
+	 * @return E The head of the list, once its removal is durable, or null if
+	 *         the list is empty.
+	 */
+	public E pollFirst() {
+		return poll(POLL_FIRST);
+	}
+
+	/**
+	 * @see java.util.Deque#pollLast()
+	 * @return E The tail of the list, once its removal is durable, or null if
+	 *         the list is empty.
+	 */
+	public E pollLast() {
+		return poll(POLL_LAST);
+	}
+
+	/**
+	 * @see java.util.Queue#poll()
+	 * @return E The head of the list, once its removal is durable, or null if
+	 *         the list is empty.
+	 */
+	public E poll() {
+		return poll(POLL_FIRST);
+	}
+
+	/**
+	 * Removes the first element that equals o. The record holds its index, so
+	 * o does not have to be converted by the codec.
+	 *
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found, once its removal is durable.
+	 */
+	public boolean removeFirstOccurrence(Object o) {
+		lock.lock();
+		try {
+			checkOpen();
+			int index = list.indexOf(o);
+			if (index < 0) {
+				return false;
+			}
+			long record = append(REMOVE_AT, null, index);
+			list.remove(index);
+			awaitDurable(record);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes every element, returning once that is durable.
+	 */
+	public void clear() {
+		lock.lock();
+		try {
+			checkOpen();
+			long record = append(CLEAR, null, 0);
+			list.clear();
+			awaitDurable(record);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#peekFirst()
+	 * @return E The head of the list or null if it is empty.
+	 */
+	public E peekFirst() {
+		lock.lock();
+		try {
+			return list.peekFirst();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @see java.util.Deque#peekLast()
+	 * @return E The tail of the list or null if it is empty.
+	 */
+	public E peekLast() {
+		lock.lock();
+		try {
+			return list.peekLast();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return int The number of elements.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return list.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return boolean If there are no elements.
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * The first change to this list while the clone is still reachable and
+	 * not cleared copies the list in O(n) time while holding the lock, which
+	 * makes every other caller wait for it. Clear the clone once it is no
+	 * longer needed to avoid that.
+	 *
+	 * @return MyLinkedList A copy on write clone of the elements, made in O(1)
+	 *         time.
+	 */
+	@SuppressWarnings("unchecked")
+	public MyLinkedList<E> toMyLinkedList() {
+		lock.lock();
+		try {
+			return (MyLinkedList<E>) list.clone();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the list and empties the log, returning once both
+	 * are on the disk.
+	 *
+	 * @throws UncheckedIOException
+	 *             if they could not be written.
+	 */
+	public void checkpoint() {
+		lock.lock();
+		try {
+			checkOpen();
+			// One that is running now started before this call
+			long target = checkpoints + (checkpointing ? 2 : 1);
+			checkpointRequested = true;
+			work.signal();
+			while (checkpoints < target && failure == null) {
+				committed.awaitUninterruptibly();
+			}
+			checkOpen();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes the records that are waiting, stops the flusher, and closes the
+	 * log. The next list opened on the directory replays the log.
+	 *
+	 * @see java.io.Closeable#close()
+	 * @throws IOException
+	 *             if writing the log failed.
+	 */
+	@Override
+	public void close() throws IOException {
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			work.signal();
+		} finally {
+			lock.unlock();
+		}
+		boolean interrupted = false;
+		while (flusher.isAlive()) {
+			try {
+				flusher.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		log.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * @return long The number of times a batch was forced to the disk.
+	 */
+	long syncs() {
+		lock.lock();
+		try {
+			return syncs;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return long The size of the log.
+	 */
+	long logBytes() {
+		lock.lock();
+		try {
+			return logBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Add e with a record of type, then wait for the record to be durable.
+	 *
+	 * @param e
+	 * @param type
+	 *            OFFER_FIRST or OFFER_LAST.
+	 * @return true
+	 */
+	private boolean offer(E e, int type) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		lock.lock();
+		try {
+			checkOpen();
+			long record = append(type, e, 0);
+			if (type == OFFER_FIRST) {
+				list.addFirst(e);
+			} else {
+				list.addLast(e);
+			}
+			awaitDurable(record);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove an end of the list with a record of type, then wait for the
+	 * record to be durable.
+	 *
+	 * @param type
+	 *            POLL_FIRST or POLL_LAST.
+	 * @return E The removed element or null if the list is empty.
+	 */
+	private E poll(int type) {
+		lock.lock();
+		try {
+			checkOpen();
+			if (list.isEmpty()) {
+				return null;
+			}
+			long record = append(type, null, 0);
+			E result = (type == POLL_FIRST) ? list.removeFirst() : list.removeLast();
+			awaitDurable(record);
+			return result;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Add a record to the batch before the change it describes is made, so
+	 * a codec that throws leaves both unchanged. Must hold lock.
+	 *
+	 * @param type
+	 * @param e
+	 *            The element of an offer.
+	 * @param index
+	 *            The index of a REMOVE_AT.
+	 * @return long The number of the record.
+	 */
+	private long append(int type, E e, int index) {
+		int mark = batch.size();
+		try {
+			batch.out.writeByte(type);
+			if (type == OFFER_FIRST || type == OFFER_LAST) {
+				codec.write(batch.out, e, null);
+			} else if (type == REMOVE_AT) {
+				MyLinkedListCodec.writeVarLong(batch.out, index);
+			}
+		} catch (IOException ex) {
+			batch.truncate(mark);
+			throw new UncheckedIOException(ex);
+		} catch (RuntimeException ex) {
+			batch.truncate(mark);
+			throw ex;
+		}
+		// The flusher only needs waking for the first record of a batch or a
+		// full one
+		if (mark == 0 || batch.size() >= MAX_BATCH_BYTES) {
+			work.signal();
+		}
+		return ++appended;
+	}
+
+	/**
+	 * Wait until record is on the disk. Must hold lock.
+	 *
+	 * @param record
+	 * @throws UncheckedIOException
+	 *             if writing the log failed first.
+	 */
+	private void awaitDurable(long record) {
+		while (durable < record && failure == null) {
+			committed.awaitUninterruptibly();
+		}
+		if (durable < record) {
+			throw new UncheckedIOException("write ahead log failed", failure);
+		}
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if the list was closed.
+	 * @throws UncheckedIOException
+	 *             if writing the log failed.
+	 */
+	private void checkOpen() {
+		if (failure != null) {
+			throw new UncheckedIOException("write ahead log failed", failure);
+		}
+		if (closed) {
+			throw new IllegalStateException("closed");
+		}
+	}
+
+	/**
+	 * The flusher thread, which writes batches and checkpoints until the list
+	 * is closed and everything has been written.
+	 */
+	private void flushLoop() {
+		lock.lock();
+		try {
+			while (failure == null) {
+				while (batch.size() == 0 && !checkpointRequested && !closed) {
+					work.awaitUninterruptibly();
+				}
+				// Give other callers the rest of the delay to join the batch
+				long left = commitDelayNanos;
+				while (left > 0 && batch.size() > 0 && batch.size() < MAX_BATCH_BYTES && !closed
+						&& !checkpointRequested) {
+					try {
+						left = work.awaitNanos(left);
+					} catch (InterruptedException e) {
+						left = 0;
+					}
+				}
+				if (batch.size() > 0) {
+					flush();
+				}
+				if (failure == null && (checkpointRequested || logBytes >= checkpointBytes)) {
+					writeCheckpoint(generation + 1);
+				}
+				if (closed && batch.size() == 0) {
+					break;
+				}
+			}
+		} finally {
+			committed.signalAll();
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Write the batch to the end of the log and force it, letting callers
+	 * fill the next batch in the meantime. Must hold lock.
+	 */
+	private void flush() {
+		Batch current = batch;
+		batch = spare;
+		long upTo = appended;
+		long position = logBytes;
+		int length = current.size();
+		lock.unlock();
+		IOException error = null;
+		try {
+			CRC32 crc = new CRC32();
+			crc.update(current.array(), 0, length);
+			ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES + length);
+			frame.putInt(length).putInt(~length).putInt((int) crc.getValue()).put(current.array(), 0, length)
+					.flip();
+			writeFully(frame, position);
+			log.force(false);
+		} catch (IOException e) {
+			error = e;
+		} finally {
+			lock.lock();
+		}
+		current.reset();
+		spare = current;
+		if (error != null) {
+			failure = error;
+		} else {
+			logBytes = position + FRAME_BYTES + length;
+			durable = upTo;
+			syncs++;
+		}
+		committed.signalAll();
+	}
+
+	/**
+	 * Write a snapshot of the list as generation next and start an empty log
+	 * for it. The records waiting in the batch are in the snapshot, so they
+	 * are dropped. Must hold lock, which is let go while the files are
+	 * written. A change made in the meantime copies the list under the lock,
+	 * since the clone shares its nodes until it is cleared.
+	 *
+	 * @param next
+	 */
+	@SuppressWarnings("unchecked")
+	private void writeCheckpoint(long next) {
+		checkpointRequested = false;
+		checkpointing = true;
+		MyLinkedList<E> copy = (MyLinkedList<E>) list.clone();
+		long covered = appended;
+		batch.reset();
+		lock.unlock();
+		IOException error = null;
+		try {
+			writeSnapshot(copy, next);
+			resetLog(next);
+		} catch (IOException e) {
+			error = e;
+		} finally {
+			// Let go of the shared nodes so the list need not copy them
+			copy.clear();
+			lock.lock();
+		}
+		checkpointing = false;
+		if (error != null) {
+			failure = error;
+		} else {
+			generation = next;
+			logBytes = HEADER_BYTES;
+			durable = covered;
+			checkpoints++;
+		}
+		committed.signalAll();
+	}
+
+	/**
+	 * Write copy to a temporary file, force it, and move it over the
+	 * snapshot.
+	 *
+	 * @param copy
+	 * @param next
+	 *            The generation of the snapshot.
+	 * @throws IOException
+	 */
+	private void writeSnapshot(MyLinkedList<E> copy, long next) throws IOException {
+		try (FileChannel channel = FileChannel.open(snapshotTemp, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+			out.writeLong(next);
+			new MyLinkedListCodec<E>(codec).write(copy, out);
+			out.flush();
+			channel.force(true);
+		}
+		Files.move(snapshotTemp, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+			directory.force(true);
+		} catch (IOException e) {
+			// Not every platform can force a directory
+		}
+	}
+
+	/**
+	 * Empty the log and write its header for generation.
+	 *
+	 * @param generation
+	 * @throws IOException
+	 */
+	private void resetLog(long generation) throws IOException {
+		log.truncate(0);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		header.putInt(MAGIC).putLong(generation).flip();
+		writeFully(header, 0);
+		log.force(true);
+	}
+
+	/**
+	 * Apply the batches of the log to the list, and cut the log off after the
+	 * last whole one. Only the last batch may be partly written, so a damaged
+	 * batch with a whole batch after it is an error rather than the end of the
+	 * log. A log from an older generation than the snapshot is already in the
+	 * snapshot and is emptied, and so is a log whose header was only partly
+	 * written when it was started.
+	 *
+	 * @throws IOException
+	 *             if a batch other than the last is damaged, or the log is
+	 *             not a log or is newer than the snapshot, which means the
+	 *             snapshot it follows was lost.
+	 */
+	private void replay() throws IOException {
+		long size = log.size();
+		if (size < HEADER_BYTES || zeroFrom(0, size)) {
+			resetLog(generation);
+			logBytes = HEADER_BYTES;
+			return;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+		readFully(header, 0);
+		if (header.getInt(0) != MAGIC) {
+			throw new StreamCorruptedException("not a log");
+		}
+		long logGeneration = header.getLong(4);
+		if (logGeneration > generation) {
+			throw new StreamCorruptedException(
+					"log of generation " + logGeneration + " after snapshot of generation " + generation);
+		}
+		if (logGeneration < generation) {
+			resetLog(generation);
+			logBytes = HEADER_BYTES;
+			return;
+		}
+		long position = HEADER_BYTES;
+		ByteBuffer frame = ByteBuffer.allocate(FRAME_BYTES);
+		while (position < size) {
+			int length = -1;
+			if (position + FRAME_BYTES <= size) {
+				frame.clear();
+				readFully(frame, position);
+				if (frame.getInt(0) > 0 && frame.getInt(4) == ~frame.getInt(0)) {
+					length = frame.getInt(0);
+				}
+			}
+			if (length < 0) {
+				// The length itself is damaged, so where the batch ends is
+				// unknown
+				if (wholeBatchAfter(position, size)) {
+					throw new StreamCorruptedException("bad batch length at " + position);
+				}
+				break;
+			}
+			if (length > size - position - FRAME_BYTES) {
+				// The length was written but not all of the records
+				break;
+			}
+			byte[] records = wholeBatchAt(position, length, frame.getInt(8));
+			if (records == null) {
+				if (position + FRAME_BYTES + length == size) {
+					break;
+				}
+				throw new StreamCorruptedException("bad batch checksum at " + position);
+			}
+			apply(records, length);
+			position += FRAME_BYTES + length;
+		}
+		if (position < size) {
+			// The last batch was only partly written
+			log.truncate(position);
+			log.force(true);
+		}
+		logBytes = position;
+	}
+
+	/**
+	 * @param position
+	 * @param length
+	 * @param checksum
+	 * @return byte[] The length records after the frame header at position,
+	 *         or null if their CRC32 is not checksum.
+	 * @throws IOException
+	 */
+	private byte[] wholeBatchAt(long position, int length, int checksum) throws IOException {
+		ByteBuffer records = ByteBuffer.allocate(length);
+		readFully(records, position + FRAME_BYTES);
+		CRC32 crc = new CRC32();
+		crc.update(records.array(), 0, length);
+		return ((int) crc.getValue() == checksum) ? records.array() : null;
+	}
+
+	/**
+	 * Look for a whole batch anywhere after the damaged one at position,
+	 * which shows the damaged one was not the last batch written. Only the
+	 * places whose length and flipped length agree have their records
+	 * checked.
+	 *
+	 * @param position
+	 * @param size
+	 * @return boolean If a whole batch starts after position.
+	 * @throws IOException
+	 */
+	private boolean wholeBatchAfter(long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		for (long start = position + 1; start + FRAME_BYTES <= size; start += buffer.limit() - FRAME_BYTES + 1) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), size - start));
+			readFully(buffer, start);
+			for (int i = 0; i + FRAME_BYTES <= buffer.limit(); i++) {
+				int length = buffer.getInt(i);
+				long at = start + i;
+				if (length > 0 && buffer.getInt(i + 4) == ~length && length <= size - at - FRAME_BYTES
+						&& wholeBatchAt(at, length, buffer.getInt(i + 8)) != null) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A file system may grow a file before the bytes written to it reach
+	 * it, which leaves zeros where they should be.
+	 *
+	 * @param position
+	 * @param size
+	 * @return boolean If every byte of the log from position on is 0.
+	 * @throws IOException
+	 */
+	private boolean zeroFrom(long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+		while (position < size) {
+			buffer.clear();
+			buffer.limit((int) Math.min(buffer.capacity(), size - position));
+			readFully(buffer, position);
+			for (int i = 0; i < buffer.limit(); i++) {
+				if (buffer.get(i) != 0) {
+					return false;
+				}
+			}
+			position += buffer.limit();
+		}
+		return true;
+	}
+
+	/**
+	 * Apply the records of one batch to the list.
+	 *
+	 * @param records
+	 * @param length
+	 * @throws IOException
+	 *             if a record is damaged or does not fit the list.
+	 */
+	private void apply(byte[] records, int length) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(records, 0, length));
+		try {
+			while (in.available() > 0) {
+				int type = in.readByte();
+				switch (type) {
+				case OFFER_FIRST:
+					list.addFirst(codec.read(in, null));
+					break;
+				case OFFER_LAST:
+					list.addLast(codec.read(in, null));
+					break;
+				case POLL_FIRST:
+					list.removeFirst();
+					break;
+				case POLL_LAST:
+					list.removeLast();
+					break;
+				case REMOVE_AT:
+					list.remove((int) MyLinkedListCodec.readVarLong(in));
+					break;
+				case CLEAR:
+					list.clear();
+					break;
+				default:
+					throw new StreamCorruptedException("unknown record " + type);
+				}
+			}
+		} catch (NoSuchElementException | IndexOutOfBoundsException e) {
+			throw new StreamCorruptedException("record does not fit the list: " + e);
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            Written from its position to its limit.
+	 * @param position
+	 *            Where in the log to write it.
+	 * @throws IOException
+	 */
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += log.write(buffer, position);
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            Filled from its position to its limit.
+	 * @param position
+	 *            Where in the log to read from.
+	 * @throws IOException
+	 *             if the log ends first.
+	 */
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int n = log.read(buffer, position);
+			if (n < 0) {
+				throw new EOFException();
+			}
+			position += n;
+		}
+	}
+
+}
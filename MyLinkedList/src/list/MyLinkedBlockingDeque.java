@@ -0,0 +1,943 @@
+package list;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A blocking deque of doubly linked nodes, optionally bounded, with one lock
+ * for the front and one for the end so producers at one end and consumers at
+ * the other rarely wait for each other.
+ * <p>
+ * An operation on one end takes only that end's lock when the number of
+ * elements shows the other end can not touch the same nodes: an insertion
+ * needs at least one element and room for an insertion at each end, and a
+ * removal needs at least three elements. Otherwise, and whenever a thread is
+ * waiting, the operation takes both locks, always the front one first. The
+ * count is an AtomicInteger that a removal decrements before unlinking its
+ * node and an insertion increments after linking its node, so the count
+ * never exceeds the number of linked nodes.
+ * </p>
+ * <p>
+ * Blocking uses ReentrantLock and Condition only, never synchronized, so a
+ * virtual thread that waits for room or for an element gives up its carrier
+ * thread. Both conditions belong to the front lock, and a waiting thread
+ * releases the end lock before waiting and takes it back after. Iterators
+ * work on a copy of the deque taken when they are made, so they never throw
+ * ConcurrentModificationException, and the operations in the middle of the
+ * deque take both locks. Null elements are not allowed.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the deque
+ */
+public class MyLinkedBlockingDeque<E> extends AbstractQueue<E> implements BlockingDeque<E> {
+	/* Inner Classes */
+	/**
+	 * A deque node. Its element is set to null once it is unlinked.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the element stored in the Node
+	 */
+	private static final class Node<E> {
+		E item;
+		Node<E> prev;
+		Node<E> next;
+
+		Node(E item) {
+			this.item = item;
+		}
+
+	}
+
+	/**
+	 * Iterates over the elements the deque had when it was made, and removes
+	 * the last one returned only if it is still in the deque.
+	 *
+	 * @author David Simmons
+	 */
+	private class Itr implements Iterator<E> {
+		private final ArrayList<Node<E>> nodes = new ArrayList<Node<E>>();
+		private final ArrayList<E> items = new ArrayList<E>();
+		private int next = 0;
+		private Node<E> lastRet = null;
+
+		Itr(boolean descending) {
+			lockBoth();
+			try {
+				if (descending) {
+					for (Node<E> p = tail.prev; p != head; p = p.prev) {
+						nodes.add(p);
+						items.add(p.item);
+					}
+				} else {
+					for (Node<E> p = head.next; p != tail; p = p.next) {
+						nodes.add(p);
+						items.add(p.item);
+					}
+				}
+			} finally {
+				unlockBoth();
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < items.size();
+		}
+
+		@Override
+		public E next() {
+			if (next >= items.size()) {
+				throw new NoSuchElementException();
+			}
+			lastRet = nodes.get(next);
+			return items.get(next++);
+		}
+
+		@Override
+		public void remove() {
+			if (lastRet == null) {
+				throw new IllegalStateException();
+			}
+			lockBoth();
+			try {
+				if (lastRet.item != null) {
+					unlinkLocked(lastRet);
+				}
+			} finally {
+				unlockBoth();
+			}
+			lastRet = null;
+		}
+
+	}
+
+	/* Fields */
+	private final int capacity;
+	private final AtomicInteger count = new AtomicInteger();
+	// Sentinels, so the ends never link to null
+	private final Node<E> head = new Node<E>(null);
+	private final Node<E> tail = new Node<E>(null);
+	// Guards head.next and the first nodes
+	private final ReentrantLock headLock = new ReentrantLock();
+	// Guards tail.prev and the last nodes
+	private final ReentrantLock tailLock = new ReentrantLock();
+	private final Condition notEmpty = headLock.newCondition();
+	private final Condition notFull = headLock.newCondition();
+	// Threads waiting on each condition, changed only while holding both
+	// locks, which keeps the other threads off the one lock paths
+	private volatile int takeWaiters = 0;
+	private volatile int putWaiters = 0;
+
+	/* Constructors */
+	/**
+	 * Constructor which makes an empty deque with no bound.
+	 */
+	public MyLinkedBlockingDeque() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Constructor which makes an empty deque that holds up to capacity
+	 * elements.
+	 *
+	 * @param capacity
+	 * @throws IllegalArgumentException
+	 *             if capacity is less than 1.
+	 */
+	public MyLinkedBlockingDeque(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity " + capacity);
+		}
+		this.capacity = capacity;
+		head.next = tail;
+		tail.prev = head;
+	}
+
+	/**
+	 * Constructor which makes a deque with no bound holding the elements of
+	 * c in its iteration order.
+	 *
+	 * @param c
+	 * @throws NullPointerException
+	 *             if c holds null.
+	 */
+	public MyLinkedBlockingDeque(Collection<? extends E> c) {
+		this(Integer.MAX_VALUE);
+		for (E e : c) {
+			addLast(e);
+		}
+	}
+
+	/* Methods */
+	private void lockBoth() {
+		headLock.lock();
+		tailLock.lock();
+	}
+
+	private void unlockBoth() {
+		tailLock.unlock();
+		headLock.unlock();
+	}
+
+	/**
+	 * Wait on condition while holding both locks.
+	 *
+	 * @param condition
+	 *            notEmpty or notFull.
+	 * @param nanos
+	 *            The time left to wait, or Long.MAX_VALUE to wait until
+	 *            signaled.
+	 * @return long The time left.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	private long await(Condition condition, long nanos) throws InterruptedException {
+		// The conditions belong to headLock, so tailLock is released by hand
+		// and taken back after headLock, keeping the lock order
+		tailLock.unlock();
+		try {
+			if (nanos == Long.MAX_VALUE) {
+				condition.await();
+				return nanos;
+			}
+			return condition.awaitNanos(nanos);
+		} finally {
+			tailLock.lock();
+		}
+	}
+
+	/**
+	 * Link node at the front or the end. The caller holds the lock of that
+	 * end, and both locks unless the count allows one.
+	 *
+	 * @param node
+	 * @param first
+	 */
+	private void link(Node<E> node, boolean first) {
+		Node<E> prev = first ? head : tail.prev;
+		Node<E> next = first ? head.next : tail;
+		node.prev = prev;
+		node.next = next;
+		prev.next = node;
+		next.prev = node;
+	}
+
+	/**
+	 * Unlink the first or the last node, which must exist, without changing
+	 * the count.
+	 *
+	 * @param first
+	 * @return E The element of the node.
+	 */
+	private E unlink(boolean first) {
+		Node<E> node = first ? head.next : tail.prev;
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+		E item = node.item;
+		node.item = null;
+		return item;
+	}
+
+	/**
+	 * Link node at one end holding only that end's lock, if the count shows
+	 * the other end is at least one node away and both ends could insert
+	 * without passing the capacity.
+	 *
+	 * @param node
+	 * @param first
+	 * @return boolean Whether node was linked.
+	 */
+	private boolean tryLinkAlone(Node<E> node, boolean first) {
+		ReentrantLock lock = first ? headLock : tailLock;
+		lock.lock();
+		try {
+			int c = count.get();
+			if (c < 1 || c > capacity - 2 || takeWaiters > 0) {
+				return false;
+			}
+			link(node, first);
+			count.incrementAndGet();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Link node at one end holding both locks, if there is room.
+	 *
+	 * @param node
+	 * @param first
+	 * @return boolean Whether node was linked.
+	 */
+	private boolean linkLocked(Node<E> node, boolean first) {
+		if (count.get() >= capacity) {
+			return false;
+		}
+		link(node, first);
+		count.incrementAndGet();
+		if (takeWaiters > 0) {
+			notEmpty.signal();
+		}
+		return true;
+	}
+
+	/**
+	 * Unlink a node at one end holding only that end's lock, if the count
+	 * shows at least three nodes, so two removals at different ends are at
+	 * least two nodes apart.
+	 *
+	 * @param first
+	 * @return E The element removed, or null if it needs both locks.
+	 */
+	private E tryUnlinkAlone(boolean first) {
+		ReentrantLock lock = first ? headLock : tailLock;
+		lock.lock();
+		try {
+			if (putWaiters > 0) {
+				return null;
+			}
+			for (;;) {
+				int c = count.get();
+				if (c < 3) {
+					return null;
+				}
+				if (count.compareAndSet(c, c - 1)) {
+					return unlink(first);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Unlink a node at one end holding both locks.
+	 *
+	 * @param first
+	 * @return E The element removed, or null if the deque is empty.
+	 */
+	private E unlinkLocked(boolean first) {
+		if (count.get() == 0) {
+			return null;
+		}
+		count.decrementAndGet();
+		E item = unlink(first);
+		if (putWaiters > 0) {
+			notFull.signal();
+		}
+		return item;
+	}
+
+	/**
+	 * Unlink node from anywhere in the deque holding both locks.
+	 *
+	 * @param node
+	 *            A node that is still linked.
+	 */
+	private void unlinkLocked(Node<E> node) {
+		count.decrementAndGet();
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+		node.item = null;
+		if (putWaiters > 0) {
+			notFull.signal();
+		}
+	}
+
+	/**
+	 * @param e
+	 * @param first
+	 * @return boolean Whether e was added, which fails only if the deque is
+	 *         full.
+	 */
+	private boolean insert(E e, boolean first) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		Node<E> node = new Node<E>(e);
+		if (tryLinkAlone(node, first)) {
+			return true;
+		}
+		lockBoth();
+		try {
+			return linkLocked(node, first);
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @param e
+	 * @param first
+	 * @param nanos
+	 *            The longest time to wait for room, or Long.MAX_VALUE to wait
+	 *            as long as it takes.
+	 * @return boolean Whether e was added before the time ran out.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	private boolean insert(E e, boolean first, long nanos) throws InterruptedException {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		Node<E> node = new Node<E>(e);
+		if (tryLinkAlone(node, first)) {
+			return true;
+		}
+		lockBoth();
+		try {
+			while (!linkLocked(node, first)) {
+				if (nanos <= 0) {
+					return false;
+				}
+				putWaiters++;
+				try {
+					nanos = await(notFull, nanos);
+				} finally {
+					putWaiters--;
+				}
+			}
+			return true;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @param first
+	 * @return E The first or last element, which is removed, or null if the
+	 *         deque is empty.
+	 */
+	private E extract(boolean first) {
+		E item = tryUnlinkAlone(first);
+		if (item != null) {
+			return item;
+		}
+		lockBoth();
+		try {
+			return unlinkLocked(first);
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @param first
+	 * @param nanos
+	 *            The longest time to wait for an element, or Long.MAX_VALUE
+	 *            to wait as long as it takes.
+	 * @return E The first or last element, which is removed, or null if the
+	 *         time ran out first.
+	 * @throws InterruptedException
+	 *             if interrupted while waiting.
+	 */
+	private E extract(boolean first, long nanos) throws InterruptedException {
+		E item = tryUnlinkAlone(first);
+		if (item != null) {
+			return item;
+		}
+		lockBoth();
+		try {
+			while ((item = unlinkLocked(first)) == null) {
+				if (nanos <= 0) {
+					return null;
+				}
+				takeWaiters++;
+				try {
+					nanos = await(notEmpty, nanos);
+				} finally {
+					takeWaiters--;
+				}
+			}
+			return item;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @param first
+	 * @return E The first or last element, or null if the deque is empty.
+	 */
+	private E peek(boolean first) {
+		ReentrantLock lock = first ? headLock : tailLock;
+		lock.lock();
+		try {
+			// With an element counted, the other end can only remove nodes
+			// at least two away from this one
+			if (count.get() == 0) {
+				return null;
+			}
+			return first ? head.next.item : tail.prev.item;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#addFirst(java.lang.Object)
+	 * @throws IllegalStateException
+	 *             if the deque is full.
+	 */
+	@Override
+	public void addFirst(E e) {
+		if (!offerFirst(e)) {
+			throw new IllegalStateException("Deque full");
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#addLast(java.lang.Object)
+	 * @throws IllegalStateException
+	 *             if the deque is full.
+	 */
+	@Override
+	public void addLast(E e) {
+		if (!offerLast(e)) {
+			throw new IllegalStateException("Deque full");
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offerFirst(java.lang.Object)
+	 */
+	@Override
+	public boolean offerFirst(E e) {
+		return insert(e, true);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offerLast(java.lang.Object)
+	 */
+	@Override
+	public boolean offerLast(E e) {
+		return insert(e, false);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#putFirst(java.lang.Object)
+	 */
+	@Override
+	public void putFirst(E e) throws InterruptedException {
+		insert(e, true, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#putLast(java.lang.Object)
+	 */
+	@Override
+	public void putLast(E e) throws InterruptedException {
+		insert(e, false, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offerFirst(java.lang.Object,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public boolean offerFirst(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		return insert(e, true, Math.min(unit.toNanos(timeout), Long.MAX_VALUE - 1));
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offerLast(java.lang.Object,
+	 *      long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public boolean offerLast(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		return insert(e, false, Math.min(unit.toNanos(timeout), Long.MAX_VALUE - 1));
+	}
+
+	/**
+	 * @see java.util.Deque#pollFirst()
+	 */
+	@Override
+	public E pollFirst() {
+		return extract(true);
+	}
+
+	/**
+	 * @see java.util.Deque#pollLast()
+	 */
+	@Override
+	public E pollLast() {
+		return extract(false);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#takeFirst()
+	 */
+	@Override
+	public E takeFirst() throws InterruptedException {
+		return extract(true, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#takeLast()
+	 */
+	@Override
+	public E takeLast() throws InterruptedException {
+		return extract(false, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#pollFirst(long,
+	 *      java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+		return extract(true, Math.min(unit.toNanos(timeout), Long.MAX_VALUE - 1));
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#pollLast(long,
+	 *      java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+		return extract(false, Math.min(unit.toNanos(timeout), Long.MAX_VALUE - 1));
+	}
+
+	/**
+	 * @see java.util.Deque#removeFirst()
+	 */
+	@Override
+	public E removeFirst() {
+		E e = pollFirst();
+		if (e == null) {
+			throw new NoSuchElementException();
+		}
+		return e;
+	}
+
+	/**
+	 * @see java.util.Deque#removeLast()
+	 */
+	@Override
+	public E removeLast() {
+		E e = pollLast();
+		if (e == null) {
+			throw new NoSuchElementException();
+		}
+		return e;
+	}
+
+	/**
+	 * @see java.util.Deque#peekFirst()
+	 */
+	@Override
+	public E peekFirst() {
+		return peek(true);
+	}
+
+	/**
+	 * @see java.util.Deque#peekLast()
+	 */
+	@Override
+	public E peekLast() {
+		return peek(false);
+	}
+
+	/**
+	 * @see java.util.Deque#getFirst()
+	 */
+	@Override
+	public E getFirst() {
+		E e = peekFirst();
+		if (e == null) {
+			throw new NoSuchElementException();
+		}
+		return e;
+	}
+
+	/**
+	 * @see java.util.Deque#getLast()
+	 */
+	@Override
+	public E getLast() {
+		E e = peekLast();
+		if (e == null) {
+			throw new NoSuchElementException();
+		}
+		return e;
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offer(java.lang.Object)
+	 */
+	@Override
+	public boolean offer(E e) {
+		return offerLast(e);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#put(java.lang.Object)
+	 */
+	@Override
+	public void put(E e) throws InterruptedException {
+		putLast(e);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#offer(java.lang.Object, long,
+	 *      java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		return offerLast(e, timeout, unit);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#poll()
+	 */
+	@Override
+	public E poll() {
+		return pollFirst();
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#take()
+	 */
+	@Override
+	public E take() throws InterruptedException {
+		return takeFirst();
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#poll(long,
+	 *      java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		return pollFirst(timeout, unit);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#peek()
+	 */
+	@Override
+	public E peek() {
+		return peekFirst();
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#push(java.lang.Object)
+	 */
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	/**
+	 * @see java.util.Deque#pop()
+	 */
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#removeFirstOccurrence(java.lang.Object)
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		if (o == null) {
+			return false;
+		}
+		lockBoth();
+		try {
+			for (Node<E> p = head.next; p != tail; p = p.next) {
+				if (o.equals(p.item)) {
+					unlinkLocked(p);
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#removeLastOccurrence(java.lang.Object)
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		if (o == null) {
+			return false;
+		}
+		lockBoth();
+		try {
+			for (Node<E> p = tail.prev; p != head; p = p.prev) {
+				if (o.equals(p.item)) {
+					unlinkLocked(p);
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#remove(java.lang.Object)
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#contains(java.lang.Object)
+	 */
+	@Override
+	public boolean contains(Object o) {
+		if (o == null) {
+			return false;
+		}
+		lockBoth();
+		try {
+			for (Node<E> p = head.next; p != tail; p = p.next) {
+				if (o.equals(p.item)) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#size()
+	 */
+	@Override
+	public int size() {
+		return count.get();
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingQueue#remainingCapacity()
+	 */
+	@Override
+	public int remainingCapacity() {
+		return capacity - count.get();
+	}
+
+	/**
+	 * Removes every element at once, waking every thread waiting for room.
+	 *
+	 * @see java.util.AbstractQueue#clear()
+	 */
+	@Override
+	public void clear() {
+		lockBoth();
+		try {
+			for (Node<E> p = head.next; p != tail;) {
+				Node<E> next = p.next;
+				p.prev = null;
+				p.next = null;
+				p.item = null;
+				p = next;
+			}
+			head.next = tail;
+			tail.prev = head;
+			count.set(0);
+			if (putWaiters > 0) {
+				notFull.signalAll();
+			}
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingQueue#drainTo(java.util.Collection)
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Moves up to maxElements elements from the front into c under one
+	 * acquisition of both locks. If c throws, the elements it took are
+	 * removed and the rest stay.
+	 *
+	 * @see java.util.concurrent.BlockingQueue#drainTo(java.util.Collection,
+	 *      int)
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		if (c == this) {
+			throw new IllegalArgumentException();
+		}
+		if (maxElements <= 0) {
+			return 0;
+		}
+		lockBoth();
+		try {
+			int n = Math.min(maxElements, count.get());
+			int i = 0;
+			try {
+				for (; i < n; i++) {
+					c.add(head.next.item);
+					unlink(true);
+				}
+			} finally {
+				if (i > 0) {
+					count.addAndGet(-i);
+					if (putWaiters > 0) {
+						notFull.signalAll();
+					}
+				}
+			}
+			return n;
+		} finally {
+			unlockBoth();
+		}
+	}
+
+	/**
+	 * @see java.util.concurrent.BlockingDeque#iterator()
+	 * @return Iterator An iterator over a copy of the deque from first to
+	 *         last.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr(false);
+	}
+
+	/**
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator An iterator over a copy of the deque from last to
+	 *         first.
+	 */
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new Itr(true);
+	}
+
+}
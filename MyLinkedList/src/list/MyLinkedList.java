@@ -1,15 +1,34 @@
 package list;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.AbstractSequentialList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * A doubly linked list with head and tail pointers.
@@ -18,8 +37,9 @@ import java.util.Queue;
  * https://docs.oracle.com/javase/7/docs/api/java/util/LinkedList.html. I coded
  * it only looking at the specification and not the original implementation for
  * practice using Java features. This implementation relies on listIterator and
- * AbstractSequentialList to minimize code repetition for operations like add,
- * get, and remove.
+ * AbstractSequentialList to minimize code repetition for positional operations
+ * like add, get, and remove. The Deque operations on either end link and unlink
+ * nodes directly so they run in constant time.
  * </p>
  * 
  * @author David Simmons (GitHub: davsim1) Date: 6/2016
@@ -28,23 +48,29 @@ import java.util.Queue;
  *            The type of the elements to be stored in the linked list
  */
 public class MyLinkedList<E> extends AbstractSequentialList<E>
-		implements Serializable, Cloneable, Iterable<E>, Collection<E>, Deque<E>, List<E>, Queue<E> {
+		implements Serializable, Cloneable, Iterable<E>, Collection<E>, Deque<E>, List<E>, Queue<E>, ListDeque<E> {
 	/* Inner Classes */
 	/**
 	 * A simple linked list Node to hold data, link to previous element, and
 	 * link to next element.
+	 * <p>
+	 * Node is static so it does not carry a hidden reference to the list, which
+	 * keeps it at three references (24 bytes with compressed references). It is
+	 * only visible inside the package for {@link SkipListIndex} and
+	 * {@link PersistentLinkedList}.
+	 * </p>
 	 * 
 	 * @author David Simmons
 	 *
-	 * @param <T>
+	 * @param <E>
 	 *            The type of the elements to be stored in the Node
 	 */
-	public class Node<T> {
-		public T data;
-		public Node<T> prev;
-		public Node<T> next;
+	static final class Node<E> {
+		E data;
+		Node<E> prev;
+		Node<E> next;
 
-		public Node(T data) {
+		Node(E data) {
 			this.data = data;
 		}
 
@@ -64,23 +90,22 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	 */
 	public class MyListIterator implements ListIterator<E> {
 		/* Fields */
-		Node<E> curr = head;
-		Node<E> next = head;
+		// The last node returned by next() or previous()
+		Node<E> curr = null;
+		// The node the next call to next() returns, null past the tail
+		Node<E> next;
 		// Store if remove or set can be used
 		boolean canAlter = false;
-		// Store if this is the first return by next() to avoid repeatedly
-		// returning head
-		boolean firstNext = true;
-		// Store if this is the first return by previous() to avoid
-		// repeatedly returning tail
-		boolean firstPrev = true;
-		int index = 0;
+		int index;
 		int expectedModCount = modCount;
+		// The list's copies count when next and curr were found, since a
+		// copy on write leaves them in the nodes a clone still uses
+		int copies = MyLinkedList.this.copies;
 
 		/* Constructor */
 		/**
-		 * Constructor to start the iterator at index i by calling next() until
-		 * i is the next index to be returned.
+		 * Constructor to start the iterator at index i so that i is the next
+		 * index to be returned.
 		 * 
 		 * @param i
 		 *            The index to star the iterator at.
@@ -89,6 +114,20 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 			goToIndex(i);
 		}
 
+		/**
+		 * Constructor to start the iterator at a node that is already known,
+		 * without a seek.
+		 * 
+		 * @param next
+		 *            The node at index i, or null if i is size.
+		 * @param i
+		 *            The index to start the iterator at.
+		 */
+		MyListIterator(Node<E> next, int i) {
+			this.next = next;
+			this.index = i;
+		}
+
 		/* Methods */
 		/**
 		 * Adds e to the list before so that it would be the next element
@@ -97,29 +136,19 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		 * @see java.util.ListIterator#add(java.lang.Object)
 		 * @param e
 		 *            The element to add.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
 		 */
 		@Override
 		public void add(E e) {
+			checkForComodification();
+			ensureOwned();
 			canAlter = false;
-			Node<E> newNode = new Node<E>(e);
-			if (head == null) {
-				head = newNode;
-				tail = head;
-				next = null;
-			} else {
-				// Insert the element before the next one to be returned
-				if (next == null || next.prev == tail) {
-					link(tail, newNode);
-				} else if (next == head) {
-					link(newNode, head);
-				} else {
-					insertNode(next.prev, newNode, next);
-				}
-				index++;
-			}
-			size++;
+			curr = null;
+			linkBefore(e, next, index);
+			index++;
 			expectedModCount++;
-			modCount++;
 		}
 
 		/**
@@ -132,7 +161,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		 */
 		@Override
 		public boolean hasNext() {
-			return (curr != null && curr.next != null) || (curr == head && curr != null && firstNext);
+			return index < size;
 		}
 
 		/**
@@ -145,7 +174,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		 */
 		@Override
 		public boolean hasPrevious() {
-			return (curr != null && curr.prev != null) || (curr == tail && curr != null && firstPrev);
+			return index > 0;
 		}
 
 		/**
@@ -161,28 +190,16 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		 */
 		@Override
 		public E next() {
-			E result;
+			checkForComodification();
 			if (!hasNext()) {
 				throw new NoSuchElementException();
 			}
-			if (expectedModCount != modCount) {
-				throw new ConcurrentModificationException();
-			}
-			// Head is a special case because there is no node where
-			// curr.next is head.
-			if (curr == head && curr != null && firstNext) {
-				result = curr.data;
-				firstNext = false;
-				firstPrev = true;
-			} else {
-				result = curr.next.data;
-				curr = curr.next;
-				firstNext = true;
-			}
-			next = curr.next;
+			followCopy();
+			curr = next;
+			next = next.next;
 			index++;
 			canAlter = true;
-			return result;
+			return curr.data;
 		}
 
 		/**
@@ -210,212 +227,2186 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		 */
 		@Override
 		public E previous() {
-			E result;
+			checkForComodification();
 			if (!hasPrevious()) {
 				throw new NoSuchElementException();
 			}
-			if (expectedModCount != modCount) {
-				throw new ConcurrentModificationException();
+			followCopy();
+			next = (next == null) ? tail : next.prev;
+			curr = next;
+			index--;
+			canAlter = true;
+			return curr.data;
+		}
+
+		/**
+		 * @see java.util.ListIterator#previousIndex()
+		 * @return int The index of the element that a call to previous() would
+		 *         have.
+		 */
+		@Override
+		public int previousIndex() {
+			return index - 1;
+		}
+
+		/**
+		 * Removes the last element returned by
+		 * {@link MyLinkedList.MyListIterator#previous} or
+		 * {@link MyLinkedList.MyListIterator#next()} as long as
+		 * {@link MyLinkedList.MyListIterator#add} has not been called
+		 * afterwards. This can only happen once per
+		 * {@link MyLinkedList.MyListIterator#previous} or
+		 * {@link MyLinkedList.MyListIterator#next()} call.
+		 * 
+		 * @see java.util.ListIterator#remove()
+		 * @throws IllegalStateException
+		 *             if {@link MyLinkedList.MyListIterator#previous} or
+		 *             {@link MyLinkedList.MyListIterator#next()} have not been
+		 *             called or if {@link MyLinkedList.MyListIterator#add} or
+		 *             {@link MyLinkedList.MyListIterator#remove} have been
+		 *             called after the last next/previous call.
+		 */
+		@Override
+		public void remove() {
+			if (!canAlter) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			ensureOwned();
+			canAlter = false;
+
+			Node<E> after = curr.next;
+			if (next == curr) {
+				// The last call was previous()
+				unlink(curr, index);
+				next = after;
+			} else {
+				unlink(curr, --index);
+			}
+			curr = null;
+			expectedModCount++;
+		}
+
+		/**
+		 * Sets the last element returned by
+		 * {@link MyLinkedList.MyListIterator#previous} or
+		 * {@link MyLinkedList.MyListIterator#next()} as long as
+		 * {@link MyLinkedList.MyListIterator#add} or
+		 * {@link MyLinkedList.MyListIterator#remove} have not been called
+		 * afterwards.
+		 * 
+		 * @see java.util.ListIterator#set(java.lang.Object)
+		 * @throws IllegalStateException
+		 *             if {@link MyLinkedList.MyListIterator#previous} or
+		 *             {@link MyLinkedList.MyListIterator#next()} have not been
+		 *             called or if {@link MyLinkedList.MyListIterator#add} or
+		 *             {@link MyLinkedList.MyListIterator#remove} have been
+		 *             called after the last next/previous call.
+		 */
+		@Override
+		public void set(E e) {
+			if (!canAlter) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			ensureOwned();
+			curr.data = e;
+		}
+
+		/**
+		 * Move this iterator so next() will return the element at index i by
+		 * walking the links from whichever end of the list is nearer.
+		 * 
+		 * @param i
+		 * @return ListIterator<E> this
+		 * @throws IndexOutOfBoundsException
+		 *             if i is less than 0 or more than size.
+		 */
+		private ListIterator<E> goToIndex(int i) {
+			if (i < 0 || i > size) {
+				throw new IndexOutOfBoundsException();
+			}
+			next = (i == size) ? null : node(i);
+			index = i;
+			return this;
+		}
+
+		/**
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator.
+		 */
+		private void checkForComodification() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		/**
+		 * Give the list its own nodes before this iterator writes to them.
+		 */
+		private void ensureOwned() {
+			materialize();
+			followCopy();
+		}
+
+		/**
+		 * Move this iterator onto the list's new nodes at the same index if
+		 * the list copied the nodes it shared with a clone since this
+		 * iterator last looked.
+		 */
+		private void followCopy() {
+			if (copies != MyLinkedList.this.copies) {
+				// After previous() curr is the next node, after next() the
+				// one before it
+				boolean currIsNext = (curr != null && curr == next);
+				next = (index == size) ? null : node(index);
+				if (curr != null) {
+					curr = currIsNext ? next : (next == null ? tail : next.prev);
+				}
+				copies = MyLinkedList.this.copies;
+			}
+		}
+
+	}
+
+	/**
+	 * A late-binding, fail-fast Spliterator that walks the Node links.
+	 * <p>
+	 * It binds to head and size on its first use and splits its range in
+	 * half, finding the middle node with the skip list index when the list has
+	 * one or by walking otherwise, so both halves know their exact size and
+	 * parallel streams get balanced pieces. forEachRemaining follows next
+	 * without any per element checks and checks modCount once at the end.
+	 * </p>
+	 * 
+	 * @author David Simmons
+	 */
+	public class MyListSpliterator implements Spliterator<E> {
+		/* Fields */
+		// The node the next element comes from
+		Node<E> current;
+		// The index of current in the list
+		int index;
+		// The number of elements left, -1 until bound to the list
+		int remaining;
+		int expectedModCount;
+		// The list's copies count when current was found
+		int copies;
+
+		/* Constructors */
+		/**
+		 * Constructor for a spliterator over the whole list, bound on first
+		 * use.
+		 */
+		MyListSpliterator() {
+			remaining = -1;
+		}
+
+		/**
+		 * Constructor for a spliterator over remaining elements starting at
+		 * current.
+		 * 
+		 * @param current
+		 * @param index
+		 * @param remaining
+		 * @param expectedModCount
+		 * @param copies
+		 */
+		MyListSpliterator(Node<E> current, int index, int remaining, int expectedModCount, int copies) {
+			this.current = current;
+			this.index = index;
+			this.remaining = remaining;
+			this.expectedModCount = expectedModCount;
+			this.copies = copies;
+		}
+
+		/* Methods */
+		/**
+		 * Bind to the list if this is the first use.
+		 * 
+		 * @return int The number of elements left.
+		 */
+		private int bind() {
+			if (remaining < 0) {
+				current = head;
+				index = 0;
+				remaining = size;
+				expectedModCount = modCount;
+				copies = MyLinkedList.this.copies;
+			}
+			return remaining;
+		}
+
+		/**
+		 * Find current again by index if the list copied the nodes it shared
+		 * with a clone since current was found.
+		 */
+		private void followCopy() {
+			if (copies != MyLinkedList.this.copies) {
+				current = (remaining == 0) ? null : node(index);
+				copies = MyLinkedList.this.copies;
+			}
+		}
+
+		/**
+		 * Split off the first half of the remaining elements.
+		 * 
+		 * @see java.util.Spliterator#trySplit()
+		 * @return Spliterator The first half, or null if fewer than two
+		 *         elements are left.
+		 */
+		@Override
+		public Spliterator<E> trySplit() {
+			int n = bind();
+			if (n < 2) {
+				return null;
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			followCopy();
+			int half = n >>> 1;
+			Node<E> mid;
+			SkipListIndex<E> skip = skipIndex;
+			if (skip != null && half > SKIP_INDEX_THRESHOLD) {
+				mid = skip.node(index + half, head);
+			} else {
+				mid = current;
+				for (int i = 0; i < half; i++) {
+					mid = mid.next;
+				}
+			}
+			Spliterator<E> prefix = new MyListSpliterator(current, index, half, expectedModCount, copies);
+			current = mid;
+			index += half;
+			remaining = n - half;
+			return prefix;
+		}
+
+		/**
+		 * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+		 * @param action
+		 *            Called with the next element.
+		 * @return boolean If there was an element.
+		 */
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			if (bind() <= 0) {
+				return false;
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			followCopy();
+			Node<E> x = current;
+			current = x.next;
+			index++;
+			remaining--;
+			action.accept(x.data);
+			return true;
+		}
+
+		/**
+		 * @see java.util.Spliterator#forEachRemaining(java.util.function.Consumer)
+		 * @param action
+		 *            Called with each remaining element in order.
+		 */
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			if (action == null) {
+				throw new NullPointerException();
+			}
+			int n = bind();
+			followCopy();
+			Node<E> x = current;
+			int i = index;
+			current = null;
+			index += n;
+			remaining = 0;
+			// x is only null if the list shrank, which is reported below
+			for (; n > 0 && x != null; n--, i++) {
+				if (copies != MyLinkedList.this.copies) {
+					// action set an element, which copied the shared nodes
+					if (expectedModCount != modCount) {
+						break;
+					}
+					x = node(i);
+					copies = MyLinkedList.this.copies;
+				}
+				action.accept(x.data);
+				x = x.next;
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		/**
+		 * @see java.util.Spliterator#estimateSize()
+		 * @return long The exact number of elements left.
+		 */
+		@Override
+		public long estimateSize() {
+			return bind();
+		}
+
+		/**
+		 * @see java.util.Spliterator#characteristics()
+		 * @return int ORDERED, SIZED, and SUBSIZED.
+		 */
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+	}
+
+	/**
+	 * A view of a range of the list anchored on the nodes just outside it.
+	 * <p>
+	 * The range is kept as the node before it and the node after it (null at
+	 * either end of the list), its offset, and its size, so iterating it
+	 * starts from the nearer anchor instead of seeking from the ends of the
+	 * whole list, and clear() unlinks the whole range at once. Changes made
+	 * through a sublist update the sizes of the sublists it was made from,
+	 * and the view finds its anchors again by index whenever the list has
+	 * copied nodes it shared with a clone. Any other structural change to
+	 * the list makes the view throw ConcurrentModificationException.
+	 * </p>
+	 * 
+	 * @author David Simmons
+	 */
+	private class SubList extends AbstractSequentialList<E> {
+		/* Fields */
+		// modCount here is the list's, since AbstractList gives the view its
+		// own
+		// The sublist this one was made from, or null if it was made from
+		// the list
+		final SubList parent;
+		// The nodes just outside the range, null past head or tail
+		Node<E> before;
+		Node<E> after;
+		// The index of the first element of the range in the list
+		final int offset;
+		int size;
+		// Compared with the list's modCount, not the one AbstractList gives
+		// this view
+		int expectedModCount = MyLinkedList.this.modCount;
+		// The list's copies count when before and after were found, since a
+		// copy on write leaves them in the nodes a clone still uses
+		int copies = MyLinkedList.this.copies;
+
+		/* Constructor */
+		SubList(SubList parent, Node<E> before, Node<E> after, int offset, int size) {
+			this.parent = parent;
+			this.before = before;
+			this.after = after;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		/* Methods */
+		/**
+		 * @param i
+		 *            An index from 0 to size.
+		 * @return Node The node at index i of the range, or after if i is
+		 *         size, walking from the nearer anchor.
+		 */
+		private Node<E> seek(int i) {
+			Node<E> x;
+			if (i <= (size >> 1)) {
+				x = (before == null) ? head : before.next;
+				for (int k = 0; k < i; k++) {
+					x = x.next;
+				}
+			} else {
+				x = after;
+				for (int k = size; k > i; k--) {
+					x = (x == null) ? tail : x.prev;
+				}
+			}
+			return x;
+		}
+
+		/**
+		 * Record a change of delta elements made through this view in it and
+		 * the views it was made from.
+		 * 
+		 * @param delta
+		 */
+		private void changed(int delta) {
+			for (SubList s = this; s != null; s = s.parent) {
+				s.size += delta;
+				s.expectedModCount = MyLinkedList.this.modCount;
+				if (s.copies != MyLinkedList.this.copies) {
+					s.relocate();
+				}
+			}
+		}
+
+		/**
+		 * Find the anchors again by index after the list copied its nodes.
+		 */
+		private void relocate() {
+			before = (offset == 0) ? null : node(offset - 1);
+			after = (offset + size == MyLinkedList.this.size) ? null : node(offset + size);
+			copies = MyLinkedList.this.copies;
+		}
+
+		/**
+		 * Find the anchors again if the list copied its nodes since they
+		 * were found.
+		 * 
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this view.
+		 */
+		private void checkForComodification() {
+			if (expectedModCount != MyLinkedList.this.modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (copies != MyLinkedList.this.copies) {
+				relocate();
+			}
+		}
+
+		@Override
+		public int size() {
+			checkForComodification();
+			return size;
+		}
+
+		@Override
+		public ListIterator<E> listIterator(int i) {
+			checkForComodification();
+			if (i < 0 || i > size) {
+				throw new IndexOutOfBoundsException();
+			}
+			return new SubListIterator(this, new MyListIterator(seek(i), offset + i));
+		}
+
+		@Override
+		public List<E> subList(int fromIndex, int toIndex) {
+			checkForComodification();
+			checkSubListRange(fromIndex, toIndex, size);
+			Node<E> from = (fromIndex == 0) ? before : seek(fromIndex - 1);
+			Node<E> to = (toIndex == size) ? after : seek(toIndex);
+			return new SubList(this, from, to, offset + fromIndex, toIndex - fromIndex);
+		}
+
+		/**
+		 * Removes the whole range by linking its anchors to each other.
+		 * 
+		 * @see java.util.AbstractList#clear()
+		 */
+		@Override
+		public void clear() {
+			checkForComodification();
+			if (size == 0) {
+				return;
+			}
+			if (materialize()) {
+				changed(0);
+			}
+			unlinkRange(before, after, offset, size);
+			changed(-size);
+		}
+
+	}
+
+	/**
+	 * The ListIterator of a SubList, which stops at the ends of the range and
+	 * reports indexes relative to it.
+	 * 
+	 * @author David Simmons
+	 */
+	private class SubListIterator implements ListIterator<E> {
+		final SubList sub;
+		final MyListIterator iter;
+
+		SubListIterator(SubList sub, MyListIterator iter) {
+			this.sub = sub;
+			this.iter = iter;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iter.nextIndex() < sub.offset + sub.size;
+		}
+
+		@Override
+		public E next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return iter.next();
+		}
+
+		@Override
+		public boolean hasPrevious() {
+			return iter.previousIndex() >= sub.offset;
+		}
+
+		@Override
+		public E previous() {
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			return iter.previous();
+		}
+
+		@Override
+		public int nextIndex() {
+			return iter.nextIndex() - sub.offset;
+		}
+
+		@Override
+		public int previousIndex() {
+			return iter.previousIndex() - sub.offset;
+		}
+
+		@Override
+		public void remove() {
+			iter.remove();
+			sub.changed(-1);
+		}
+
+		@Override
+		public void set(E e) {
+			iter.set(e);
+			// Setting may have copied the nodes
+			sub.changed(0);
+		}
+
+		@Override
+		public void add(E e) {
+			iter.add(e);
+			sub.changed(1);
+		}
+
+	}
+
+	/**
+	 * A stable natural merge sort that relinks nodes instead of copying
+	 * elements.
+	 * <p>
+	 * The list is cut into its non-descending runs from left to right, and
+	 * runs shorter than MIN_RUN are extended by insertion. Each run is a chain
+	 * of nodes through next that ends in null, and it is pushed on a stack of
+	 * runs that are waiting to be merged. Whenever the run below
+	 * the top is less than twice as long as the top, the two are merged, so
+	 * runs are merged while their nodes are still in the cache, the stack
+	 * stays under 64 runs, and the sort takes O(n log r) time for r runs with
+	 * no space that depends on n. Every node stays on the stack or in the
+	 * unsorted rest even if the comparator throws.
+	 * </p>
+	 * 
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the elements to be sorted
+	 */
+	private static final class NodeSorter<E> {
+		// Runs shorter than this are extended by insertion
+		static final int MIN_RUN = 32;
+		final Comparator<? super E> cmp;
+		@SuppressWarnings("unchecked")
+		final Node<E>[] runs = (Node<E>[]) new Node<?>[64];
+		final int[] lengths = new int[64];
+		int depth = 0;
+		// The nodes not yet cut into runs
+		Node<E> rest;
+
+		NodeSorter(Comparator<? super E> cmp) {
+			this.cmp = cmp;
+		}
+
+		/**
+		 * Sort the chain starting at first, leaving the sorted chain in
+		 * runs[0].
+		 * 
+		 * @param first
+		 */
+		void sort(Node<E> first) {
+			rest = first;
+			while (rest != null) {
+				// Start a run on the stack and extend it in place
+				Node<E> last = rest;
+				runs[depth] = rest;
+				lengths[depth] = 1;
+				depth++;
+				rest = rest.next;
+				last.next = null;
+				while (rest != null) {
+					Node<E> y = rest;
+					if (cmp.compare(last.data, y.data) <= 0) {
+						rest = y.next;
+						y.next = null;
+						last.next = y;
+						last = y;
+					} else if (lengths[depth - 1] < MIN_RUN) {
+						// Insert y before the first greater node, found
+						// before y leaves rest
+						Node<E> before = null;
+						Node<E> p = runs[depth - 1];
+						while (cmp.compare(y.data, p.data) >= 0) {
+							before = p;
+							p = p.next;
+						}
+						rest = y.next;
+						y.next = p;
+						if (before == null) {
+							runs[depth - 1] = y;
+						} else {
+							before.next = y;
+						}
+					} else {
+						break;
+					}
+					lengths[depth - 1]++;
+				}
+				while (depth > 1 && lengths[depth - 2] - lengths[depth - 1] < lengths[depth - 1]) {
+					mergeTop();
+				}
+			}
+			while (depth > 1) {
+				mergeTop();
+			}
+		}
+
+		/**
+		 * Merge the top run into the run below it, which comes before it in
+		 * the list. Equal elements keep their order by taking from the lower
+		 * run first. If the comparator throws, the rest of both runs is kept
+		 * unsorted.
+		 */
+		void mergeTop() {
+			Node<E> a = runs[depth - 2];
+			Node<E> b = runs[depth - 1];
+			Node<E> first = null;
+			Node<E> last = null;
+			try {
+				while (a != null && b != null) {
+					Node<E> x;
+					if (cmp.compare(b.data, a.data) < 0) {
+						x = b;
+						b = b.next;
+					} else {
+						x = a;
+						a = a.next;
+					}
+					if (last == null) {
+						first = x;
+					} else {
+						last.next = x;
+					}
+					last = x;
+				}
+			} finally {
+				Node<E> tail = b;
+				if (a != null) {
+					if (b != null) {
+						Node<E> end = a;
+						while (end.next != null) {
+							end = end.next;
+						}
+						end.next = b;
+					}
+					tail = a;
+				}
+				if (last == null) {
+					first = tail;
+				} else {
+					last.next = tail;
+				}
+				depth--;
+				runs[depth - 1] = first;
+				lengths[depth - 1] += lengths[depth];
+				runs[depth] = null;
+			}
+		}
+
+	}
+
+	/**
+	 * A detached chain of new nodes that the bulk insertions build before
+	 * splicing it into the list in one step.
+	 * 
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the elements to be stored in the chain
+	 */
+	private static final class Chain<E> {
+		Node<E> first;
+		Node<E> last;
+		int count;
+
+		void append(Node<E> x) {
+			if (last == null) {
+				first = x;
+			} else {
+				last.next = x;
+				x.prev = last;
+			}
+			last = x;
+			count++;
+		}
+
+	}
+
+	/**
+	 * The lists that use a chain of nodes shared by clone(). Each list is held
+	 * through a weak reference, so a clone that nobody can reach any more
+	 * stops counting once it is garbage collected, and the lists still using
+	 * the nodes do not copy them on its account.
+	 * 
+	 * @author David Simmons
+	 */
+	private static final class Share {
+		private final ReferenceQueue<Object> collected = new ReferenceQueue<Object>();
+		private final Set<Reference<?>> users = new HashSet<Reference<?>>();
+
+		/**
+		 * @param list
+		 * @return Reference The reference that stands for list among the
+		 *         users until it leaves.
+		 */
+		synchronized Reference<?> join(Object list) {
+			expunge();
+			Reference<?> user = new WeakReference<Object>(list, collected);
+			users.add(user);
+			return user;
+		}
+
+		/**
+		 * Remove user if it is the only list left that can read the nodes.
+		 * 
+		 * @param user
+		 * @return boolean If user was alone and left.
+		 */
+		synchronized boolean leaveIfAlone(Reference<?> user) {
+			expunge();
+			if (users.size() > 1) {
+				return false;
+			}
+			users.remove(user);
+			return true;
+		}
+
+		/**
+		 * @param user
+		 * @return boolean If no list that can read the nodes is left.
+		 */
+		synchronized boolean leave(Reference<?> user) {
+			users.remove(user);
+			expunge();
+			return users.isEmpty();
+		}
+
+		private void expunge() {
+			for (Reference<?> r; (r = collected.poll()) != null;) {
+				users.remove(r);
+			}
+		}
+
+	}
+
+	/**
+	 * A position reached by a seek. It is immutable and published through a
+	 * single field, so a reader never sees the node of one seek with the
+	 * index of another.
+	 * 
+	 * @author David Simmons
+	 */
+	private static final class Finger<E> {
+		final Node<E> node;
+		final int index;
+		// The modCount of the list when node was at index
+		final int modCount;
+
+		Finger(Node<E> node, int index, int modCount) {
+			this.node = node;
+			this.index = index;
+			this.modCount = modCount;
+		}
+
+	}
+
+	/**
+	 * A fork-join task that runs body on each segment number from lo to hi,
+	 * splitting the range in half until one segment is left.
+	 * 
+	 * @author David Simmons
+	 */
+	private static final class SegmentTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		final int lo;
+		final int hi;
+		final IntConsumer body;
+
+		SegmentTask(int lo, int hi, IntConsumer body) {
+			this.lo = lo;
+			this.hi = hi;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo == 1) {
+				body.accept(lo);
+			} else {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new SegmentTask(lo, mid, body), new SegmentTask(mid, hi, body));
+			}
+		}
+
+	}
+
+	/* Fields */
+	private static final long serialVersionUID = 1L;
+	// Written by writeObject as the size and the elements, since default
+	// serialization of the chain recurses once per node
+	private transient Node<E> head = null;
+	private transient Node<E> tail = null;
+	private transient int size = 0;
+	// The last node found by a positional seek, so neighboring indexes can be
+	// reached without walking from either end. Only valid while modCount
+	// equals its modCount.
+	private transient Finger<E> finger = null;
+	// Optional skip list over the nodes for O(log n) seeks, null unless
+	// setIndexed(true) was called
+	private transient SkipListIndex<E> skipIndex = null;
+	// Below this many links a plain walk is cheaper than the skip list
+	private static final int SKIP_INDEX_THRESHOLD = 32;
+	// Free nodes linked through next for reuse, at most poolCapacity of them
+	private transient Node<E> pool = null;
+	private transient int poolSize = 0;
+	private transient int poolCapacity = 0;
+	// Bulk operations hash a collection that is not a Set once it has more
+	// than this many elements
+	private static final int HASH_LOOKUP_THRESHOLD = 16;
+	// The parallel operations give each task at least this many nodes
+	private static final int MIN_SEGMENT_SIZE = 4096;
+	// The lists using the nodes while they are shared with a clone and this
+	// list's reference among them, or null while this list is the only one
+	// that has them
+	private transient Share share = null;
+	private transient Reference<?> shareUser = null;
+	// How many times this list has copied shared nodes
+	private transient int copies = 0;
+
+	/* Constructors */
+	/**
+	 * Default constructor.
+	 */
+	public MyLinkedList() {
+		super();
+	}
+
+	/**
+	 * Constructor which adds all of c to the new list.
+	 * 
+	 * @param c
+	 *            Collection to add to list
+	 */
+	public MyLinkedList(Collection<? extends E> c) {
+		super();
+		this.addAll(c);
+	}
+
+	/* Methods */
+	/**
+	 * Add all elements in c to this list at the index. The elements are linked
+	 * into a detached chain first and the chain is spliced in after one seek,
+	 * so the list changes once no matter how many elements there are.
+	 * 
+	 * @see java.util.AbstractSequentialList#addAll(int, java.util.Collection)
+	 * @param index
+	 *            The index to start adding at.
+	 * @param c
+	 *            A Collection of elements to add.
+	 * @return boolean If the list changed.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or more than size.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		// Copy first if c is this list so the chain is not built from itself
+		Chain<E> chain = (c == this) ? chainOf(c.toArray()) : chainOf(c.iterator());
+		return splice(chain, index);
+	}
+
+	/**
+	 * Add all elements in c to the end of this list.
+	 * 
+	 * @see MyLinkedList#addAll(int, Collection)
+	 * @param c
+	 *            A Collection of elements to add.
+	 * @return boolean If the list changed.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		return addAll(size, c);
+	}
+
+	/**
+	 * Add all elements of a to the end of this list.
+	 * 
+	 * @see MyLinkedList#addAll(int, Collection)
+	 * @param a
+	 *            An array of elements to add.
+	 * @return boolean If the list changed.
+	 */
+	public boolean addAll(E[] a) {
+		return splice(chainOf(a), size);
+	}
+
+	/**
+	 * Add the elements left in iter to the end of this list.
+	 * 
+	 * @see MyLinkedList#addAll(int, Collection)
+	 * @param iter
+	 *            An iterator over the elements to add.
+	 * @return boolean If the list changed.
+	 */
+	public boolean addAll(Iterator<? extends E> iter) {
+		return splice(chainOf(iter), size);
+	}
+
+	/**
+	 * Add all elements in c to the front of this list, keeping their order.
+	 * 
+	 * @see MyLinkedList#addAll(int, Collection)
+	 * @param c
+	 *            A Collection of elements to add.
+	 * @return boolean If the list changed.
+	 */
+	public boolean prependAll(Collection<? extends E> c) {
+		return addAll(0, c);
+	}
+
+	/**
+	 * Moves all of the nodes of other to the end of this list in constant
+	 * time, leaving other empty.
+	 * 
+	 * @see MyLinkedList#spliceAt(int, MyLinkedList)
+	 * @param other
+	 *            The list to empty into this one.
+	 * @return boolean If other had any elements.
+	 */
+	public boolean spliceLast(MyLinkedList<E> other) {
+		return spliceAt(size, other);
+	}
+
+	/**
+	 * Moves all of the nodes of other to the front of this list in constant
+	 * time, leaving other empty.
+	 * 
+	 * @see MyLinkedList#spliceAt(int, MyLinkedList)
+	 * @param other
+	 *            The list to empty into this one.
+	 * @return boolean If other had any elements.
+	 */
+	public boolean spliceFirst(MyLinkedList<E> other) {
+		return spliceAt(0, other);
+	}
+
+	/**
+	 * Moves all of the nodes of other into this list so the first of them has
+	 * index, leaving other empty. The nodes are relinked rather than copied,
+	 * so this takes constant time plus the seek to index. If this list has the
+	 * skip list index, it is rebuilt in O(n) unless other is small. Both lists
+	 * count as structurally modified.
+	 * 
+	 * @param index
+	 *            The index the first element of other will have.
+	 * @param other
+	 *            The list to empty into this one.
+	 * @return boolean If other had any elements.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or more than size.
+	 * @throws IllegalArgumentException
+	 *             if other is this list.
+	 */
+	public boolean spliceAt(int index, MyLinkedList<E> other) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (other == this) {
+			throw new IllegalArgumentException("can not splice a list into itself");
+		}
+		return splice(other.detach(), index);
+	}
+
+	/**
+	 * Unlink all of the nodes from this list without clearing them.
+	 * 
+	 * @return Chain The nodes that were in this list.
+	 */
+	private Chain<E> detach() {
+		Chain<E> chain = new Chain<E>();
+		if (size == 0) {
+			return chain;
+		}
+		materialize();
+		chain.first = head;
+		chain.last = tail;
+		chain.count = size;
+		head = null;
+		tail = null;
+		size = 0;
+		modCount++;
+		if (skipIndex != null) {
+			skipIndex = new SkipListIndex<E>(null, 0);
+		}
+		return chain;
+	}
+
+	/**
+	 * @param iter
+	 * @return Chain A detached chain of new nodes holding the elements left in
+	 *         iter.
+	 */
+	private Chain<E> chainOf(Iterator<? extends E> iter) {
+		Chain<E> chain = new Chain<E>();
+		while (iter.hasNext()) {
+			chain.append(newNode(iter.next()));
+		}
+		return chain;
+	}
+
+	/**
+	 * @param a
+	 * @return Chain A detached chain of new nodes holding the elements of a.
+	 */
+	@SuppressWarnings("unchecked")
+	private Chain<E> chainOf(Object[] a) {
+		Chain<E> chain = new Chain<E>();
+		for (Object e : a) {
+			chain.append(newNode((E) e));
+		}
+		return chain;
+	}
+
+	/**
+	 * Link chain into the list so its first node has index. The skip list
+	 * index is updated node by node for a short chain and rebuilt for a long
+	 * one.
+	 * 
+	 * @param chain
+	 * @param index
+	 *            From 0 to size.
+	 * @return boolean If chain had any nodes.
+	 */
+	private boolean splice(Chain<E> chain, int index) {
+		if (chain.count == 0) {
+			return false;
+		}
+		materialize();
+		Node<E> succ = (index == size) ? null : node(index);
+		Node<E> pred = (succ == null) ? tail : succ.prev;
+		chain.first.prev = pred;
+		chain.last.next = succ;
+		if (pred == null) {
+			head = chain.first;
+		} else {
+			pred.next = chain.first;
+		}
+		if (succ == null) {
+			tail = chain.last;
+		} else {
+			succ.prev = chain.last;
+		}
+		size += chain.count;
+		modCount++;
+		if (skipIndex != null) {
+			if (chain.count < (size >> 4)) {
+				Node<E> x = chain.first;
+				for (int i = 0; i < chain.count; i++) {
+					skipIndex.inserted(index + i, x);
+					x = x.next;
+				}
+			} else {
+				skipIndex = new SkipListIndex<E>(head, size);
+			}
+		}
+		setFinger(chain.first, index);
+		return true;
+	}
+
+	/**
+	 * Create the two-way link between first and second and update head and
+	 * tail, if necessary.
+	 * 
+	 * @param first
+	 * @param second
+	 */
+	private void link(Node<E> first, Node<E> second) {
+		if (first != null) {
+			if (second == head) {
+				head = first;
+			}
+			first.next = second;
+		}
+		if (second != null) {
+			if (first == tail) {
+				tail = second;
+			}
+			second.prev = first;
+		}
+	}
+
+	/**
+	 * Insert newNode into the list by linking newNode to the elements before
+	 * and after where it should be inserted.
+	 * 
+	 * @param first
+	 * @param newNode
+	 * @param last
+	 */
+	private void insertNode(Node<E> first, Node<E> newNode, Node<E> last) {
+		link(first, newNode);
+		link(newNode, last);
+	}
+
+	/**
+	 * Find the node at index by walking the links from whichever of head,
+	 * tail, or the finger left by the last seek is nearer, then move the
+	 * finger to the found node. Ascending or descending index loops only
+	 * follow one link per call this way.
+	 * 
+	 * @param index
+	 *            The index of the node, which must be in bounds.
+	 * @return Node The node at index.
+	 */
+	private Node<E> node(int index) {
+		Node<E> x;
+		int fromTail = size - 1 - index;
+		int fromFinger = Integer.MAX_VALUE;
+		// Read once, so the node and index always belong together
+		Finger<E> f = finger;
+		if (f != null && f.modCount == modCount) {
+			fromFinger = Math.abs(index - f.index);
+		}
+		if (skipIndex != null && Math.min(fromFinger, Math.min(index, fromTail)) > SKIP_INDEX_THRESHOLD) {
+			x = skipIndex.node(index, head);
+		} else if (fromFinger <= index && fromFinger <= fromTail) {
+			x = f.node;
+			for (int i = f.index; i < index; i++) {
+				x = x.next;
+			}
+			for (int i = f.index; i > index; i--) {
+				x = x.prev;
+			}
+		} else if (index <= fromTail) {
+			x = head;
+			for (int i = 0; i < index; i++) {
+				x = x.next;
+			}
+		} else {
+			x = tail;
+			for (int i = size - 1; i > index; i--) {
+				x = x.prev;
+			}
+		}
+		setFinger(x, index);
+		return x;
+	}
+
+	/**
+	 * Move the finger to x, which is at index in the current version of the
+	 * list. A null x leaves the finger unset.
+	 * 
+	 * @param x
+	 * @param index
+	 */
+	private void setFinger(Node<E> x, int index) {
+		finger = (x == null) ? null : new Finger<E>(x, index, modCount);
+	}
+
+	/**
+	 * @param index
+	 * @throws IndexOutOfBoundsException
+	 *             if index is not the index of an element in this list.
+	 */
+	private void checkElementIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Take a node from the pool, or allocate one if the pool is empty.
+	 * 
+	 * @param e
+	 *            The data for the node.
+	 * @return Node A node holding e with no links.
+	 */
+	private Node<E> newNode(E e) {
+		Node<E> x = pool;
+		if (x == null) {
+			return new Node<E>(e);
+		}
+		pool = x.next;
+		x.next = null;
+		x.data = e;
+		poolSize--;
+		return x;
+	}
+
+	/**
+	 * Clear an unlinked node and return it to the pool if the pool has room.
+	 * 
+	 * @param x
+	 *            A node that was just unlinked.
+	 * @return E The data x held.
+	 */
+	private E recycle(Node<E> x) {
+		E data = x.data;
+		x.data = null;
+		x.prev = null;
+		if (poolSize < poolCapacity) {
+			x.next = pool;
+			pool = x;
+			poolSize++;
+		} else {
+			x.next = null;
+		}
+		return data;
+	}
+
+	/**
+	 * Link a new node holding e in front of head in constant time.
+	 * 
+	 * @param e
+	 *            The element to add.
+	 */
+	private void linkFirst(E e) {
+		materialize();
+		Node<E> newNode = newNode(e);
+		if (head == null) {
+			head = newNode;
+			tail = newNode;
+		} else {
+			link(newNode, head);
+		}
+		if (skipIndex != null) {
+			skipIndex.inserted(0, newNode);
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Link a new node holding e after tail in constant time.
+	 * 
+	 * @param e
+	 *            The element to add.
+	 */
+	private void linkLast(E e) {
+		materialize();
+		Node<E> newNode = newNode(e);
+		if (tail == null) {
+			head = newNode;
+			tail = newNode;
+		} else {
+			link(tail, newNode);
+		}
+		if (skipIndex != null) {
+			skipIndex.inserted(size, newNode);
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Unlink head in constant time. The list must not be empty.
+	 * 
+	 * @return E The data of the removed head.
+	 */
+	private E unlinkFirst() {
+		materialize();
+		Node<E> first = head;
+		if (skipIndex != null) {
+			skipIndex.removed(0, first);
+		}
+		head = first.next;
+		if (head == null) {
+			tail = null;
+		} else {
+			head.prev = null;
+		}
+		size--;
+		modCount++;
+		return recycle(first);
+	}
+
+	/**
+	 * Unlink tail in constant time. The list must not be empty.
+	 * 
+	 * @return E The data of the removed tail.
+	 */
+	private E unlinkLast() {
+		materialize();
+		Node<E> last = tail;
+		if (skipIndex != null) {
+			skipIndex.removed(size - 1, last);
+		}
+		tail = last.prev;
+		if (tail == null) {
+			head = null;
+		} else {
+			tail.next = null;
+		}
+		size--;
+		modCount++;
+		return recycle(last);
+	}
+
+	/**
+	 * Link a new node holding e before succ, or after tail if succ is null.
+	 * 
+	 * @param e
+	 *            The element to add.
+	 * @param succ
+	 *            The node that will follow the new node.
+	 * @param index
+	 *            The index the new node will have.
+	 */
+	private void linkBefore(E e, Node<E> succ, int index) {
+		if (succ == null) {
+			linkLast(e);
+		} else if (succ == head) {
+			linkFirst(e);
+		} else {
+			Node<E> newNode = newNode(e);
+			insertNode(succ.prev, newNode, succ);
+			if (skipIndex != null) {
+				skipIndex.inserted(index, newNode);
+			}
+			size++;
+			modCount++;
+		}
+	}
+
+	/**
+	 * Unlink x from the list and clear its links.
+	 * 
+	 * @param x
+	 *            A node in this list.
+	 * @param index
+	 *            The index of x.
+	 * @return E The data of the removed node.
+	 */
+	private E unlink(Node<E> x, int index) {
+		if (x == head) {
+			return unlinkFirst();
+		}
+		if (x == tail) {
+			return unlinkLast();
+		}
+		if (skipIndex != null) {
+			skipIndex.removed(index, x);
+		}
+		link(x.prev, x.next);
+		size--;
+		modCount++;
+		return recycle(x);
+	}
+
+	/**
+	 * Returns the element at index without creating an iterator.
+	 * 
+	 * @see java.util.AbstractSequentialList#get(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return E The element at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E get(int index) {
+		checkElementIndex(index);
+		return node(index).data;
+	}
+
+	/**
+	 * Replaces the element at index without creating an iterator.
+	 * 
+	 * @see java.util.AbstractSequentialList#set(int, java.lang.Object)
+	 * @param index
+	 *            The index of the element.
+	 * @param e
+	 *            The new element.
+	 * @return E The element previously at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E set(int index, E e) {
+		checkElementIndex(index);
+		materialize();
+		Node<E> x = node(index);
+		E old = x.data;
+		x.data = e;
+		return old;
+	}
+
+	/**
+	 * Inserts e at index without creating an iterator.
+	 * 
+	 * @see java.util.AbstractSequentialList#add(int, java.lang.Object)
+	 * @param index
+	 *            The index the new element will have.
+	 * @param e
+	 *            The element to add.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or more than size.
+	 */
+	@Override
+	public void add(int index, E e) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (index == size) {
+			linkLast(e);
+		} else {
+			materialize();
+			Node<E> succ = node(index);
+			linkBefore(e, succ, index);
+			// Keep the finger valid for the next neighboring access
+			setFinger(succ, index + 1);
+		}
+	}
+
+	/**
+	 * Removes the element at index without creating an iterator.
+	 * 
+	 * @see java.util.AbstractSequentialList#remove(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return E The removed element.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E remove(int index) {
+		checkElementIndex(index);
+		materialize();
+		Node<E> x = node(index);
+		Node<E> after = x.next;
+		E result = unlink(x, index);
+		// Keep the finger valid for the next neighboring access
+		setFinger(after, index);
+		return result;
+	}
+
+	/**
+	 * Removes every element by dropping the whole chain at once instead of
+	 * unlinking one node at a time through an iterator.
+	 * 
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		Share shared = share;
+		Reference<?> user = shareUser;
+		share = null;
+		shareUser = null;
+		if (shared == null || shared.leave(user)) {
+			// Clear the links so nodes still referenced elsewhere don't keep
+			// the rest of the chain reachable
+			for (Node<E> x = head; x != null;) {
+				Node<E> next = x.next;
+				recycle(x);
+				x = next;
+			}
+		}
+		// Otherwise a clone still uses the nodes, so just let go of them
+		head = null;
+		tail = null;
+		size = 0;
+		finger = null;
+		modCount++;
+		if (skipIndex != null) {
+			skipIndex = new SkipListIndex<E>(null, 0);
+		}
+	}
+
+	/**
+	 * Turns the skip list index on or off. While it is on, positional seeks
+	 * that are not near head, tail, or the last position accessed take O(log
+	 * n) expected time instead of O(n), and every insertion or removal pays
+	 * O(log n) expected time to keep the index up to date. Turning it on
+	 * builds the index in O(n) time.
+	 * 
+	 * @param indexed
+	 *            true to maintain the index.
+	 */
+	public void setIndexed(boolean indexed) {
+		if (!indexed) {
+			skipIndex = null;
+		} else if (skipIndex == null) {
+			skipIndex = new SkipListIndex<E>(head, size);
+		}
+	}
+
+	/**
+	 * @return boolean true if positional seeks use the skip list index.
+	 * @see MyLinkedList#setIndexed(boolean)
+	 */
+	public boolean isIndexed() {
+		return skipIndex != null;
+	}
+
+	/**
+	 * Sets how many unlinked nodes are kept for reuse. Every removal returns
+	 * its node to the pool while it has room and every insertion takes a node
+	 * from the pool before allocating one, so a queue whose size stays under
+	 * the capacity stops allocating nodes. The pool is off (a capacity of 0)
+	 * by default. Nodes over a lower capacity are released.
+	 * 
+	 * @param capacity
+	 *            The most nodes to keep.
+	 * @throws IllegalArgumentException
+	 *             if capacity is negative.
+	 */
+	public void setNodePoolCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity: " + capacity);
+		}
+		poolCapacity = capacity;
+		while (poolSize > capacity) {
+			Node<E> x = pool;
+			pool = x.next;
+			x.next = null;
+			poolSize--;
+		}
+	}
+
+	/**
+	 * @return int The most unlinked nodes kept for reuse.
+	 * @see MyLinkedList#setNodePoolCapacity(int)
+	 */
+	public int getNodePoolCapacity() {
+		return poolCapacity;
+	}
+
+	/**
+	 * Fills the node pool so the list can grow to minCapacity elements without
+	 * allocating a node, raising the pool capacity if it is too small. Call
+	 * this before a section of code that must not allocate.
+	 * 
+	 * @param minCapacity
+	 *            The size the list must be able to reach without allocating.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		int needed = minCapacity - size;
+		if (needed > poolCapacity) {
+			poolCapacity = needed;
+		}
+		while (poolSize < needed) {
+			Node<E> x = new Node<E>(null);
+			x.next = pool;
+			pool = x;
+			poolSize++;
+		}
+	}
+
+	/**
+	 * Add an element to the end of the list in constant time.
+	 * 
+	 * @see java.util.AbstractList#add(java.lang.Object)
+	 * @param e
+	 *            The element to add
+	 * @return true
+	 */
+	public boolean add(E e) {
+		linkLast(e);
+		return true;
+	}
+
+	/**
+	 * Unlink every node whose element filter accepts in one walk from head,
+	 * changing size and modCount once at the end. If filter throws, the nodes
+	 * already unlinked stay removed.
+	 * 
+	 * @param filter
+	 * @return boolean If any elements were removed.
+	 */
+	private boolean removeMatching(Predicate<? super E> filter) {
+		// Find the first match before copying any shared nodes, so a call
+		// that removes nothing does not write
+		Node<E> x = head;
+		int index = 0;
+		while (x != null && !filter.test(x.data)) {
+			x = x.next;
+			index++;
+		}
+		if (x == null) {
+			return false;
+		}
+		if (materialize()) {
+			x = node(index);
+		}
+		int removed = 0;
+		try {
+			for (boolean matched = true; x != null; matched = false) {
+				Node<E> next = x.next;
+				if (matched || filter.test(x.data)) {
+					Node<E> prev = (x == head) ? null : x.prev;
+					if (prev == null) {
+						head = next;
+					} else {
+						prev.next = next;
+					}
+					if (next == null) {
+						tail = prev;
+					} else {
+						next.prev = prev;
+					}
+					recycle(x);
+					removed++;
+				}
+				x = next;
+			}
+		} finally {
+			if (removed > 0) {
+				size -= removed;
+				modCount++;
+				if (skipIndex != null) {
+					skipIndex = new SkipListIndex<E>(head, size);
+				}
+			}
+		}
+		return removed > 0;
+	}
+
+	/**
+	 * Returns a test for membership in c. A collection that is not a Set is
+	 * copied into a HashSet first when both it and the number of lookups are
+	 * large enough that hashing beats scanning it for every lookup.
+	 * 
+	 * @param c
+	 * @param lookups
+	 *            About how many times the test will be called.
+	 * @return Predicate A test that is true for the elements of c.
+	 */
+	private static Predicate<Object> membership(Collection<?> c, int lookups) {
+		if (c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD || lookups <= HASH_LOOKUP_THRESHOLD) {
+			return c::contains;
+		}
+		return new HashSet<Object>(c)::contains;
+	}
+
+	/**
+	 * Removes every element that filter accepts in one walk over the nodes.
+	 * 
+	 * @see java.util.Collection#removeIf(java.util.function.Predicate)
+	 * @param filter
+	 *            Returns true for the elements to remove.
+	 * @return boolean If any elements were removed.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		if (filter == null) {
+			throw new NullPointerException();
+		}
+		return removeMatching(filter);
+	}
+
+	/**
+	 * Removes every element that is in c in one walk over the nodes. A large
+	 * c that is not a Set is copied into a HashSet for the lookups.
+	 * 
+	 * @see java.util.AbstractCollection#removeAll(java.util.Collection)
+	 * @param c
+	 *            The elements to remove.
+	 * @return boolean If any elements were removed.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		return removeMatching(membership(c, size));
+	}
+
+	/**
+	 * Removes every element that is not in c in one walk over the nodes. A
+	 * large c that is not a Set is copied into a HashSet for the lookups.
+	 * 
+	 * @see java.util.AbstractCollection#retainAll(java.util.Collection)
+	 * @param c
+	 *            The elements to keep.
+	 * @return boolean If any elements were removed.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		if (c == null) {
+			throw new NullPointerException();
+		}
+		Predicate<Object> keep = membership(c, size);
+		return removeMatching(e -> !keep.test(e));
+	}
+
+	/**
+	 * Returns true if every element of c is in this list. When both are large
+	 * the elements of this list are copied into a HashSet first so each
+	 * lookup does not walk the list.
+	 * 
+	 * @see java.util.AbstractCollection#containsAll(java.util.Collection)
+	 * @param c
+	 *            The elements to find.
+	 * @return boolean If all of c is in this list.
+	 */
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		Predicate<Object> contained = membership(this, c.size());
+		for (Object e : c) {
+			if (!contained.test(e)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return int The number of segments to split the list into for the
+	 *         parallel operations: about four per worker thread, each of at
+	 *         least MIN_SEGMENT_SIZE nodes.
+	 */
+	private int segmentCount() {
+		int count = ForkJoinPool.getCommonPoolParallelism() * 4;
+		return Math.max(1, Math.min(count, size / MIN_SEGMENT_SIZE));
+	}
+
+	/**
+	 * @param segment
+	 *            A segment number from 0 to count.
+	 * @param count
+	 *            The number of segments.
+	 * @return int The index of the first node of segment, or size if segment
+	 *         is count.
+	 */
+	private int segmentStart(int segment, int count) {
+		return (int) ((long) size * segment / count);
+	}
+
+	/**
+	 * Find the first node of each segment with the skip list index if there is
+	 * one, or in one walk from head otherwise.
+	 * 
+	 * @param count
+	 *            The number of segments.
+	 * @return Node[] The first node of each segment.
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<E>[] segmentNodes(int count) {
+		Node<E>[] starts = (Node<E>[]) new Node<?>[count];
+		if (skipIndex != null && size > 0) {
+			for (int i = 0; i < count; i++) {
+				starts[i] = skipIndex.node(segmentStart(i, count), head);
 			}
-			// Tail is a special case because there is no node where
-			// curr.prev is tail.
-			if (curr == tail && curr != null && firstPrev) {
-				result = curr.data;
-				firstPrev = false;
-				firstNext = true;
-			} else {
-				result = curr.prev.data;
-				curr = curr.prev;
-				firstPrev = true;
+		} else {
+			Node<E> x = head;
+			int pos = 0;
+			for (int i = 0; i < count; i++) {
+				for (int start = segmentStart(i, count); pos < start; pos++) {
+					x = x.next;
+				}
+				starts[i] = x;
 			}
-			next = curr.next;
-			index--;
-			canAlter = true;
-			return result;
 		}
+		return starts;
+	}
 
-		/**
-		 * @see java.util.ListIterator#previousIndex()
-		 * @return int The index of the element that a call to previous() would
-		 *         have.
-		 */
-		@Override
-		public int previousIndex() {
-			return index - 1;
+	/**
+	 * Run body on every segment number from 0 to count - 1 in the common
+	 * ForkJoinPool, or on the calling thread if there is only one.
+	 * 
+	 * @param count
+	 * @param body
+	 */
+	private static void forEachSegment(int count, IntConsumer body) {
+		if (count == 1) {
+			body.accept(0);
+		} else {
+			ForkJoinPool.commonPool().invoke(new SegmentTask(0, count, body));
 		}
+	}
 
-		/**
-		 * Removes the last element returned by
-		 * {@link MyLinkedList.MyListIterator#previous} or
-		 * {@link MyLinkedList.MyListIterator#next()} as long as
-		 * {@link MyLinkedList.MyListIterator#add} has not been called
-		 * afterwards. This can only happen once per
-		 * {@link MyLinkedList.MyListIterator#previous} or
-		 * {@link MyLinkedList.MyListIterator#next()} call.
-		 * 
-		 * @see java.util.ListIterator#remove()
-		 * @throws IllegalStateException
-		 *             if {@link MyLinkedList.MyListIterator#previous} or
-		 *             {@link MyLinkedList.MyListIterator#next()} have not been
-		 *             called or if {@link MyLinkedList.MyListIterator#add} or
-		 *             {@link MyLinkedList.MyListIterator#remove} have been
-		 *             called after the last next/previous call.
-		 */
-		@Override
-		public void remove() {
-			if (!canAlter) {
-				throw new IllegalStateException();
+	/**
+	 * Performs action on every element, splitting the list into segments that
+	 * are processed in parallel on the common ForkJoinPool. The elements are
+	 * not visited in order and action must be safe to call from several
+	 * threads at once.
+	 * 
+	 * @param action
+	 *            The action to perform on each element.
+	 * @throws ConcurrentModificationException
+	 *             if the list was structurally modified during the call.
+	 */
+	public void parallelForEach(final Consumer<? super E> action) {
+		int expected = modCount;
+		final int count = segmentCount();
+		final Node<E>[] starts = segmentNodes(count);
+		forEachSegment(count, i -> {
+			Node<E> x = starts[i];
+			for (int n = segmentStart(i + 1, count) - segmentStart(i, count); n > 0; n--) {
+				action.accept(x.data);
+				x = x.next;
 			}
-			canAlter = false;
+		});
+		if (modCount != expected) {
+			throw new ConcurrentModificationException();
+		}
+	}
 
-			if (curr == tail) {
-				tail = curr.prev;
-			}
-			if (curr == head) {
-				head = curr.next;
+	/**
+	 * Replaces every element with the result of operator, splitting the list
+	 * into segments that are processed in parallel on the common
+	 * ForkJoinPool.
+	 * 
+	 * @param operator
+	 *            The function to apply to each element, which must be safe to
+	 *            call from several threads at once.
+	 * @throws ConcurrentModificationException
+	 *             if the list was structurally modified during the call.
+	 */
+	public void parallelReplaceAll(final UnaryOperator<E> operator) {
+		materialize();
+		int expected = modCount;
+		final int count = segmentCount();
+		final Node<E>[] starts = segmentNodes(count);
+		forEachSegment(count, i -> {
+			Node<E> x = starts[i];
+			for (int n = segmentStart(i + 1, count) - segmentStart(i, count); n > 0; n--) {
+				x.data = operator.apply(x.data);
+				x = x.next;
 			}
-
-			link(curr.prev, curr.next);
-
-			size--;
-			index--;
-			expectedModCount++;
-			modCount++;
+		});
+		if (modCount != expected) {
+			throw new ConcurrentModificationException();
 		}
+	}
 
-		/**
-		 * Sets the last element returned by
-		 * {@link MyLinkedList.MyListIterator#previous} or
-		 * {@link MyLinkedList.MyListIterator#next()} as long as
-		 * {@link MyLinkedList.MyListIterator#add} or
-		 * {@link MyLinkedList.MyListIterator#remove} have not been called
-		 * afterwards.
-		 * 
-		 * @see java.util.ListIterator#set(java.lang.Object)
-		 * @throws IllegalStateException
-		 *             if {@link MyLinkedList.MyListIterator#previous} or
-		 *             {@link MyLinkedList.MyListIterator#next()} have not been
-		 *             called or if {@link MyLinkedList.MyListIterator#add} or
-		 *             {@link MyLinkedList.MyListIterator#remove} have been
-		 *             called after the last next/previous call.
-		 */
-		@Override
-		public void set(E e) {
-			if (!canAlter) {
-				throw new IllegalStateException();
+	/**
+	 * Removes every element that filter accepts. The filter is first tested
+	 * on every segment in parallel without changing the list, so an exception
+	 * from it leaves the list as it was. Then each segment links its own
+	 * remaining nodes together in parallel, and one sequential pass over the
+	 * segments links their ends.
+	 * 
+	 * @param filter
+	 *            Returns true for the elements to remove, and must be safe to
+	 *            call from several threads at once.
+	 * @return boolean If any elements were removed.
+	 * @throws ConcurrentModificationException
+	 *             if the list was structurally modified during the call.
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean parallelRemoveIf(final Predicate<? super E> filter) {
+		int expected = modCount;
+		final int count = segmentCount();
+		final Node<E>[] starts = segmentNodes(count);
+		final BitSet[] removed = new BitSet[count];
+		forEachSegment(count, i -> {
+			BitSet bits = new BitSet();
+			Node<E> x = starts[i];
+			int n = segmentStart(i + 1, count) - segmentStart(i, count);
+			for (int j = 0; j < n; j++) {
+				if (filter.test(x.data)) {
+					bits.set(j);
+				}
+				x = x.next;
 			}
-			curr.data = e;
+			removed[i] = bits;
+		});
+		if (modCount != expected) {
+			throw new ConcurrentModificationException();
+		}
+		int total = 0;
+		for (BitSet bits : removed) {
+			total += bits.cardinality();
+		}
+		if (total == 0) {
+			return false;
+		}
+		if (materialize()) {
+			// Find the segments again in the copied nodes
+			System.arraycopy(segmentNodes(count), 0, starts, 0, count);
 		}
 
-		/**
-		 * Wind this iterator until next() will return element at index i.
-		 * 
-		 * @param i
-		 * @return ListIterator<E> this
-		 */
-		private ListIterator<E> goToIndex(int i) {
-			if (i < 0 || i > size) {
-				throw new IndexOutOfBoundsException();
+		// Relink each segment, keeping its removed nodes for the pool if it
+		// has room
+		final Node<E>[] firsts = (Node<E>[]) new Node<?>[count];
+		final Node<E>[] lasts = (Node<E>[]) new Node<?>[count];
+		final Node<E>[] dead = (Node<E>[]) new Node<?>[count];
+		final boolean keepDead = poolSize < poolCapacity;
+		forEachSegment(count, i -> {
+			BitSet bits = removed[i];
+			Node<E> x = starts[i];
+			Node<E> first = null;
+			Node<E> last = null;
+			Node<E> garbage = null;
+			int n = segmentStart(i + 1, count) - segmentStart(i, count);
+			for (int j = 0; j < n; j++) {
+				Node<E> next = x.next;
+				if (bits.get(j)) {
+					x.data = null;
+					x.prev = null;
+					x.next = keepDead ? garbage : null;
+					garbage = x;
+				} else {
+					if (last == null) {
+						first = x;
+					} else {
+						last.next = x;
+						x.prev = last;
+					}
+					last = x;
+				}
+				x = next;
 			}
-			while (i != 0 && hasNext() && nextIndex() < i) {
-				next();
+			firsts[i] = first;
+			lasts[i] = last;
+			dead[i] = garbage;
+		});
+
+		// Stitch the segments together
+		Node<E> last = null;
+		for (int i = 0; i < count; i++) {
+			if (firsts[i] == null) {
+				continue;
 			}
-			return this;
+			if (last == null) {
+				head = firsts[i];
+				head.prev = null;
+			} else {
+				last.next = firsts[i];
+				firsts[i].prev = last;
+			}
+			last = lasts[i];
 		}
-
+		if (last == null) {
+			head = null;
+		} else {
+			last.next = null;
+		}
+		tail = last;
+		if (keepDead) {
+			for (int i = 0; i < count && poolSize < poolCapacity; i++) {
+				for (Node<E> x = dead[i]; x != null && poolSize < poolCapacity;) {
+					Node<E> next = x.next;
+					recycle(x);
+					x = next;
+				}
+			}
+		}
+		size -= total;
+		modCount++;
+		if (skipIndex != null) {
+			skipIndex = new SkipListIndex<E>(head, size);
+		}
+		return true;
 	}
 
-	/* Fields */
-	private static final long serialVersionUID = 1L;
-	private Node<E> head = null;
-	private Node<E> tail = null;
-	private int size = 0;
-
-	/* Constructors */
 	/**
-	 * Default constructor.
+	 * Returns the index of the first element that equals o, searching the
+	 * segments in parallel on the common ForkJoinPool. A segment stops as soon
+	 * as a match has been found before it.
+	 * 
+	 * @param o
+	 *            The element to find, which may be null.
+	 * @return int The lowest index of o, or -1 if it is not in the list.
+	 * @throws ConcurrentModificationException
+	 *             if the list was structurally modified during the call.
 	 */
-	public MyLinkedList() {
-		super();
+	public int parallelIndexOf(final Object o) {
+		int expected = modCount;
+		final int count = segmentCount();
+		final Node<E>[] starts = segmentNodes(count);
+		final AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+		forEachSegment(count, i -> {
+			Node<E> x = starts[i];
+			int end = segmentStart(i + 1, count);
+			for (int index = segmentStart(i, count); index < end && index < found.get(); index++) {
+				if (o == null ? x.data == null : o.equals(x.data)) {
+					found.accumulateAndGet(index, Math::min);
+					return;
+				}
+				x = x.next;
+			}
+		});
+		if (modCount != expected) {
+			throw new ConcurrentModificationException();
+		}
+		int result = found.get();
+		return result == Integer.MAX_VALUE ? -1 : result;
 	}
 
 	/**
-	 * Constructor which adds all of c to the new list.
+	 * Parallel version of contains.
 	 * 
-	 * @param c
-	 *            Collection to add to list
+	 * @see MyLinkedList#parallelIndexOf(Object)
+	 * @param o
+	 *            The element to find, which may be null.
+	 * @return boolean If o is in the list.
 	 */
-	public MyLinkedList(Collection<? extends E> c) {
-		super();
-		this.addAll(c);
+	public boolean parallelContains(Object o) {
+		return parallelIndexOf(o) >= 0;
 	}
 
-	/* Methods */
 	/**
-	 * Add all elements in c to this list at the index. This does error checking
-	 * before using AbstractSequentialList's addAll().
+	 * Sorts the list with a stable natural merge sort that relinks the nodes
+	 * in place using O(1) extra space. An already sorted list takes n - 1
+	 * comparisons and no relinking, and in general the time is O(n log r) for
+	 * a list made of r non-descending runs. If the comparator throws, the list
+	 * keeps all of its elements in an unspecified order.
 	 * 
-	 * @see java.util.AbstractSequentialList#addAll(int, java.util.Collection)
-	 * @param index
-	 *            The index to start adding at.
+	 * @see java.util.List#sort(java.util.Comparator)
 	 * @param c
-	 *            A Collection of elements to add.
-	 * @throws IndexOutOfBoundsException
-	 *             if index is less than 0 or more than size.
+	 *            The comparator, or null for the natural ordering.
+	 * @throws ClassCastException
+	 *             if c is null and the elements are not mutually comparable.
 	 */
-	public boolean addAll(int index, Collection<? extends E> c) {
-		if (index < 0 || index > size) {
-			throw new IndexOutOfBoundsException();
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		materialize();
+		modCount++;
+		if (size < 2) {
+			return;
+		}
+		NodeSorter<E> sorter = new NodeSorter<E>(
+				(c != null) ? c : (Comparator<? super E>) Comparator.naturalOrder());
+		try {
+			sorter.sort(head);
+		} finally {
+			// Join whatever runs are left, which is one sorted run unless the
+			// comparator threw, and restore the prev links
+			Node<E> last = null;
+			head = null;
+			for (int i = 0; i <= sorter.depth; i++) {
+				Node<E> run = (i < sorter.depth) ? sorter.runs[i] : sorter.rest;
+				if (run == null) {
+					continue;
+				}
+				if (last == null) {
+					head = run;
+				} else {
+					last.next = run;
+				}
+				for (Node<E> x = run; x != null; x = x.next) {
+					x.prev = last;
+					last = x;
+				}
+			}
+			tail = last;
+			if (skipIndex != null) {
+				skipIndex = new SkipListIndex<E>(head, size);
+			}
 		}
-		return super.addAll(index, c);
 	}
 
 	/**
-	 * Create the two-way link between first and second and update head and
-	 * tail, if necessary.
+	 * Returns a view of the elements from fromIndex up to but not including
+	 * toIndex. The view walks from the nodes at its own ends instead of from
+	 * the ends of this list, and clearing it unlinks the whole range in
+	 * constant time.
 	 * 
-	 * @param first
-	 * @param second
+	 * @see java.util.AbstractList#subList(int, int)
+	 * @param fromIndex
+	 *            The index of the first element of the view.
+	 * @param toIndex
+	 *            The index after the last element of the view.
+	 * @return List The view of the range.
+	 * @throws IndexOutOfBoundsException
+	 *             if fromIndex is less than 0 or toIndex is more than size.
+	 * @throws IllegalArgumentException
+	 *             if fromIndex is more than toIndex.
 	 */
-	private void link(Node<E> first, Node<E> second) {
-		if (first != null) {
-			if (second == head) {
-				head = first;
-			}
-			first.next = second;
-		}
-		if (second != null) {
-			if (first == tail) {
-				tail = second;
-			}
-			second.prev = first;
-		}
+	@Override
+	public List<E> subList(int fromIndex, int toIndex) {
+		checkSubListRange(fromIndex, toIndex, size);
+		Node<E> before = (fromIndex == 0) ? null : node(fromIndex - 1);
+		Node<E> after = (toIndex == size) ? null : node(toIndex);
+		return new SubList(null, before, after, fromIndex, toIndex - fromIndex);
 	}
 
 	/**
-	 * Insert newNode into the list by linking newNode to the elements before
-	 * and after where it should be inserted.
-	 * 
-	 * @param first
-	 * @param newNode
-	 * @param last
+	 * @param fromIndex
+	 * @param toIndex
+	 * @param size
+	 *            The size of the list or view the range is in.
+	 * @throws IndexOutOfBoundsException
+	 *             if fromIndex is less than 0 or toIndex is more than size.
+	 * @throws IllegalArgumentException
+	 *             if fromIndex is more than toIndex.
 	 */
-	private void insertNode(Node<E> first, Node<E> newNode, Node<E> last) {
-		link(first, newNode);
-		link(newNode, last);
+	private static void checkSubListRange(int fromIndex, int toIndex, int size) {
+		if (fromIndex < 0 || toIndex > size) {
+			throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+		}
+		if (fromIndex > toIndex) {
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
 	}
 
 	/**
-	 * Add an element to the end of the list.
+	 * Unlink the count nodes between before and after, which start at index,
+	 * by linking before and after to each other. The removed nodes are only
+	 * visited to refill the node pool or to update the skip list index.
 	 * 
-	 * @see java.util.AbstractList#add(java.lang.Object)
-	 * @param e
-	 *            The element to add
-	 * @return true
+	 * @param before
+	 *            The node before the range, or null if it starts at head.
+	 * @param after
+	 *            The node after the range, or null if it ends at tail.
+	 * @param index
+	 *            The index of the first node of the range.
+	 * @param count
+	 *            The number of nodes in the range, at least 1.
 	 */
-	public boolean add(E e) {
-		add(size, e);
-		return true;
+	private void unlinkRange(Node<E> before, Node<E> after, int index, int count) {
+		Node<E> first = (before == null) ? head : before.next;
+		boolean rebuild = count >= (size >> 4);
+		if (skipIndex != null && !rebuild) {
+			Node<E> x = first;
+			for (int i = 0; i < count; i++) {
+				skipIndex.removed(index, x);
+				x = x.next;
+			}
+		}
+		if (before == null) {
+			head = after;
+		} else {
+			before.next = after;
+		}
+		if (after == null) {
+			tail = before;
+		} else {
+			after.prev = before;
+		}
+		size -= count;
+		modCount++;
+		if (skipIndex != null && rebuild) {
+			skipIndex = new SkipListIndex<E>(head, size);
+		}
+		Node<E> x = first;
+		for (int i = 0; i < count && poolSize < poolCapacity; i++) {
+			Node<E> next = x.next;
+			recycle(x);
+			x = next;
+		}
 	}
 
 	/**
@@ -431,6 +2422,17 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		return new MyListIterator(i);
 	}
 
+	/**
+	 * Makes a Spliterator that walks the nodes and splits in balanced halves.
+	 * 
+	 * @see java.util.Collection#spliterator()
+	 * @return Spliterator A late-binding, fail-fast spliterator.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return new MyListSpliterator();
+	}
+
 	/**
 	 * @see java.util.AbstractCollection#size()
 	 * @return The size of this list.
@@ -441,7 +2443,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	}
 
 	/**
-	 * Adds an element at index 0 using AbstractSequentialList's add at index.
+	 * Adds an element in front of head in constant time.
 	 * 
 	 * @see java.util.Deque#addFirst(java.lang.Object)
 	 * @param e
@@ -449,7 +2451,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	 */
 	@Override
 	public void addFirst(E e) {
-		add(0, e);
+		linkFirst(e);
 	}
 
 	/**
@@ -461,8 +2463,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	 */
 	@Override
 	public void addLast(E e) {
-		add(e);
-
+		linkLast(e);
 	}
 
 	/**
@@ -547,7 +2548,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	 */
 	@Override
 	public boolean offer(E e) {
-		add(e);
+		linkLast(e);
 		return true;
 	}
 
@@ -620,13 +2621,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	 */
 	@Override
 	public E poll() {
-		if (size == 0)
-			return null;
-		E result = peek();
-		if (result != null) {
-			remove(0);
-		}
-		return result;
+		return head == null ? null : unlinkFirst();
 	}
 
 	/**
@@ -641,18 +2636,15 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	}
 
 	/**
-	 * Returns the tail's data then removes tail if it is not null.
+	 * Returns the tail's data then removes tail or returns null if the list is
+	 * empty.
 	 * 
 	 * @see java.util.Deque#pollLast()
 	 * @return E The tail of the list.
 	 */
 	@Override
 	public E pollLast() {
-		E result = peekLast();
-		if (result != null) {
-			remove(size - 1);
-		}
-		return result;
+		return tail == null ? null : unlinkLast();
 	}
 
 	/**
@@ -690,18 +2682,20 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	}
 
 	/**
-	 * Throws exception if head is null, otherwise this is an alias for
+	 * Throws exception if head is null, otherwise this unlinks head like
 	 * {@link MyLinkedList#poll}.
 	 * 
 	 * @see java.util.Deque#removeFirst()
 	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
 	 */
 	@Override
 	public E removeFirst() {
 		if (head == null) {
 			throw new NoSuchElementException();
 		}
-		return poll();
+		return unlinkFirst();
 	}
 
 	/**
@@ -725,8 +2719,8 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	}
 
 	/**
-	 * Throws an exception if the list is empty, otherwise it is an alias for
-	 * {@link MyLinkedList#pollLast}.
+	 * Throws an exception if the list is empty, otherwise this unlinks tail
+	 * like {@link MyLinkedList#pollLast}.
 	 * 
 	 * @see java.util.Deque#removeLast()
 	 * @return E The tail of the list.
@@ -738,7 +2732,7 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 		if (tail == null) {
 			throw new NoSuchElementException();
 		}
-		return pollLast();
+		return unlinkLast();
 	}
 
 	/**
@@ -763,18 +2757,148 @@ public class MyLinkedList<E> extends AbstractSequentialList<E>
 	}
 
 	/**
-	 * Does a shallow copy of this list into a new instance of MyLinkedList.
+	 * Does a shallow copy of this list into a new instance of MyLinkedList in
+	 * constant time. The copy shares this list's nodes until one of the two
+	 * lists first changes, and only that list then copies the nodes for
+	 * itself, unless the other one has been cleared or garbage collected by
+	 * then. Iterators and sublists of both lists keep working across the
+	 * copy. A reader that is done with a copy can clear() it, so the next
+	 * change to this list does not copy on its account. The copy starts with
+	 * an empty node pool and no skip list index.
 	 * 
 	 * @see java.lang.Object#clone()
+	 * @see MyLinkedList#materialize()
 	 * @return Object The new instance which is the clone.
 	 */
 	@Override
 	public Object clone() {
+		return cloneFrom(head, size);
+	}
+
+	/**
+	 * Makes a list of the last count elements of this list that shares their
+	 * nodes the way clone() does.
+	 * 
+	 * @param first
+	 *            The node count elements before the end of this list.
+	 * @param count
+	 * @return MyLinkedList The new list.
+	 */
+	MyLinkedList<E> cloneFrom(Node<E> first, int count) {
 		MyLinkedList<E> result = new MyLinkedList<E>();
-		for (E e : this) {
-			result.add(e);
+		if (count > 0) {
+			if (share == null) {
+				share = new Share();
+				shareUser = share.join(this);
+			}
+			result.share = share;
+			result.shareUser = share.join(result);
+			result.head = first;
+			result.tail = tail;
+			result.size = count;
 		}
 		return result;
 	}
 
+	/**
+	 * @return int How many times this list has copied nodes it shared with a
+	 *         clone.
+	 */
+	int copies() {
+		return copies;
+	}
+
+	/**
+	 * @return Node The head of this list, for PersistentLinkedList to read
+	 *         the nodes of a clone nobody changes.
+	 */
+	Node<E> firstNode() {
+		return head;
+	}
+
+	/**
+	 * Writes the size followed by the elements in order.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (Node<E> x = head; x != null; x = x.next) {
+			out.writeObject(x.data);
+		}
+	}
+
+	/**
+	 * Reads the size and elements written by writeObject into one chain of
+	 * new nodes.
+	 * 
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int n = in.readInt();
+		if (n < 0) {
+			throw new InvalidObjectException("negative size " + n);
+		}
+		Chain<E> chain = new Chain<E>();
+		for (int i = 0; i < n; i++) {
+			chain.append(new Node<E>((E) in.readObject()));
+		}
+		head = chain.first;
+		tail = chain.last;
+		size = n;
+	}
+
+	/**
+	 * Give this list its own nodes if it shares them with a clone. Every
+	 * method that changes the nodes calls this first. The shared nodes are
+	 * never changed, so a list that is not the last one able to read them
+	 * copies them in O(n) time, and the last one keeps them without copying.
+	 * A clone that has been garbage collected or cleared no longer counts.
+	 * Copying is not a structural modification: iterators, spliterators,
+	 * and sublists notice that copies changed and find their place in the
+	 * new nodes by index.
+	 * 
+	 * @return boolean If the nodes were copied, which moves every node of
+	 *         the list.
+	 */
+	private boolean materialize() {
+		Share shared = share;
+		if (shared == null) {
+			return false;
+		}
+		Reference<?> user = shareUser;
+		share = null;
+		shareUser = null;
+		// The other lists only leave after they are done copying the nodes,
+		// so alone nobody else can be reading them
+		if (shared.leaveIfAlone(user)) {
+			// A list made by cloneFrom starts in the middle of the nodes, and
+			// the ones before head are not part of it
+			if (head != null) {
+				head.prev = null;
+			}
+			return false;
+		}
+		Chain<E> chain = new Chain<E>();
+		for (Node<E> x = head; x != null; x = x.next) {
+			chain.append(newNode(x.data));
+		}
+		shared.leave(user);
+		head = chain.first;
+		tail = chain.last;
+		copies++;
+		// The finger points into the nodes the clone keeps
+		finger = null;
+		if (skipIndex != null) {
+			skipIndex = new SkipListIndex<E>(head, size);
+		}
+		return true;
+	}
+
 }
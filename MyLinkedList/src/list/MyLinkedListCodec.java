@@ -0,0 +1,465 @@
+package list;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Writes a MyLinkedList in a compact binary form with an
+ * {@link ElementCodec} and reads it back.
+ * <p>
+ * The form is a header of a magic number, a version, and the number of
+ * elements, followed by blocks of about 64 KB of encoded elements. Each
+ * block is stored as it is or, when the codec was made to compress and it
+ * helps, compressed with Deflater, whose LZ77 matching finds the repeats
+ * that varints leave. Elements never cross blocks, and the previous element
+ * passed to the codec runs on from block to block.
+ * </p>
+ * <p>
+ * Reading decodes the elements straight into one new chain of nodes with
+ * {@link MyLinkedList#addAll(Iterator)}, so the list is built in one pass
+ * and a stream that turns out to be damaged leaves no partial list behind.
+ * The channel methods do not read past the end of the list, so other data
+ * can follow it.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements of the lists
+ */
+public final class MyLinkedListCodec<E> {
+	/* Inner Classes */
+	/**
+	 * A ByteArrayOutputStream that lends out its array.
+	 *
+	 * @author David Simmons
+	 */
+	private static final class Block extends ByteArrayOutputStream {
+		Block() {
+			super(BLOCK_BYTES + 64);
+		}
+
+		byte[] array() {
+			return buf;
+		}
+
+	}
+
+	/**
+	 * Decodes the elements of a stream one at a time for
+	 * {@link MyLinkedList#addAll(Iterator)}, reading blocks as it needs them.
+	 * IOExceptions are passed out wrapped in UncheckedIOException.
+	 *
+	 * @author David Simmons
+	 */
+	private final class Decoder implements Iterator<E> {
+		final DataInput in;
+		int remaining;
+		final Inflater inflater = new Inflater();
+		// The elements of the current block
+		byte[] raw = new byte[0];
+		ByteArrayInputStream blockBytes = new ByteArrayInputStream(raw);
+		DataInputStream block = new DataInputStream(blockBytes);
+		E previous = null;
+
+		Decoder(DataInput in, int count) {
+			this.in = in;
+			this.remaining = count;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
+		}
+
+		@Override
+		public E next() {
+			if (remaining == 0) {
+				throw new NoSuchElementException();
+			}
+			try {
+				if (blockBytes.available() == 0) {
+					readBlock();
+				}
+				E e = codec.read(block, previous);
+				previous = e;
+				remaining--;
+				return e;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Read the next block and inflate it if it was compressed.
+		 *
+		 * @throws IOException
+		 */
+		private void readBlock() throws IOException {
+			int kind = in.readByte();
+			int rawLength = in.readInt();
+			if (rawLength <= 0 || rawLength > MAX_BLOCK_BYTES || (kind != STORED && kind != DEFLATED)) {
+				throw new StreamCorruptedException("bad block header");
+			}
+			if (raw.length < rawLength) {
+				raw = new byte[rawLength];
+			}
+			if (kind == STORED) {
+				in.readFully(raw, 0, rawLength);
+			} else {
+				int storedLength = in.readInt();
+				if (storedLength <= 0 || storedLength > MAX_BLOCK_BYTES) {
+					throw new StreamCorruptedException("bad block header");
+				}
+				byte[] stored = new byte[storedLength];
+				in.readFully(stored);
+				inflater.reset();
+				inflater.setInput(stored);
+				try {
+					if (inflater.inflate(raw, 0, rawLength) != rawLength || !inflater.finished()) {
+						throw new StreamCorruptedException("block does not inflate to its length");
+					}
+				} catch (DataFormatException e) {
+					throw new StreamCorruptedException(e.getMessage());
+				}
+			}
+			blockBytes = new ByteArrayInputStream(raw, 0, rawLength);
+			block = new DataInputStream(blockBytes);
+		}
+
+	}
+
+	/**
+	 * An OutputStream that puts bytes into a ByteBuffer.
+	 *
+	 * @author David Simmons
+	 */
+	private static final class BufferOutput extends OutputStream {
+		final ByteBuffer buffer;
+
+		BufferOutput(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) {
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			buffer.put(b, off, len);
+		}
+
+	}
+
+	/**
+	 * An InputStream that gets bytes from a ByteBuffer.
+	 *
+	 * @author David Simmons
+	 */
+	private static final class BufferInput extends InputStream {
+		final ByteBuffer buffer;
+
+		BufferInput(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+
+	}
+
+	/* Fields */
+	private static final int MAGIC = 0x4D4C4C43;
+	private static final int VERSION = 1;
+	private static final int STORED = 0;
+	private static final int DEFLATED = 1;
+	// A block is written once it holds this many bytes
+	private static final int BLOCK_BYTES = 1 << 16;
+	// Larger block lengths mean the stream is damaged
+	private static final int MAX_BLOCK_BYTES = 1 << 24;
+	private final ElementCodec<E> codec;
+	private final boolean compress;
+
+	/* Constructors */
+	/**
+	 * Constructor for a codec that stores its blocks uncompressed.
+	 *
+	 * @param codec
+	 *            The codec for the elements.
+	 */
+	public MyLinkedListCodec(ElementCodec<E> codec) {
+		this(codec, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param codec
+	 *            The codec for the elements.
+	 * @param compress
+	 *            true to compress each block that gets smaller with
+	 *            Deflater.
+	 */
+	public MyLinkedListCodec(ElementCodec<E> codec, boolean compress) {
+		if (codec == null) {
+			throw new NullPointerException();
+		}
+		this.codec = codec;
+		this.compress = compress;
+	}
+
+	/* Methods */
+	/**
+	 * Write list to out.
+	 *
+	 * @param list
+	 * @param out
+	 * @throws IOException
+	 *             if out or the element codec throws.
+	 */
+	public void write(MyLinkedList<E> list, DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeInt(list.size());
+		Block block = new Block();
+		DataOutputStream data = new DataOutputStream(block);
+		Deflater deflater = compress ? new Deflater() : null;
+		try {
+			E previous = null;
+			for (E e : list) {
+				codec.write(data, e, previous);
+				previous = e;
+				if (block.size() >= BLOCK_BYTES) {
+					writeBlock(block, deflater, out);
+				}
+			}
+			if (block.size() > 0) {
+				writeBlock(block, deflater, out);
+			}
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+		}
+	}
+
+	/**
+	 * Write list to channel. The bytes are buffered and all written before
+	 * this returns, and channel is left open.
+	 *
+	 * @param list
+	 * @param channel
+	 * @throws IOException
+	 *             if channel or the element codec throws.
+	 */
+	public void write(MyLinkedList<E> list, WritableByteChannel channel) throws IOException {
+		DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_BYTES));
+		write(list, out);
+		out.flush();
+	}
+
+	/**
+	 * Write list to buffer from its position, leaving the position after the
+	 * last byte written.
+	 *
+	 * @param list
+	 * @param buffer
+	 * @throws IOException
+	 *             if the element codec throws.
+	 * @throws java.nio.BufferOverflowException
+	 *             if list does not fit in the rest of buffer.
+	 */
+	public void write(MyLinkedList<E> list, ByteBuffer buffer) throws IOException {
+		write(list, new DataOutputStream(new BufferOutput(buffer)));
+	}
+
+	/**
+	 * Read a list written by write.
+	 *
+	 * @param in
+	 * @return MyLinkedList A new list of the elements that were written.
+	 * @throws IOException
+	 *             if in throws or the bytes are not a list written by this
+	 *             kind of codec.
+	 */
+	public MyLinkedList<E> read(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new StreamCorruptedException("not a MyLinkedListCodec stream");
+		}
+		int version = in.readByte();
+		if (version != VERSION) {
+			throw new StreamCorruptedException("unknown version " + version);
+		}
+		int count = in.readInt();
+		if (count < 0) {
+			throw new StreamCorruptedException("negative size " + count);
+		}
+		MyLinkedList<E> list = new MyLinkedList<E>();
+		Decoder decoder = new Decoder(in, count);
+		try {
+			list.addAll(decoder);
+			if (decoder.blockBytes.available() != 0) {
+				throw new StreamCorruptedException("bytes left after the last element");
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			decoder.inflater.end();
+		}
+		return list;
+	}
+
+	/**
+	 * Read a list written by write from channel, leaving channel open just
+	 * after it.
+	 *
+	 * @param channel
+	 * @return MyLinkedList A new list of the elements that were written.
+	 * @throws IOException
+	 *             if channel throws or the bytes are not a list written by
+	 *             this kind of codec.
+	 */
+	public MyLinkedList<E> read(ReadableByteChannel channel) throws IOException {
+		// Not buffered, so nothing after the list is read; blocks are still
+		// read with one readFully each
+		return read(new DataInputStream(Channels.newInputStream(channel)));
+	}
+
+	/**
+	 * Read a list written by write from buffer's position, leaving the
+	 * position just after it.
+	 *
+	 * @param buffer
+	 * @return MyLinkedList A new list of the elements that were written.
+	 * @throws IOException
+	 *             if buffer ends early or does not hold a list written by
+	 *             this kind of codec.
+	 */
+	public MyLinkedList<E> read(ByteBuffer buffer) throws IOException {
+		return read(new DataInputStream(new BufferInput(buffer)));
+	}
+
+	/**
+	 * Write the elements in block, compressed if that was asked for and makes
+	 * it smaller, and empty block.
+	 *
+	 * @param block
+	 * @param deflater
+	 *            null to store the block as it is.
+	 * @param out
+	 * @throws IOException
+	 */
+	private static void writeBlock(Block block, Deflater deflater, DataOutput out) throws IOException {
+		int length = block.size();
+		if (deflater != null) {
+			deflater.reset();
+			deflater.setInput(block.array(), 0, length);
+			deflater.finish();
+			byte[] stored = new byte[length];
+			int storedLength = deflater.deflate(stored);
+			if (deflater.finished() && storedLength < length) {
+				out.writeByte(DEFLATED);
+				out.writeInt(length);
+				out.writeInt(storedLength);
+				out.write(stored, 0, storedLength);
+				block.reset();
+				return;
+			}
+		}
+		out.writeByte(STORED);
+		out.writeInt(length);
+		out.write(block.array(), 0, length);
+		block.reset();
+	}
+
+	/**
+	 * Write v in 7 bit groups from the lowest, setting the high bit of every
+	 * byte but the last. Takes 1 byte for values below 128 and up to 10.
+	 *
+	 * @param out
+	 * @param v
+	 *            The value, read as unsigned.
+	 * @throws IOException
+	 */
+	public static void writeVarLong(DataOutput out, long v) throws IOException {
+		while ((v & ~0x7FL) != 0) {
+			out.writeByte((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	/**
+	 * @param in
+	 * @return long A value written by writeVarLong.
+	 * @throws IOException
+	 *             if in ends early or the varint is longer than 10 bytes.
+	 */
+	public static long readVarLong(DataInput in) throws IOException {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readByte();
+			v |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return v;
+			}
+		}
+		throw new StreamCorruptedException("varint too long");
+	}
+
+	/**
+	 * @param v
+	 * @return long v with its sign moved to the lowest bit, so values near 0
+	 *         of either sign are small.
+	 */
+	public static long zigzag(long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	/**
+	 * @param v
+	 *            A value from zigzag.
+	 * @return long The value zigzag was given.
+	 */
+	public static long unzigzag(long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+}
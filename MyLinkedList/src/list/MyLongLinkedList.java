@@ -0,0 +1,1195 @@
+package list;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A doubly linked list of long values.
+ * <p>
+ * MyLongLinkedList has the same List and Deque behavior as
+ * MyLinkedList&lt;Long&gt; but its nodes hold the long itself instead of a
+ * reference to a Long, so storing, searching, and iterating never box. The
+ * methods inherited from List and Deque still take and return Long so it can
+ * be used anywhere a list of Long is expected, but they can not store null and
+ * throw NullPointerException instead. The long methods are overloads of the
+ * Deque methods or end in Long.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ */
+public class MyLongLinkedList extends AbstractSequentialList<Long>
+		implements Serializable, Cloneable, Iterable<Long>, Collection<Long>, Deque<Long>, List<Long>, Queue<Long>, ListDeque<Long> {
+	/* Inner Classes */
+	/**
+	 * A linked list Node holding a long value.
+	 *
+	 * @author David Simmons
+	 */
+	private static final class Node {
+		long value;
+		Node prev;
+		Node next;
+
+		Node(long value) {
+			this.value = value;
+		}
+	}
+
+	/**
+	 * An iterator to handle linked list operations.
+	 * <p>
+	 * Implementation of ListIterator which MyLongLinkedList uses through
+	 * AbstractSequentialList for the positional operations. It is also a
+	 * PrimitiveIterator.OfLong so nextLong() walks the list without boxing.
+	 * </p>
+	 *
+	 * @author David Simmons
+	 */
+	public class MyLongListIterator implements ListIterator<Long>, PrimitiveIterator.OfLong {
+		/* Fields */
+		// The last node returned by next() or previous()
+		Node curr = null;
+		// The node the next call to next() returns, null past the tail
+		Node next;
+		int index;
+		int expectedModCount = modCount;
+
+		/* Constructor */
+		/**
+		 * Constructor to start the iterator at index i so that i is the next
+		 * index to be returned.
+		 *
+		 * @param i
+		 *            The index to start the iterator at.
+		 * @throws IndexOutOfBoundsException
+		 *             if i is less than 0 or more than size.
+		 */
+		public MyLongListIterator(int i) {
+			if (i < 0 || i > size) {
+				throw new IndexOutOfBoundsException();
+			}
+			next = (i == size) ? null : node(i);
+			index = i;
+		}
+
+		/* Methods */
+		/**
+		 * Adds value to the list so that it would be the next element returned
+		 * by previous().
+		 *
+		 * @param value
+		 *            The value to add.
+		 */
+		public void addLong(long value) {
+			checkForComodification();
+			curr = null;
+			linkBefore(value, next);
+			index++;
+			expectedModCount++;
+		}
+
+		/**
+		 * @see java.util.ListIterator#add(java.lang.Object)
+		 * @param e
+		 *            The element to add.
+		 * @throws NullPointerException
+		 *             if e is null.
+		 */
+		@Override
+		public void add(Long e) {
+			addLong(e);
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasNext()
+		 * @return boolean if a next() call would return an element.
+		 */
+		@Override
+		public boolean hasNext() {
+			return index < size;
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasPrevious()
+		 * @return boolean if a previous() call would return an element.
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return index > 0;
+		}
+
+		/**
+		 * Returns the next value from the list in the forwards direction.
+		 *
+		 * @see java.util.PrimitiveIterator.OfLong#nextLong()
+		 * @return long The next value.
+		 * @throws NoSuchElementException
+		 *             if hasNext() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		@Override
+		public long nextLong() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			curr = next;
+			next = next.next;
+			index++;
+			return curr.value;
+		}
+
+		/**
+		 * @see java.util.ListIterator#next()
+		 * @return Long The next element.
+		 */
+		@Override
+		public Long next() {
+			return nextLong();
+		}
+
+		/**
+		 * @see java.util.ListIterator#nextIndex()
+		 * @return int The index of the element that a call to next() would
+		 *         have.
+		 */
+		@Override
+		public int nextIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the previous value from the list in the backwards direction.
+		 *
+		 * @return long The previous value.
+		 * @throws NoSuchElementException
+		 *             if hasPrevious() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		public long previousLong() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			next = (next == null) ? tail : next.prev;
+			curr = next;
+			index--;
+			return curr.value;
+		}
+
+		/**
+		 * @see java.util.ListIterator#previous()
+		 * @return Long The previous element.
+		 */
+		@Override
+		public Long previous() {
+			return previousLong();
+		}
+
+		/**
+		 * @see java.util.ListIterator#previousIndex()
+		 * @return int The index of the element that a call to previous() would
+		 *         have.
+		 */
+		@Override
+		public int previousIndex() {
+			return index - 1;
+		}
+
+		/**
+		 * Removes the last value returned by next() or previous().
+		 *
+		 * @see java.util.ListIterator#remove()
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		@Override
+		public void remove() {
+			if (curr == null) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			Node after = curr.next;
+			unlink(curr);
+			if (next == curr) {
+				next = after;
+			} else {
+				index--;
+			}
+			curr = null;
+			expectedModCount++;
+		}
+
+		/**
+		 * Sets the last value returned by next() or previous().
+		 *
+		 * @param value
+		 *            The new value.
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		public void setLong(long value) {
+			if (curr == null) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			curr.value = value;
+		}
+
+		/**
+		 * @see java.util.ListIterator#set(java.lang.Object)
+		 * @param e
+		 *            The new element.
+		 * @throws NullPointerException
+		 *             if e is null.
+		 */
+		@Override
+		public void set(Long e) {
+			setLong(e);
+		}
+
+		/**
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator.
+		 */
+		private void checkForComodification() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+	}
+
+	/* Fields */
+	private static final long serialVersionUID = 1L;
+	// Written by writeObject as the size and the values
+	private transient Node head = null;
+	private transient Node tail = null;
+	private transient int size = 0;
+
+	/* Constructors */
+	/**
+	 * Default constructor.
+	 */
+	public MyLongLinkedList() {
+		super();
+	}
+
+	/**
+	 * Constructor which adds all of c to the new list.
+	 *
+	 * @param c
+	 *            Collection to add to list
+	 * @throws NullPointerException
+	 *             if c contains null.
+	 */
+	public MyLongLinkedList(Collection<? extends Long> c) {
+		super();
+		for (Long e : c) {
+			addLast(e.longValue());
+		}
+	}
+
+	/**
+	 * Constructor which adds all of values to the new list.
+	 *
+	 * @param values
+	 *            The values to add in order.
+	 */
+	public MyLongLinkedList(long... values) {
+		super();
+		for (long value : values) {
+			addLast(value);
+		}
+	}
+
+	/* Methods */
+	/**
+	 * Find the node at index by walking the links from whichever end of the
+	 * list is nearer.
+	 *
+	 * @param index
+	 *            The index of the node, which must be in bounds.
+	 * @return Node The node at index.
+	 */
+	private Node node(int index) {
+		Node x;
+		if (index < (size >> 1)) {
+			x = head;
+			for (int i = 0; i < index; i++) {
+				x = x.next;
+			}
+		} else {
+			x = tail;
+			for (int i = size - 1; i > index; i--) {
+				x = x.prev;
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * @param index
+	 * @throws IndexOutOfBoundsException
+	 *             if index is not the index of an element in this list.
+	 */
+	private void checkElementIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Link a new node holding value before succ, or after tail if succ is
+	 * null.
+	 *
+	 * @param value
+	 * @param succ
+	 */
+	private void linkBefore(long value, Node succ) {
+		Node newNode = new Node(value);
+		Node pred = (succ == null) ? tail : succ.prev;
+		newNode.prev = pred;
+		newNode.next = succ;
+		if (pred == null) {
+			head = newNode;
+		} else {
+			pred.next = newNode;
+		}
+		if (succ == null) {
+			tail = newNode;
+		} else {
+			succ.prev = newNode;
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Unlink x from the list.
+	 *
+	 * @param x
+	 *            A node in this list.
+	 * @return long The value of x.
+	 */
+	private long unlink(Node x) {
+		if (x.prev == null) {
+			head = x.next;
+		} else {
+			x.prev.next = x.next;
+		}
+		if (x.next == null) {
+			tail = x.prev;
+		} else {
+			x.next.prev = x.prev;
+		}
+		x.prev = null;
+		x.next = null;
+		size--;
+		modCount++;
+		return x.value;
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @return boolean If a and b are equal in the same way Long.equals()
+	 *         compares them.
+	 */
+	private static boolean same(long a, long b) {
+		return a == b;
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#size()
+	 * @return The size of this list.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Makes a ListIterator and moves its current position to i.
+	 *
+	 * @see java.util.AbstractSequentialList#listIterator(int)
+	 * @param i
+	 *            The index in the list to start the iterator at.
+	 * @return ListIterator The iterator starting at index i.
+	 */
+	@Override
+	public ListIterator<Long> listIterator(int i) {
+		return new MyLongListIterator(i);
+	}
+
+	/**
+	 * @return PrimitiveIterator.OfLong An iterator over the values from head to
+	 *         tail that does not box.
+	 */
+	public PrimitiveIterator.OfLong longIterator() {
+		return new MyLongListIterator(0);
+	}
+
+	/**
+	 * @return LongStream A sequential stream of the values from head to tail.
+	 */
+	public LongStream longStream() {
+		return StreamSupport.longStream(Spliterators.spliterator(longIterator(), size,
+				Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Calls action with every value from head to tail.
+	 *
+	 * @param action
+	 */
+	public void forEachLong(LongConsumer action) {
+		int expectedModCount = modCount;
+		for (Node x = head; x != null; x = x.next) {
+			action.accept(x.value);
+		}
+		if (expectedModCount != modCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * @return long[] The values from head to tail.
+	 */
+	public long[] toLongArray() {
+		long[] result = new long[size];
+		int i = 0;
+		for (Node x = head; x != null; x = x.next) {
+			result[i++] = x.value;
+		}
+		return result;
+	}
+
+	/**
+	 * Removes every element by dropping the whole chain at once.
+	 *
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		for (Node x = head; x != null;) {
+			Node next = x.next;
+			x.prev = null;
+			x.next = null;
+			x = next;
+		}
+		head = null;
+		tail = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Returns the value at index.
+	 *
+	 * @param index
+	 *            The index of the value.
+	 * @return long The value at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	public long getLong(int index) {
+		checkElementIndex(index);
+		return node(index).value;
+	}
+
+	/**
+	 * @see java.util.AbstractSequentialList#get(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return Long The element at index.
+	 */
+	@Override
+	public Long get(int index) {
+		return getLong(index);
+	}
+
+	/**
+	 * Replaces the value at index.
+	 *
+	 * @param index
+	 *            The index of the value.
+	 * @param value
+	 *            The new value.
+	 * @return long The value previously at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	public long setLong(int index, long value) {
+		checkElementIndex(index);
+		Node x = node(index);
+		long old = x.value;
+		x.value = value;
+		return old;
+	}
+
+	/**
+	 * @see java.util.AbstractSequentialList#set(int, java.lang.Object)
+	 * @param index
+	 *            The index of the element.
+	 * @param e
+	 *            The new element.
+	 * @return Long The element previously at index.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public Long set(int index, Long e) {
+		return setLong(index, e);
+	}
+
+	/**
+	 * Inserts value at index.
+	 *
+	 * @param index
+	 *            The index the new value will have.
+	 * @param value
+	 *            The value to add.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or more than size.
+	 */
+	public void addLong(int index, long value) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		linkBefore(value, index == size ? null : node(index));
+	}
+
+	/**
+	 * @see java.util.AbstractSequentialList#add(int, java.lang.Object)
+	 * @param index
+	 *            The index the new element will have.
+	 * @param e
+	 *            The element to add.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public void add(int index, Long e) {
+		addLong(index, e);
+	}
+
+	/**
+	 * Removes the value at index.
+	 *
+	 * @param index
+	 *            The index of the value.
+	 * @return long The removed value.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	public long removeLong(int index) {
+		checkElementIndex(index);
+		return unlink(node(index));
+	}
+
+	/**
+	 * @see java.util.AbstractSequentialList#remove(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return Long The removed element.
+	 */
+	@Override
+	public Long remove(int index) {
+		return removeLong(index);
+	}
+
+	/**
+	 * Add a value to the end of the list.
+	 *
+	 * @param value
+	 *            The value to add.
+	 * @return true
+	 */
+	public boolean add(long value) {
+		linkBefore(value, null);
+		return true;
+	}
+
+	/**
+	 * @see java.util.AbstractList#add(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public boolean add(Long e) {
+		return add(e.longValue());
+	}
+
+	/**
+	 * @param value
+	 * @return boolean If value is in the list.
+	 */
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#contains(java.lang.Object)
+	 * @param o
+	 * @return boolean If o is a Long in the list.
+	 */
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * @param value
+	 * @return int The index of the first occurrence of value or -1.
+	 */
+	public int indexOf(long value) {
+		int i = 0;
+		for (Node x = head; x != null; x = x.next) {
+			if (same(x.value, value)) {
+				return i;
+			}
+			i++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @see java.util.AbstractList#indexOf(java.lang.Object)
+	 * @param o
+	 * @return int The index of the first occurrence of o or -1.
+	 */
+	@Override
+	public int indexOf(Object o) {
+		return (o instanceof Long) ? indexOf(((Long) o).longValue()) : -1;
+	}
+
+	/**
+	 * @param value
+	 * @return int The index of the last occurrence of value or -1.
+	 */
+	public int lastIndexOf(long value) {
+		int i = size - 1;
+		for (Node x = tail; x != null; x = x.prev) {
+			if (same(x.value, value)) {
+				return i;
+			}
+			i--;
+		}
+		return -1;
+	}
+
+	/**
+	 * @see java.util.AbstractList#lastIndexOf(java.lang.Object)
+	 * @param o
+	 * @return int The index of the last occurrence of o or -1.
+	 */
+	@Override
+	public int lastIndexOf(Object o) {
+		return (o instanceof Long) ? lastIndexOf(((Long) o).longValue()) : -1;
+	}
+
+	/**
+	 * Adds a value in front of head.
+	 *
+	 * @param value
+	 *            The value to add.
+	 */
+	public void addFirst(long value) {
+		linkBefore(value, head);
+	}
+
+	/**
+	 * @see java.util.Deque#addFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public void addFirst(Long e) {
+		addFirst(e.longValue());
+	}
+
+	/**
+	 * Adds a value after tail.
+	 *
+	 * @param value
+	 *            The value to add.
+	 */
+	public void addLast(long value) {
+		linkBefore(value, null);
+	}
+
+	/**
+	 * @see java.util.Deque#addLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	@Override
+	public void addLast(Long e) {
+		addLast(e.longValue());
+	}
+
+	/**
+	 * Alias for {@link MyLongLinkedList#addLast(long)}.
+	 *
+	 * @param value
+	 *            The value to add.
+	 * @return true.
+	 */
+	public boolean offer(long value) {
+		addLast(value);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offer(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offer(Long e) {
+		return offer(e.longValue());
+	}
+
+	/**
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerFirst(Long e) {
+		addFirst(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerLast(Long e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Alias for {@link MyLongLinkedList#addFirst(long)}.
+	 *
+	 * @param value
+	 *            The value to add.
+	 */
+	public void push(long value) {
+		addFirst(value);
+	}
+
+	/**
+	 * @see java.util.Deque#push(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void push(Long e) {
+		addFirst(e);
+	}
+
+	/**
+	 * Returns the head's value.
+	 *
+	 * @return long The head of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	public long getFirstLong() {
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		return head.value;
+	}
+
+	/**
+	 * Returns the tail's value.
+	 *
+	 * @return long The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	public long getLastLong() {
+		if (tail == null) {
+			throw new NoSuchElementException();
+		}
+		return tail.value;
+	}
+
+	/**
+	 * @see java.util.Deque#element()
+	 * @return Long The head of the list.
+	 */
+	@Override
+	public Long element() {
+		return getFirstLong();
+	}
+
+	/**
+	 * @see java.util.Deque#getFirst()
+	 * @return Long The head of the list.
+	 */
+	@Override
+	public Long getFirst() {
+		return getFirstLong();
+	}
+
+	/**
+	 * @see java.util.Deque#getLast()
+	 * @return Long The tail of the list.
+	 */
+	@Override
+	public Long getLast() {
+		return getLastLong();
+	}
+
+	/**
+	 * Returns the head's value, or ifEmpty if the list is empty.
+	 *
+	 * @param ifEmpty
+	 *            The sentinel to return for an empty list.
+	 * @return long The head of the list or ifEmpty.
+	 */
+	public long peekFirstLong(long ifEmpty) {
+		return head == null ? ifEmpty : head.value;
+	}
+
+	/**
+	 * Returns the tail's value, or ifEmpty if the list is empty.
+	 *
+	 * @param ifEmpty
+	 *            The sentinel to return for an empty list.
+	 * @return long The tail of the list or ifEmpty.
+	 */
+	public long peekLastLong(long ifEmpty) {
+		return tail == null ? ifEmpty : tail.value;
+	}
+
+	/**
+	 * @see java.util.Deque#peek()
+	 * @return Long The head of the list or null.
+	 */
+	@Override
+	public Long peek() {
+		return head == null ? null : head.value;
+	}
+
+	/**
+	 * @see java.util.Deque#peekFirst()
+	 * @return Long The head of the list or null.
+	 */
+	@Override
+	public Long peekFirst() {
+		return peek();
+	}
+
+	/**
+	 * @see java.util.Deque#peekLast()
+	 * @return Long The tail of the list or null.
+	 */
+	@Override
+	public Long peekLast() {
+		return tail == null ? null : tail.value;
+	}
+
+	/**
+	 * Removes and returns the head's value, or returns ifEmpty if the list is
+	 * empty. Choose a sentinel that is never stored in the list.
+	 *
+	 * @param ifEmpty
+	 *            The sentinel to return for an empty list.
+	 * @return long The head of the list or ifEmpty.
+	 */
+	public long pollFirstLong(long ifEmpty) {
+		return head == null ? ifEmpty : unlink(head);
+	}
+
+	/**
+	 * Removes and returns the tail's value, or returns ifEmpty if the list is
+	 * empty. Choose a sentinel that is never stored in the list.
+	 *
+	 * @param ifEmpty
+	 *            The sentinel to return for an empty list.
+	 * @return long The tail of the list or ifEmpty.
+	 */
+	public long pollLastLong(long ifEmpty) {
+		return tail == null ? ifEmpty : unlink(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#poll()
+	 * @return Long The head of the list or null.
+	 */
+	@Override
+	public Long poll() {
+		return head == null ? null : unlink(head);
+	}
+
+	/**
+	 * @see java.util.Deque#pollFirst()
+	 * @return Long The head of the list or null.
+	 */
+	@Override
+	public Long pollFirst() {
+		return poll();
+	}
+
+	/**
+	 * @see java.util.Deque#pollLast()
+	 * @return Long The tail of the list or null.
+	 */
+	@Override
+	public Long pollLast() {
+		return tail == null ? null : unlink(tail);
+	}
+
+	/**
+	 * Removes and returns the head's value.
+	 *
+	 * @return long The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	public long removeFirstLong() {
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		return unlink(head);
+	}
+
+	/**
+	 * Removes and returns the tail's value.
+	 *
+	 * @return long The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	public long removeLastLong() {
+		if (tail == null) {
+			throw new NoSuchElementException();
+		}
+		return unlink(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#removeFirst()
+	 * @return Long The head of the list.
+	 */
+	@Override
+	public Long removeFirst() {
+		return removeFirstLong();
+	}
+
+	/**
+	 * @see java.util.Deque#removeLast()
+	 * @return Long The tail of the list.
+	 */
+	@Override
+	public Long removeLast() {
+		return removeLastLong();
+	}
+
+	/**
+	 * @see java.util.Deque#pop()
+	 * @return Long The head of the list.
+	 */
+	@Override
+	public Long pop() {
+		return removeFirstLong();
+	}
+
+	/**
+	 * @see java.util.Deque#remove()
+	 * @return Long The head of the list.
+	 */
+	@Override
+	public Long remove() {
+		return removeFirstLong();
+	}
+
+	/**
+	 * Removes the first occurrence of value.
+	 *
+	 * @param value
+	 *            The value to remove.
+	 * @return boolean If the value was found and removed.
+	 */
+	public boolean removeFirstOccurrence(long value) {
+		for (Node x = head; x != null; x = x.next) {
+			if (same(x.value, value)) {
+				unlink(x);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		return (o instanceof Long) && removeFirstOccurrence(((Long) o).longValue());
+	}
+
+	/**
+	 * Removes the last occurrence of value.
+	 *
+	 * @param value
+	 *            The value to remove.
+	 * @return boolean If the value was found and removed.
+	 */
+	public boolean removeLastOccurrence(long value) {
+		for (Node x = tail; x != null; x = x.prev) {
+			if (same(x.value, value)) {
+				unlink(x);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.Deque#removeLastOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		return (o instanceof Long) && removeLastOccurrence(((Long) o).longValue());
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#remove(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+	/**
+	 * Returns a wrapper for listIterator() that iterates backwards from the end
+	 * of the list.
+	 *
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator Traverses the list backwards.
+	 */
+	@Override
+	public Iterator<Long> descendingIterator() {
+		return new Iterator<Long>() {
+			MyLongListIterator iter = new MyLongListIterator(size);
+
+			@Override
+			public boolean hasNext() {
+				return iter.hasPrevious();
+			}
+
+			@Override
+			public Long next() {
+				return iter.previousLong();
+			}
+
+			@Override
+			public void remove() {
+				iter.remove();
+			}
+		};
+	}
+
+	/**
+	 * Copies the values of this list into a new instance of MyLongLinkedList.
+	 *
+	 * @see java.lang.Object#clone()
+	 * @return Object The new instance which is the clone.
+	 */
+	@Override
+	public Object clone() {
+		MyLongLinkedList result = new MyLongLinkedList();
+		for (Node x = head; x != null; x = x.next) {
+			result.addLast(x.value);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the size followed by the values in order.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (Node x = head; x != null; x = x.next) {
+			out.writeLong(x.value);
+		}
+	}
+
+	/**
+	 * Reads the size and values written by writeObject.
+	 *
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		int n = in.readInt();
+		if (n < 0) {
+			throw new InvalidObjectException("negative size " + n);
+		}
+		for (int i = 0; i < n; i++) {
+			addLast(in.readLong());
+		}
+	}
+
+}
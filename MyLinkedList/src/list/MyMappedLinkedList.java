@@ -0,0 +1,306 @@
+package list;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * A {@link MyOffHeapLinkedList} whose slots live in a memory mapped file, so
+ * the list is still there when the file is opened again.
+ * <p>
+ * The file starts with a 4096 byte header holding the slot size and the
+ * head, tail, size, free list, and number of slots used. The chunks of 65536
+ * slots follow it, and the file grows by one chunk whenever the list needs
+ * another. Opening a file checks the header with a plain read, then maps its
+ * chunks and reads only the header, so it takes the same time for a list of
+ * any length that fits in the same number of chunks, and none of the
+ * elements are read or copied.
+ * </p>
+ * <p>
+ * Every change first writes its link stores and the state it leaves to a
+ * redo record in the header, and a single store of the pending flag makes
+ * the record count. Only then are the slots and the state changed, and the
+ * flag is cleared last. Opening a file whose flag is set makes the recorded
+ * stores again, so the list is consistent after the process is killed at
+ * any point, for example by SIGKILL or the OOM killer, since the operating
+ * system keeps the mapped memory. An element written into a slot that is
+ * not linked yet is simply not part of the list. A crash of the operating
+ * system can still lose or tear pages that were not forced, so
+ * {@link MyMappedLinkedList#force()} or close() must return before the file
+ * is safe from that. The file is stored little endian. A list holds a lock
+ * on its file until it is closed, so only one list can have it open at a
+ * time.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the linked list
+ */
+public class MyMappedLinkedList<E> extends MyOffHeapLinkedList<E> {
+	/* Fields */
+	static final int HEADER_BYTES = 4096;
+	private static final int MAGIC = 0x4C4C4D4D;
+	private static final int VERSION = 1;
+	// Byte offsets of the fields in the header
+	private static final int MAGIC_AT = 0;
+	private static final int VERSION_AT = 4;
+	private static final int SLOT_SIZE_AT = 8;
+	private static final int HEAD_AT = 12;
+	private static final int TAIL_AT = 16;
+	private static final int SIZE_AT = 20;
+	private static final int FREE_AT = 24;
+	private static final int USED_AT = 28;
+	// The redo record: 1 while it holds a change that may be half made, the
+	// state the change leaves, and its link stores as slot, field, value
+	private static final int PENDING_AT = 32;
+	private static final int REDO_HEAD_AT = 36;
+	private static final int REDO_TAIL_AT = 40;
+	private static final int REDO_SIZE_AT = 44;
+	private static final int REDO_FREE_AT = 48;
+	private static final int REDO_USED_AT = 52;
+	private static final int REDO_COUNT_AT = 56;
+	private static final int REDO_STORES_AT = 60;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final ArrayList<MappedByteBuffer> mapped = new ArrayList<MappedByteBuffer>();
+
+	/* Constructor */
+	/**
+	 * Constructor which opens the list in file, or makes a new empty list
+	 * there if file does not exist or is empty. A change that was cut short
+	 * is made again.
+	 *
+	 * @param file
+	 * @param codec
+	 *            Converts the elements to and from bytes, and must have the
+	 *            same size as the codec the file was written with.
+	 * @throws IOException
+	 *             if the file can not be opened or mapped, is already open in
+	 *             this or another process, or is not a list with slots of this
+	 *             size, in which case it is left as it was.
+	 */
+	public MyMappedLinkedList(Path file, SlotCodec<E> codec) throws IOException {
+		super(codec);
+		int slotSize = DATA + codec.size();
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			FileLock lock;
+			try {
+				lock = channel.tryLock();
+			} catch (OverlappingFileLockException e) {
+				lock = null;
+			}
+			if (lock == null) {
+				throw new IOException(file + " is already open");
+			}
+			long length = channel.size();
+			if (length != 0) {
+				check(file, length, slotSize);
+			}
+			header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			if (length == 0) {
+				header.putInt(MAGIC_AT, MAGIC);
+				header.putInt(VERSION_AT, VERSION);
+				header.putInt(SLOT_SIZE_AT, slotSize);
+				stateChanged(NIL, NIL, 0, NIL, 0);
+			} else if (header.getInt(PENDING_AT) == 0) {
+				restore(header.getInt(HEAD_AT), header.getInt(TAIL_AT), header.getInt(SIZE_AT),
+						header.getInt(FREE_AT), header.getInt(USED_AT));
+			} else {
+				redo();
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/* Methods */
+	/**
+	 * Map chunk number index from the file, which grows the file if the
+	 * chunk is past its end.
+	 *
+	 * @see MyOffHeapLinkedList#newChunk(int, int)
+	 * @throws UncheckedIOException
+	 *             if the chunk can not be mapped.
+	 */
+	@Override
+	ByteBuffer newChunk(int index, int bytes) {
+		try {
+			MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_WRITE,
+					HEADER_BYTES + (long) index * bytes, bytes);
+			chunk.order(ByteOrder.LITTLE_ENDIAN);
+			mapped.add(chunk);
+			return chunk;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Check the header and length of an existing file before anything is
+	 * mapped, since mapping past the end of a file grows it.
+	 *
+	 * @param file
+	 * @param length
+	 * @param slotSize
+	 * @throws IOException
+	 *             if the file is not a list with slots of slotSize bytes or
+	 *             is shorter than its header says.
+	 */
+	private void check(Path file, long length, int slotSize) throws IOException {
+		ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		if (length < HEADER_BYTES) {
+			throw new IOException(file + " is not a MyMappedLinkedList file");
+		}
+		while (h.hasRemaining()) {
+			if (channel.read(h, h.position()) < 0) {
+				throw new IOException(file + " is not a MyMappedLinkedList file");
+			}
+		}
+		if (h.getInt(MAGIC_AT) != MAGIC || h.getInt(VERSION_AT) != VERSION) {
+			throw new IOException(file + " is not a MyMappedLinkedList file");
+		}
+		if (h.getInt(SLOT_SIZE_AT) != slotSize) {
+			throw new IOException(file + " has slots of " + h.getInt(SLOT_SIZE_AT) + " bytes, not " + slotSize);
+		}
+		boolean pending = h.getInt(PENDING_AT) != 0;
+		int used = h.getInt(pending ? REDO_USED_AT : USED_AT);
+		int size = h.getInt(pending ? REDO_SIZE_AT : SIZE_AT);
+		boolean valid = used >= 0 && size >= 0 && size <= used;
+		for (int at : pending ? new int[] { REDO_HEAD_AT, REDO_TAIL_AT, REDO_FREE_AT }
+				: new int[] { HEAD_AT, TAIL_AT, FREE_AT }) {
+			int slot = h.getInt(at);
+			valid &= slot >= NIL && slot < used;
+		}
+		if (pending) {
+			int count = h.getInt(REDO_COUNT_AT);
+			valid &= count >= 0 && count <= MAX_CHANGE_STORES;
+			for (int i = 0; valid && i < count; i++) {
+				int slot = h.getInt(REDO_STORES_AT + 12 * i);
+				int field = h.getInt(REDO_STORES_AT + 12 * i + 4);
+				int value = h.getInt(REDO_STORES_AT + 12 * i + 8);
+				valid &= slot >= 0 && slot < used && (field == PREV || field == NEXT) && value >= NIL
+						&& value < used;
+			}
+		}
+		if (!valid) {
+			throw new IOException(file + " has a damaged header");
+		}
+		long chunks = ((long) used + CHUNK_SLOTS - 1) >>> CHUNK_SHIFT;
+		if (length < HEADER_BYTES + chunks * CHUNK_SLOTS * slotSize) {
+			throw new IOException(file + " is shorter than its " + used + " slots");
+		}
+	}
+
+	/**
+	 * Finish the change in the redo record, which was cut short, by making
+	 * all of its stores again.
+	 */
+	private void redo() {
+		int count = header.getInt(REDO_COUNT_AT);
+		int[] slots = new int[count];
+		int[] fields = new int[count];
+		int[] values = new int[count];
+		for (int i = 0; i < count; i++) {
+			slots[i] = header.getInt(REDO_STORES_AT + 12 * i);
+			fields[i] = header.getInt(REDO_STORES_AT + 12 * i + 4);
+			values[i] = header.getInt(REDO_STORES_AT + 12 * i + 8);
+		}
+		restore(header.getInt(REDO_HEAD_AT), header.getInt(REDO_TAIL_AT), header.getInt(REDO_SIZE_AT),
+				header.getInt(REDO_FREE_AT), header.getInt(REDO_USED_AT));
+		applyStores(slots, fields, values, count);
+		stateChanged(header.getInt(REDO_HEAD_AT), header.getInt(REDO_TAIL_AT), header.getInt(REDO_SIZE_AT),
+				header.getInt(REDO_FREE_AT), header.getInt(REDO_USED_AT));
+	}
+
+	/**
+	 * Write the change to the redo record and set the pending flag, which
+	 * commits it, before any of its stores is made.
+	 *
+	 * @see MyOffHeapLinkedList#beforeChange(int[], int[], int[], int, int,
+	 *      int, int, int, int)
+	 */
+	@Override
+	void beforeChange(int[] slots, int[] fields, int[] values, int count, int head, int tail, int size,
+			int freeHead, int used) {
+		header.putInt(REDO_HEAD_AT, head);
+		header.putInt(REDO_TAIL_AT, tail);
+		header.putInt(REDO_SIZE_AT, size);
+		header.putInt(REDO_FREE_AT, freeHead);
+		header.putInt(REDO_USED_AT, used);
+		header.putInt(REDO_COUNT_AT, count);
+		for (int i = 0; i < count; i++) {
+			header.putInt(REDO_STORES_AT + 12 * i, slots[i]);
+			header.putInt(REDO_STORES_AT + 12 * i + 4, fields[i]);
+			header.putInt(REDO_STORES_AT + 12 * i + 8, values[i]);
+		}
+		// The record must be whole before the flag, and the flag set before
+		// any slot changes
+		VarHandle.storeStoreFence();
+		header.putInt(PENDING_AT, 1);
+		VarHandle.storeStoreFence();
+	}
+
+	/**
+	 * Keep the state in the header, then clear the pending flag.
+	 *
+	 * @see MyOffHeapLinkedList#stateChanged(int, int, int, int, int)
+	 */
+	@Override
+	void stateChanged(int head, int tail, int size, int freeHead, int used) {
+		header.putInt(HEAD_AT, head);
+		header.putInt(TAIL_AT, tail);
+		header.putInt(SIZE_AT, size);
+		header.putInt(FREE_AT, freeHead);
+		header.putInt(USED_AT, used);
+		VarHandle.storeStoreFence();
+		header.putInt(PENDING_AT, 0);
+	}
+
+	/**
+	 * Write every change made so far to the disk.
+	 */
+	public void force() {
+		for (MappedByteBuffer chunk : mapped) {
+			chunk.force();
+		}
+		header.force();
+	}
+
+	/**
+	 * Writes the list to the disk and closes the file, which lets go of its
+	 * lock. The list is empty afterwards and any change throws
+	 * IllegalStateException, but the file keeps the list for the next time it
+	 * is opened.
+	 *
+	 * @see MyOffHeapLinkedList#close()
+	 */
+	@Override
+	public void close() {
+		if (!channel.isOpen()) {
+			return;
+		}
+		force();
+		super.close();
+		mapped.clear();
+		try {
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
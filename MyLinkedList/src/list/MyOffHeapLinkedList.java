@@ -0,0 +1,759 @@
+package list;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractCollection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A doubly linked deque whose nodes live outside of the Java heap.
+ * <p>
+ * Every node is a fixed size slot in a direct ByteBuffer holding the slot
+ * numbers of the previous and next nodes followed by the element, which a
+ * {@link SlotCodec} converts to bytes. The buffers are allocated in chunks of
+ * 65536 slots as the list grows and removed slots are kept on a free list for
+ * the next insertion. Since the list is only a few objects no matter how many
+ * elements it holds, its size does not add to the work of the garbage
+ * collector. Elements are copied in and out, so changing an element after
+ * adding it does not change the list, and null elements are not allowed.
+ * </p>
+ * <p>
+ * {@link MyOffHeapLinkedList#close()} drops the buffers so their memory is
+ * returned when they are collected, and the list can not be added to after
+ * that. {@link MyMappedLinkedList} keeps the same slots in a file.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the linked list
+ */
+public class MyOffHeapLinkedList<E> extends AbstractCollection<E> implements Deque<E>, Closeable {
+	/* Inner Classes */
+	/**
+	 * A fail-fast iterator that follows the next or previous slot numbers.
+	 *
+	 * @author David Simmons
+	 */
+	private class SlotIterator implements Iterator<E> {
+		/* Fields */
+		int nextSlot;
+		int lastReturned = NIL;
+		final boolean descending;
+		int expectedModCount = modCount;
+
+		/* Constructor */
+		/**
+		 * @param descending
+		 *            true to iterate from tail to head.
+		 */
+		SlotIterator(boolean descending) {
+			this.descending = descending;
+			nextSlot = descending ? tail : head;
+		}
+
+		/* Methods */
+		@Override
+		public boolean hasNext() {
+			return nextSlot != NIL;
+		}
+
+		@Override
+		public E next() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (nextSlot == NIL) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = nextSlot;
+			nextSlot = descending ? prevOf(nextSlot) : nextOf(nextSlot);
+			return read(lastReturned);
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned == NIL) {
+				throw new IllegalStateException();
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			unlink(lastReturned);
+			lastReturned = NIL;
+			expectedModCount++;
+		}
+	}
+
+	/* Fields */
+	// The slot number that marks the end of the list or of the free list
+	static final int NIL = -1;
+	// Byte offsets of the fields in a slot
+	static final int PREV = 0;
+	static final int NEXT = 4;
+	static final int DATA = 8;
+	static final int CHUNK_SHIFT = 16;
+	static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+	// The most link stores one change makes
+	static final int MAX_CHANGE_STORES = 4;
+	private final SlotCodec<E> codec;
+	private final int slotSize;
+	private ByteBuffer[] chunks = new ByteBuffer[4];
+	private int chunkCount = 0;
+	private int head = NIL;
+	private int tail = NIL;
+	private int size = 0;
+	// Removed slots linked through NEXT
+	private int freeHead = NIL;
+	// The number of slots ever handed out, so slot used is the next new one
+	private int used = 0;
+	private int modCount = 0;
+	private boolean closed = false;
+	// The link stores of the change being made, as slot, byte offset in the
+	// slot, and value, so they can be handed to beforeChange first
+	private final int[] changeSlots = new int[MAX_CHANGE_STORES];
+	private final int[] changeFields = new int[MAX_CHANGE_STORES];
+	private final int[] changeValues = new int[MAX_CHANGE_STORES];
+	private int changeCount = 0;
+
+	/* Constructor */
+	/**
+	 * Constructor which stores elements with codec.
+	 *
+	 * @param codec
+	 *            Converts the elements to and from bytes.
+	 * @throws IllegalArgumentException
+	 *             if the slots of codec are too big for a chunk to fit in an
+	 *             int of bytes.
+	 */
+	public MyOffHeapLinkedList(SlotCodec<E> codec) {
+		super();
+		if (codec.size() < 0 || codec.size() > Integer.MAX_VALUE / CHUNK_SLOTS - DATA) {
+			throw new IllegalArgumentException("slot of " + codec.size() + " bytes");
+		}
+		this.codec = codec;
+		this.slotSize = DATA + codec.size();
+	}
+
+	/* Methods */
+	/**
+	 * Allocate the buffer for chunk number index. The file backed list
+	 * overrides this to map the chunk from its file instead.
+	 *
+	 * @param index
+	 *            The number of the chunk.
+	 * @param bytes
+	 *            The size of the chunk.
+	 * @return ByteBuffer A buffer of bytes bytes.
+	 */
+	ByteBuffer newChunk(int index, int bytes) {
+		return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Called before every change to the list with all of the link stores it
+	 * is about to make and the state it leaves, before any of them is made.
+	 * The file backed list overrides this to record the change in its
+	 * header, so a change cut short can be made again with applyStores when
+	 * the file is opened.
+	 *
+	 * @param slots
+	 * @param fields
+	 *            The byte offsets in the slots, PREV or NEXT.
+	 * @param values
+	 * @param count
+	 *            The number of stores in the arrays.
+	 * @param head
+	 * @param tail
+	 * @param size
+	 * @param freeHead
+	 * @param used
+	 */
+	void beforeChange(int[] slots, int[] fields, int[] values, int count, int head, int tail, int size,
+			int freeHead, int used) {
+	}
+
+	/**
+	 * Called after every change to the list with the state that, together
+	 * with the chunks, makes up the list. The file backed list overrides this
+	 * to keep the state in the header of its file.
+	 *
+	 * @param head
+	 * @param tail
+	 * @param size
+	 * @param freeHead
+	 * @param used
+	 */
+	void stateChanged(int head, int tail, int size, int freeHead, int used) {
+	}
+
+	/**
+	 * Take the state saved from stateChanged for chunks that already hold the
+	 * slots, getting the chunks from newChunk.
+	 *
+	 * @param head
+	 * @param tail
+	 * @param size
+	 * @param freeHead
+	 * @param used
+	 */
+	void restore(int head, int tail, int size, int freeHead, int used) {
+		int count = (int) (((long) used + CHUNK_SLOTS - 1) >>> CHUNK_SHIFT);
+		chunks = new ByteBuffer[Math.max(4, count)];
+		for (chunkCount = 0; chunkCount < count; chunkCount++) {
+			chunks[chunkCount] = newChunk(chunkCount, CHUNK_SLOTS * slotSize);
+		}
+		this.head = head;
+		this.tail = tail;
+		this.size = size;
+		this.freeHead = freeHead;
+		this.used = used;
+		modCount++;
+	}
+
+	/**
+	 * @param slot
+	 * @return ByteBuffer The chunk holding slot.
+	 */
+	private ByteBuffer chunk(int slot) {
+		return chunks[slot >>> CHUNK_SHIFT];
+	}
+
+	/**
+	 * @param slot
+	 * @return int The byte offset of slot in its chunk.
+	 */
+	private int offset(int slot) {
+		return (slot & (CHUNK_SLOTS - 1)) * slotSize;
+	}
+
+	private int prevOf(int slot) {
+		return chunk(slot).getInt(offset(slot) + PREV);
+	}
+
+	private int nextOf(int slot) {
+		return chunk(slot).getInt(offset(slot) + NEXT);
+	}
+
+	/**
+	 * Make count link stores, each putting values[i] at byte fields[i] of
+	 * slot slots[i].
+	 *
+	 * @param slots
+	 * @param fields
+	 * @param values
+	 * @param count
+	 */
+	void applyStores(int[] slots, int[] fields, int[] values, int count) {
+		for (int i = 0; i < count; i++) {
+			chunk(slots[i]).putInt(offset(slots[i]) + fields[i], values[i]);
+		}
+	}
+
+	/**
+	 * Add a link store to the change being made.
+	 *
+	 * @param slot
+	 * @param field
+	 *            PREV or NEXT.
+	 * @param value
+	 */
+	private void store(int slot, int field, int value) {
+		changeSlots[changeCount] = slot;
+		changeFields[changeCount] = field;
+		changeValues[changeCount] = value;
+		changeCount++;
+	}
+
+	/**
+	 * Make the change collected by store, which leaves the list with head,
+	 * tail, size, and the current freeHead and used.
+	 *
+	 * @param newHead
+	 * @param newTail
+	 * @param newSize
+	 */
+	private void commit(int newHead, int newTail, int newSize) {
+		beforeChange(changeSlots, changeFields, changeValues, changeCount, newHead, newTail, newSize, freeHead,
+				used);
+		applyStores(changeSlots, changeFields, changeValues, changeCount);
+		changeCount = 0;
+		head = newHead;
+		tail = newTail;
+		size = newSize;
+		modCount++;
+		stateChanged(head, tail, size, freeHead, used);
+	}
+
+	/**
+	 * Every change checks this before it touches a slot, so a closed list,
+	 * and the file of a closed MyMappedLinkedList, is never written.
+	 *
+	 * @throws IllegalStateException
+	 *             if the list was closed.
+	 */
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("closed");
+		}
+	}
+
+	private E read(int slot) {
+		return codec.read(chunk(slot), offset(slot) + DATA);
+	}
+
+	/**
+	 * Take a slot from the free list, or a new slot from the chunks, and store
+	 * e in it.
+	 *
+	 * @param e
+	 * @return int The slot number.
+	 * @throws IllegalStateException
+	 *             if the list was closed or has 2^31 - 1 slots.
+	 * @throws NullPointerException
+	 *             if e is null.
+	 */
+	private int allocate(E e) {
+		checkOpen();
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		int slot = freeHead;
+		boolean reused = slot != NIL;
+		if (reused) {
+			freeHead = nextOf(slot);
+		} else {
+			if (used == Integer.MAX_VALUE) {
+				throw new IllegalStateException("full");
+			}
+			slot = used;
+			int index = slot >>> CHUNK_SHIFT;
+			if (index == chunkCount) {
+				if (index == chunks.length) {
+					ByteBuffer[] grown = new ByteBuffer[chunks.length * 2];
+					System.arraycopy(chunks, 0, grown, 0, chunkCount);
+					chunks = grown;
+				}
+				chunks[index] = newChunk(index, CHUNK_SLOTS * slotSize);
+				chunkCount++;
+			}
+			used++;
+		}
+		try {
+			codec.write(chunk(slot), offset(slot) + DATA, e);
+		} catch (RuntimeException ex) {
+			// Give the slot back so it is not lost to the list. A reused
+			// slot still links to the rest of the free list.
+			if (reused) {
+				freeHead = slot;
+			} else {
+				used--;
+			}
+			throw ex;
+		}
+		return slot;
+	}
+
+	/**
+	 * Link a new slot holding e between pred and succ, either of which may be
+	 * NIL at the ends.
+	 *
+	 * @param e
+	 * @param pred
+	 * @param succ
+	 */
+	private void linkBetween(E e, int pred, int succ) {
+		int slot = allocate(e);
+		int newHead = head;
+		int newTail = tail;
+		store(slot, PREV, pred);
+		store(slot, NEXT, succ);
+		if (pred == NIL) {
+			newHead = slot;
+		} else {
+			store(pred, NEXT, slot);
+		}
+		if (succ == NIL) {
+			newTail = slot;
+		} else {
+			store(succ, PREV, slot);
+		}
+		commit(newHead, newTail, size + 1);
+	}
+
+	/**
+	 * Unlink slot from the list and put it on the free list.
+	 *
+	 * @param slot
+	 *            A slot in the list.
+	 * @return E The element slot held.
+	 * @throws IllegalStateException
+	 *             if the list was closed.
+	 */
+	private E unlink(int slot) {
+		checkOpen();
+		E result = read(slot);
+		int pred = prevOf(slot);
+		int succ = nextOf(slot);
+		int newHead = head;
+		int newTail = tail;
+		if (pred == NIL) {
+			newHead = succ;
+		} else {
+			store(pred, NEXT, succ);
+		}
+		if (succ == NIL) {
+			newTail = pred;
+		} else {
+			store(succ, PREV, pred);
+		}
+		store(slot, NEXT, freeHead);
+		freeHead = slot;
+		commit(newHead, newTail, size - 1);
+		return result;
+	}
+
+	/**
+	 * @return long The bytes of buffer space allocated for slots.
+	 */
+	public long allocatedBytes() {
+		return (long) chunkCount * CHUNK_SLOTS * slotSize;
+	}
+
+	/**
+	 * Drops the buffers so their memory can be returned. The list is empty
+	 * afterwards and any insertion, removal, or clear() throws
+	 * IllegalStateException.
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		chunks = new ByteBuffer[0];
+		chunkCount = 0;
+		head = NIL;
+		tail = NIL;
+		size = 0;
+		freeHead = NIL;
+		used = 0;
+		modCount++;
+	}
+
+	/**
+	 * Removes every element. The chunks are kept and reused.
+	 *
+	 * @see java.util.AbstractCollection#clear()
+	 * @throws IllegalStateException
+	 *             if the list was closed.
+	 */
+	@Override
+	public void clear() {
+		checkOpen();
+		freeHead = NIL;
+		used = 0;
+		commit(NIL, NIL, 0);
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#size()
+	 * @return The size of this list.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#iterator()
+	 * @return Iterator Traverses the list from head to tail.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new SlotIterator(false);
+	}
+
+	/**
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator Traverses the list from tail to head.
+	 */
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new SlotIterator(true);
+	}
+
+	/**
+	 * Alias for {@link MyOffHeapLinkedList#addLast}.
+	 *
+	 * @see java.util.AbstractCollection#add(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true
+	 */
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Adds an element in front of head.
+	 *
+	 * @see java.util.Deque#addFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addFirst(E e) {
+		linkBetween(e, NIL, head);
+	}
+
+	/**
+	 * Adds an element after tail.
+	 *
+	 * @see java.util.Deque#addLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addLast(E e) {
+		linkBetween(e, tail, NIL);
+	}
+
+	/**
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerFirst(E e) {
+		addFirst(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerLast(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#offer(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offer(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * @see java.util.Deque#push(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	/**
+	 * @see java.util.Deque#removeFirst()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeFirst() {
+		if (head == NIL) {
+			throw new NoSuchElementException();
+		}
+		return unlink(head);
+	}
+
+	/**
+	 * @see java.util.Deque#removeLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeLast() {
+		if (tail == NIL) {
+			throw new NoSuchElementException();
+		}
+		return unlink(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#pollFirst()
+	 * @return E The head of the list or null if it is empty.
+	 */
+	@Override
+	public E pollFirst() {
+		return head == NIL ? null : unlink(head);
+	}
+
+	/**
+	 * @see java.util.Deque#pollLast()
+	 * @return E The tail of the list or null if it is empty.
+	 */
+	@Override
+	public E pollLast() {
+		return tail == NIL ? null : unlink(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#poll()
+	 * @return E The head of the list or null if it is empty.
+	 */
+	@Override
+	public E poll() {
+		return pollFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#pop()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#remove()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#getFirst()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E getFirst() {
+		if (head == NIL) {
+			throw new NoSuchElementException();
+		}
+		return read(head);
+	}
+
+	/**
+	 * @see java.util.Deque#getLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E getLast() {
+		if (tail == NIL) {
+			throw new NoSuchElementException();
+		}
+		return read(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#element()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E element() {
+		return getFirst();
+	}
+
+	/**
+	 * @see java.util.Deque#peekFirst()
+	 * @return E The head of the list or null if it is empty.
+	 */
+	@Override
+	public E peekFirst() {
+		return head == NIL ? null : read(head);
+	}
+
+	/**
+	 * @see java.util.Deque#peekLast()
+	 * @return E The tail of the list or null if it is empty.
+	 */
+	@Override
+	public E peekLast() {
+		return tail == NIL ? null : read(tail);
+	}
+
+	/**
+	 * @see java.util.Deque#peek()
+	 * @return E The head of the list or null if it is empty.
+	 */
+	@Override
+	public E peek() {
+		return peekFirst();
+	}
+
+	/**
+	 * Removes the first element that equals o.
+	 *
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		for (int slot = head; slot != NIL; slot = nextOf(slot)) {
+			if (read(slot).equals(o)) {
+				unlink(slot);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the last element that equals o.
+	 *
+	 * @see java.util.Deque#removeLastOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		for (int slot = tail; slot != NIL; slot = prevOf(slot)) {
+			if (read(slot).equals(o)) {
+				unlink(slot);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#remove(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean remove(Object o) {
+		return removeFirstOccurrence(o);
+	}
+
+}
@@ -0,0 +1,1058 @@
+package list;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * An unrolled doubly linked list whose nodes each hold a small array of
+ * elements.
+ * <p>
+ * MyUnrolledLinkedList has the same List, Deque, and ListIterator behavior as
+ * {@link MyLinkedList} but stores up to chunkCapacity elements in each node,
+ * called a Chunk. This removes the per element Node object and keeps
+ * neighboring elements next to each other in memory, so iteration follows one
+ * link per chunk instead of one per element. A chunk that is full is split in
+ * half before an insertion and a chunk that drops below half full is merged
+ * with a neighbor when they fit in one chunk. The elements of a chunk can
+ * start anywhere in its array so adding and removing at either end of the list
+ * does not shift elements.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to be stored in the linked list
+ */
+public class MyUnrolledLinkedList<E> extends AbstractSequentialList<E>
+		implements Serializable, Cloneable, Iterable<E>, Collection<E>, Deque<E>, List<E>, Queue<E>, ListDeque<E> {
+	/* Inner Classes */
+	/**
+	 * A node holding the elements items[start] through items[start + count -
+	 * 1] and links to the previous and next chunk.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the elements to be stored in the Chunk
+	 */
+	private static final class Chunk<E> {
+		final Object[] items;
+		int start = 0;
+		int count = 0;
+		Chunk<E> prev;
+		Chunk<E> next;
+
+		Chunk(int capacity) {
+			items = new Object[capacity];
+		}
+
+		@SuppressWarnings("unchecked")
+		E get(int i) {
+			return (E) items[start + i];
+		}
+
+		void set(int i, E e) {
+			items[start + i] = e;
+		}
+
+		boolean isFull() {
+			return count == items.length;
+		}
+
+		/**
+		 * Insert e at position i, moving whichever side of i is shorter and
+		 * has room. The chunk must not be full.
+		 *
+		 * @param i
+		 * @param e
+		 */
+		void insert(int i, E e) {
+			if (start + count == items.length || (start > 0 && i < count / 2)) {
+				System.arraycopy(items, start, items, start - 1, i);
+				start--;
+			} else {
+				System.arraycopy(items, start + i, items, start + i + 1, count - i);
+			}
+			items[start + i] = e;
+			count++;
+		}
+
+		/**
+		 * Remove the element at position i, moving whichever side of i is
+		 * shorter.
+		 *
+		 * @param i
+		 * @return E The removed element.
+		 */
+		E remove(int i) {
+			E old = get(i);
+			if (i < count / 2) {
+				System.arraycopy(items, start, items, start + 1, i);
+				items[start] = null;
+				start++;
+			} else {
+				System.arraycopy(items, start + i + 1, items, start + i, count - i - 1);
+				items[start + count - 1] = null;
+			}
+			count--;
+			if (count == 0) {
+				start = 0;
+			}
+			return old;
+		}
+
+		/**
+		 * Move the elements to the front of the array.
+		 */
+		void compact() {
+			if (start > 0) {
+				System.arraycopy(items, start, items, 0, count);
+				for (int i = Math.max(start, count); i < start + count; i++) {
+					items[i] = null;
+				}
+				start = 0;
+			}
+		}
+	}
+
+	/**
+	 * An iterator to handle linked list operations.
+	 * <p>
+	 * Implementation of ListIterator which MyUnrolledLinkedList uses through
+	 * AbstractSequentialList for the positional operations. The cursor is the
+	 * chunk and the position in that chunk of the element next() returns, or a
+	 * null chunk after the last element.
+	 * </p>
+	 *
+	 * @author David Simmons
+	 */
+	public class MyUnrolledListIterator implements ListIterator<E> {
+		/* Fields */
+		Chunk<E> chunk;
+		int offset;
+		int index;
+		// Where the last element returned is: BEFORE the cursor after next(),
+		// AT the cursor after previous(), or NONE if remove and set can not
+		// be used
+		int lastReturned = NONE;
+		int expectedModCount = modCount;
+
+		/* Constructor */
+		/**
+		 * Constructor to start the iterator at index i so that i is the next
+		 * index to be returned.
+		 *
+		 * @param i
+		 *            The index to start the iterator at.
+		 * @throws IndexOutOfBoundsException
+		 *             if i is less than 0 or more than size.
+		 */
+		public MyUnrolledListIterator(int i) {
+			if (i < 0 || i > size) {
+				throw new IndexOutOfBoundsException();
+			}
+			index = i;
+			if (i == size) {
+				chunk = null;
+			} else if (i < (size >> 1)) {
+				Chunk<E> c = head;
+				while (i >= c.count) {
+					i -= c.count;
+					c = c.next;
+				}
+				chunk = c;
+				offset = i;
+			} else {
+				Chunk<E> c = tail;
+				int remaining = size - i;
+				while (remaining > c.count) {
+					remaining -= c.count;
+					c = c.prev;
+				}
+				chunk = c;
+				offset = c.count - remaining;
+			}
+		}
+
+		/* Methods */
+		/**
+		 * Adds e to the list so that it would be the next element returned by
+		 * {@link MyUnrolledLinkedList.MyUnrolledListIterator#previous}.
+		 *
+		 * @see java.util.ListIterator#add(java.lang.Object)
+		 * @param e
+		 *            The element to add.
+		 */
+		@Override
+		public void add(E e) {
+			checkForComodification();
+			lastReturned = NONE;
+			Chunk<E> c = chunk;
+			int off = offset;
+			if (c == null) {
+				if (tail == null) {
+					linkChunkAfter(null, new Chunk<E>(chunkCapacity));
+				}
+				c = tail;
+				off = c.count;
+			} else if (off == 0 && c.prev != null && !c.prev.isFull()) {
+				// Append to the previous chunk instead of shifting this one
+				c = c.prev;
+				off = c.count;
+			}
+			if (c.isFull()) {
+				Chunk<E> upper = split(c);
+				if (off > c.count) {
+					off -= c.count;
+					c = upper;
+				}
+			}
+			c.insert(off, e);
+			setCursor(c, off + 1);
+			index++;
+			size++;
+			modCount++;
+			expectedModCount++;
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasNext()
+		 * @return boolean if a next() call would return an element.
+		 */
+		@Override
+		public boolean hasNext() {
+			return index < size;
+		}
+
+		/**
+		 * @see java.util.ListIterator#hasPrevious()
+		 * @return boolean if a previous() call would return an element.
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return index > 0;
+		}
+
+		/**
+		 * Returns the next element from the list in the forwards direction.
+		 *
+		 * @see java.util.ListIterator#next()
+		 * @return E The next element.
+		 * @throws NoSuchElementException
+		 *             if hasNext() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		@Override
+		public E next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			E result = chunk.get(offset);
+			setCursor(chunk, offset + 1);
+			index++;
+			lastReturned = BEFORE;
+			return result;
+		}
+
+		/**
+		 * @see java.util.ListIterator#nextIndex()
+		 * @return int The index of the element that a call to next() would
+		 *         have.
+		 */
+		@Override
+		public int nextIndex() {
+			return index;
+		}
+
+		/**
+		 * Returns the previous element from the list in the backwards
+		 * direction.
+		 *
+		 * @see java.util.ListIterator#previous()
+		 * @return E The previous element.
+		 * @throws NoSuchElementException
+		 *             if hasPrevious() is false.
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator while it is in scope.
+		 */
+		@Override
+		public E previous() {
+			checkForComodification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			if (offset > 0) {
+				offset--;
+			} else {
+				chunk = (chunk == null) ? tail : chunk.prev;
+				offset = chunk.count - 1;
+			}
+			index--;
+			lastReturned = AT;
+			return chunk.get(offset);
+		}
+
+		/**
+		 * @see java.util.ListIterator#previousIndex()
+		 * @return int The index of the element that a call to previous() would
+		 *         have.
+		 */
+		@Override
+		public int previousIndex() {
+			return index - 1;
+		}
+
+		/**
+		 * Removes the last element returned by next() or previous().
+		 *
+		 * @see java.util.ListIterator#remove()
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		@Override
+		public void remove() {
+			if (lastReturned == NONE) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			if (lastReturned == BEFORE) {
+				stepBack();
+				index--;
+			}
+			lastReturned = NONE;
+			Chunk<E> c = chunk;
+			int off = offset;
+			c.remove(off);
+			if (c.count == 0) {
+				Chunk<E> after = c.next;
+				unlinkChunk(c);
+				setCursor(after, 0);
+			} else {
+				if (c.count < chunkCapacity / 2) {
+					if (c.next != null && c.count + c.next.count <= chunkCapacity) {
+						merge(c, c.next);
+					} else if (c.prev != null && c.prev.count + c.count <= chunkCapacity) {
+						Chunk<E> p = c.prev;
+						off += p.count;
+						merge(p, c);
+						c = p;
+					}
+				}
+				setCursor(c, off);
+			}
+			size--;
+			modCount++;
+			expectedModCount++;
+		}
+
+		/**
+		 * Sets the last element returned by next() or previous().
+		 *
+		 * @see java.util.ListIterator#set(java.lang.Object)
+		 * @throws IllegalStateException
+		 *             if next() or previous() have not been called or if add()
+		 *             or remove() have been called after the last
+		 *             next/previous call.
+		 */
+		@Override
+		public void set(E e) {
+			if (lastReturned == NONE) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			if (lastReturned == AT) {
+				chunk.set(offset, e);
+			} else if (offset > 0) {
+				chunk.set(offset - 1, e);
+			} else {
+				Chunk<E> c = (chunk == null) ? tail : chunk.prev;
+				c.set(c.count - 1, e);
+			}
+		}
+
+		/**
+		 * Move the cursor to the position before it.
+		 */
+		private void stepBack() {
+			if (offset > 0) {
+				offset--;
+			} else {
+				chunk = (chunk == null) ? tail : chunk.prev;
+				offset = chunk.count - 1;
+			}
+		}
+
+		/**
+		 * Move the cursor to position off of c, or to the start of the next
+		 * chunk if off is past the end of c.
+		 *
+		 * @param c
+		 * @param off
+		 */
+		private void setCursor(Chunk<E> c, int off) {
+			if (c != null && off == c.count) {
+				c = c.next;
+				off = 0;
+			}
+			chunk = c;
+			offset = off;
+		}
+
+		/**
+		 * @throws ConcurrentModificationException
+		 *             if the list was structurally modified by anything but
+		 *             this iterator.
+		 */
+		private void checkForComodification() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+	}
+
+	/* Fields */
+	private static final long serialVersionUID = 1L;
+	private static final int NONE = 0;
+	private static final int BEFORE = 1;
+	private static final int AT = 2;
+	/**
+	 * The number of elements each chunk holds if no capacity is given.
+	 */
+	public static final int DEFAULT_CHUNK_CAPACITY = 64;
+	private final int chunkCapacity;
+	private transient Chunk<E> head = null;
+	private transient Chunk<E> tail = null;
+	private transient int size = 0;
+
+	/* Constructors */
+	/**
+	 * Default constructor.
+	 */
+	public MyUnrolledLinkedList() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * Constructor which sets how many elements each chunk holds. Larger chunks
+	 * use less memory per element but move more elements on an insertion or
+	 * removal in the middle of a chunk.
+	 *
+	 * @param chunkCapacity
+	 *            The number of elements each chunk holds.
+	 * @throws IllegalArgumentException
+	 *             if chunkCapacity is less than 4.
+	 */
+	public MyUnrolledLinkedList(int chunkCapacity) {
+		super();
+		if (chunkCapacity < 4) {
+			throw new IllegalArgumentException("chunkCapacity: " + chunkCapacity);
+		}
+		this.chunkCapacity = chunkCapacity;
+	}
+
+	/**
+	 * Constructor which adds all of c to the new list.
+	 *
+	 * @param c
+	 *            Collection to add to list
+	 */
+	public MyUnrolledLinkedList(Collection<? extends E> c) {
+		this(DEFAULT_CHUNK_CAPACITY);
+		this.addAll(c);
+	}
+
+	/* Methods */
+	/**
+	 * Link c into the list after prev, or as the new head if prev is null.
+	 *
+	 * @param prev
+	 * @param c
+	 */
+	private void linkChunkAfter(Chunk<E> prev, Chunk<E> c) {
+		Chunk<E> next = (prev == null) ? head : prev.next;
+		c.prev = prev;
+		c.next = next;
+		if (prev == null) {
+			head = c;
+		} else {
+			prev.next = c;
+		}
+		if (next == null) {
+			tail = c;
+		} else {
+			next.prev = c;
+		}
+	}
+
+	/**
+	 * Unlink c from the list.
+	 *
+	 * @param c
+	 */
+	private void unlinkChunk(Chunk<E> c) {
+		if (c.prev == null) {
+			head = c.next;
+		} else {
+			c.prev.next = c.next;
+		}
+		if (c.next == null) {
+			tail = c.prev;
+		} else {
+			c.next.prev = c.prev;
+		}
+		c.prev = null;
+		c.next = null;
+	}
+
+	/**
+	 * Move the upper half of c into a new chunk linked after it.
+	 *
+	 * @param c
+	 *            A full chunk.
+	 * @return Chunk The new chunk.
+	 */
+	private Chunk<E> split(Chunk<E> c) {
+		Chunk<E> upper = new Chunk<E>(chunkCapacity);
+		int keep = c.count / 2;
+		int moved = c.count - keep;
+		System.arraycopy(c.items, c.start + keep, upper.items, 0, moved);
+		for (int i = c.start + keep; i < c.start + c.count; i++) {
+			c.items[i] = null;
+		}
+		upper.count = moved;
+		c.count = keep;
+		linkChunkAfter(c, upper);
+		return upper;
+	}
+
+	/**
+	 * Move all of the elements of next to the end of c and unlink next.
+	 *
+	 * @param c
+	 * @param next
+	 *            The chunk after c, which must fit in the rest of c.
+	 */
+	private void merge(Chunk<E> c, Chunk<E> next) {
+		if (c.start + c.count + next.count > c.items.length) {
+			c.compact();
+		}
+		System.arraycopy(next.items, next.start, c.items, c.start + c.count, next.count);
+		c.count += next.count;
+		unlinkChunk(next);
+	}
+
+	/**
+	 * Add an element to the end of the list.
+	 *
+	 * @see java.util.AbstractList#add(java.lang.Object)
+	 * @param e
+	 *            The element to add
+	 * @return true
+	 */
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Returns the element at index by skipping whole chunks from the nearer
+	 * end.
+	 *
+	 * @see java.util.AbstractSequentialList#get(int)
+	 * @param index
+	 *            The index of the element.
+	 * @return E The element at index.
+	 * @throws IndexOutOfBoundsException
+	 *             if index is less than 0 or not less than size.
+	 */
+	@Override
+	public E get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		MyUnrolledListIterator iter = new MyUnrolledListIterator(index);
+		return iter.chunk.get(iter.offset);
+	}
+
+	/**
+	 * Makes a ListIterator and moves its current position to i.
+	 *
+	 * @see java.util.AbstractSequentialList#listIterator(int)
+	 * @param i
+	 *            The index in the list to start the iterator at.
+	 * @return ListIterator The iterator starting at index i.
+	 */
+	@Override
+	public ListIterator<E> listIterator(int i) {
+		return new MyUnrolledListIterator(i);
+	}
+
+	/**
+	 * @see java.util.AbstractCollection#size()
+	 * @return The size of this list.
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every element by dropping all of the chunks.
+	 *
+	 * @see java.util.AbstractList#clear()
+	 */
+	@Override
+	public void clear() {
+		head = null;
+		tail = null;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Adds an element in front of the first element, using the free space at
+	 * the front of the head chunk when there is some.
+	 *
+	 * @see java.util.Deque#addFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addFirst(E e) {
+		Chunk<E> c = head;
+		if (c == null || c.isFull()) {
+			c = new Chunk<E>(chunkCapacity);
+			// Fill new chunks from the back so later addFirst calls don't shift
+			c.start = chunkCapacity;
+			linkChunkAfter(null, c);
+		}
+		if (c.start > 0) {
+			c.items[--c.start] = e;
+			c.count++;
+		} else {
+			c.insert(0, e);
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Adds an element after the last element, using the free space at the end
+	 * of the tail chunk when there is some.
+	 *
+	 * @see java.util.Deque#addLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void addLast(E e) {
+		Chunk<E> c = tail;
+		if (c == null || c.isFull()) {
+			c = new Chunk<E>(chunkCapacity);
+			linkChunkAfter(tail, c);
+		}
+		if (c.start + c.count < chunkCapacity) {
+			c.items[c.start + c.count] = e;
+			c.count++;
+		} else {
+			c.insert(c.count, e);
+		}
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Returns a wrapper for listIterator() that iterates backwards from the end
+	 * of the list.
+	 *
+	 * @see java.util.Deque#descendingIterator()
+	 * @return Iterator Traverses the list backwards.
+	 */
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new Iterator<E>() {
+			ListIterator<E> iter = listIterator(size);
+
+			@Override
+			public boolean hasNext() {
+				return iter.hasPrevious();
+			}
+
+			@Override
+			public E next() {
+				return iter.previous();
+			}
+
+			@Override
+			public void remove() {
+				iter.remove();
+			}
+		};
+	}
+
+	/**
+	 * Returns the first element.
+	 *
+	 * @see java.util.Deque#element()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	@Override
+	public E element() {
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		return head.get(0);
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#element}.
+	 *
+	 * @see java.util.Deque#getFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E getFirst() {
+		return element();
+	}
+
+	/**
+	 * Returns the last element.
+	 *
+	 * @see java.util.Deque#getLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if this list is empty.
+	 */
+	@Override
+	public E getLast() {
+		if (tail == null) {
+			throw new NoSuchElementException();
+		}
+		return tail.get(tail.count - 1);
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#addLast}.
+	 *
+	 * @see java.util.Deque#offer(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offer(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#addFirst}.
+	 *
+	 * @see java.util.Deque#offerFirst(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerFirst(E e) {
+		addFirst(e);
+		return true;
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#addLast}.
+	 *
+	 * @see java.util.Deque#offerLast(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 * @return true.
+	 */
+	@Override
+	public boolean offerLast(E e) {
+		addLast(e);
+		return true;
+	}
+
+	/**
+	 * Returns the first element or null if the list is empty.
+	 *
+	 * @see java.util.Deque#peek()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E peek() {
+		return head == null ? null : head.get(0);
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#peek}.
+	 *
+	 * @see java.util.Deque#peekFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E peekFirst() {
+		return peek();
+	}
+
+	/**
+	 * Returns the last element or null if the list is empty.
+	 *
+	 * @see java.util.Deque#peekLast()
+	 * @return E The tail of the list.
+	 */
+	@Override
+	public E peekLast() {
+		return tail == null ? null : tail.get(tail.count - 1);
+	}
+
+	/**
+	 * Returns and removes the first element or returns null if the list is
+	 * empty.
+	 *
+	 * @see java.util.Deque#poll()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E poll() {
+		if (head == null) {
+			return null;
+		}
+		Chunk<E> c = head;
+		E result = c.remove(0);
+		if (c.count == 0) {
+			unlinkChunk(c);
+		}
+		size--;
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#poll()}.
+	 *
+	 * @see java.util.Deque#pollFirst()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E pollFirst() {
+		return poll();
+	}
+
+	/**
+	 * Returns and removes the last element or returns null if the list is
+	 * empty.
+	 *
+	 * @see java.util.Deque#pollLast()
+	 * @return E The tail of the list.
+	 */
+	@Override
+	public E pollLast() {
+		if (tail == null) {
+			return null;
+		}
+		Chunk<E> c = tail;
+		E result = c.remove(c.count - 1);
+		if (c.count == 0) {
+			unlinkChunk(c);
+		}
+		size--;
+		modCount++;
+		return result;
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#removeFirst}.
+	 *
+	 * @see java.util.Deque#pop()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E pop() {
+		return removeFirst();
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#addFirst}.
+	 *
+	 * @see java.util.Deque#push(java.lang.Object)
+	 * @param e
+	 *            The element to add.
+	 */
+	@Override
+	public void push(E e) {
+		addFirst(e);
+	}
+
+	/**
+	 * Alias for {@link MyUnrolledLinkedList#removeFirst}.
+	 *
+	 * @see java.util.Deque#remove()
+	 * @return E The head of the list.
+	 */
+	@Override
+	public E remove() {
+		return removeFirst();
+	}
+
+	/**
+	 * Throws exception if the list is empty, otherwise this is an alias for
+	 * {@link MyUnrolledLinkedList#poll}.
+	 *
+	 * @see java.util.Deque#removeFirst()
+	 * @return E The head of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeFirst() {
+		if (head == null) {
+			throw new NoSuchElementException();
+		}
+		return poll();
+	}
+
+	/**
+	 * Removes the first element that equals o.
+	 *
+	 * @see java.util.Deque#removeFirstOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		Iterator<E> iter = iterator();
+		while (iter.hasNext()) {
+			E e = iter.next();
+			if (o == null ? e == null : o.equals(e)) {
+				iter.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Throws an exception if the list is empty, otherwise it is an alias for
+	 * {@link MyUnrolledLinkedList#pollLast}.
+	 *
+	 * @see java.util.Deque#removeLast()
+	 * @return E The tail of the list.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	@Override
+	public E removeLast() {
+		if (tail == null) {
+			throw new NoSuchElementException();
+		}
+		return pollLast();
+	}
+
+	/**
+	 * Removes the last element that equals o (the first while iterating
+	 * backwards from the tail).
+	 *
+	 * @see java.util.Deque#removeLastOccurrence(java.lang.Object)
+	 * @param o
+	 *            The element to remove.
+	 * @return boolean If the element was found and removed.
+	 */
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		Iterator<E> iter = descendingIterator();
+		while (iter.hasNext()) {
+			E e = iter.next();
+			if (o == null ? e == null : o.equals(e)) {
+				iter.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Does a shallow copy of this list into a new instance of
+	 * MyUnrolledLinkedList with the same chunk capacity.
+	 *
+	 * @see java.lang.Object#clone()
+	 * @return Object The new instance which is the clone.
+	 */
+	@Override
+	public Object clone() {
+		MyUnrolledLinkedList<E> result = new MyUnrolledLinkedList<E>(chunkCapacity);
+		for (Chunk<E> c = head; c != null; c = c.next) {
+			for (int i = 0; i < c.count; i++) {
+				result.addLast(c.get(i));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the size followed by the elements in order.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(size);
+		for (Chunk<E> c = head; c != null; c = c.next) {
+			for (int i = 0; i < c.count; i++) {
+				out.writeObject(c.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Reads the size and elements written by writeObject and refills the
+	 * chunks.
+	 *
+	 * @param in
+	 * @throws IOException
+	 *             if chunkCapacity or the size is out of range, or the
+	 *             stream can not be read.
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		// chunkCapacity comes from the stream and skipped the constructor's
+		// check
+		if (chunkCapacity < 4) {
+			throw new InvalidObjectException("chunkCapacity: " + chunkCapacity);
+		}
+		int n = in.readInt();
+		if (n < 0) {
+			throw new InvalidObjectException("negative size " + n);
+		}
+		for (int i = 0; i < n; i++) {
+			addLast((E) in.readObject());
+		}
+	}
+
+}
@@ -0,0 +1,325 @@
+package list;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list where every change returns a new version and leaves the
+ * old one as it was, so any number of versions can be kept and read.
+ * <p>
+ * A version is a banker's queue: a lazy front stream in order and a rear list
+ * in reverse order. push adds to the front and addLast to the rear, and when
+ * the rear grows longer than the front, the two are joined into a new front
+ * stream. That stream only reverses the rear once it is reached, and it
+ * remembers every cell it has computed, so the versions that share it pay for
+ * the reversal once. Versions share all of their cells except the ones that
+ * differ, so keeping thousands of versions costs memory for the changes and
+ * not thousands of copies of the list. push, peek, and pop of the stack take
+ * O(1) time and addLast and pollFirst of the queue take amortized O(1) time,
+ * even when old versions are used again.
+ * </p>
+ * <p>
+ * {@link #from(MyLinkedList)} takes an O(1) copy on write clone of the list
+ * and reads its nodes lazily, and {@link #toMyLinkedList()} hands those nodes
+ * back in O(1) time as long as the version has only had elements taken from
+ * its front. Any other version is copied in O(n) time. Versions can be read
+ * from several threads at once.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements stored in the list
+ */
+public final class PersistentLinkedList<E> extends AbstractCollection<E> {
+	/* Inner Classes */
+	/**
+	 * An immutable cell of the rear list.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the element stored in the Cell
+	 */
+	private static final class Cell<E> {
+		final E data;
+		final Cell<E> next;
+
+		Cell(E data, Cell<E> next) {
+			this.data = data;
+			this.next = next;
+		}
+
+	}
+
+	/**
+	 * A cell of a lazy stream that computes its element and the rest of the
+	 * stream the first time it is forced and keeps them from then on.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the element stored in the Stream
+	 */
+	private static final class Stream<E> {
+		// Until forced, the stream is front followed by the reverse of rear
+		private Stream<E> front;
+		private Cell<E> rear;
+		// Or the nodes of snapshot from node to its tail, kept after forcing
+		// so toMyLinkedList() can share them
+		final MyLinkedList<E> snapshot;
+		final MyLinkedList.Node<E> node;
+		// Set once forced
+		private boolean forced;
+		private E data;
+		private Stream<E> next;
+
+		private Stream(MyLinkedList<E> snapshot, MyLinkedList.Node<E> node) {
+			this.snapshot = snapshot;
+			this.node = node;
+		}
+
+		/**
+		 * @param data
+		 * @param next
+		 * @return Stream A forced cell holding data in front of next.
+		 */
+		static <E> Stream<E> cons(E data, Stream<E> next) {
+			Stream<E> s = new Stream<E>(null, null);
+			s.forced = true;
+			s.data = data;
+			s.next = next;
+			return s;
+		}
+
+		/**
+		 * @param front
+		 *            A stream, or null.
+		 * @param rear
+		 *            A list in reverse order that is not empty.
+		 * @return Stream A suspended stream of front followed by rear in
+		 *         order.
+		 */
+		static <E> Stream<E> append(Stream<E> front, Cell<E> rear) {
+			Stream<E> s = new Stream<E>(null, null);
+			s.front = front;
+			s.rear = rear;
+			return s;
+		}
+
+		/**
+		 * @param snapshot
+		 *            A list that nobody changes.
+		 * @param node
+		 *            A node of snapshot.
+		 * @return Stream A suspended stream of the elements from node to the
+		 *         tail of snapshot.
+		 */
+		static <E> Stream<E> over(MyLinkedList<E> snapshot, MyLinkedList.Node<E> node) {
+			return new Stream<E>(snapshot, node);
+		}
+
+		/**
+		 * Compute data and next if they have not been yet. Only the first
+		 * cell of a suspended append does the O(n) reversal of its rear.
+		 *
+		 * @return Stream this
+		 */
+		synchronized Stream<E> force() {
+			if (!forced) {
+				if (node != null) {
+					data = node.data;
+					next = (node.next == null) ? null : over(snapshot, node.next);
+				} else if (front == null) {
+					Stream<E> reversed = null;
+					for (Cell<E> c = rear; c != null; c = c.next) {
+						reversed = cons(c.data, reversed);
+					}
+					data = reversed.data;
+					next = reversed.next;
+				} else {
+					Stream<E> f = front.force();
+					data = f.data;
+					next = append(f.next, rear);
+				}
+				forced = true;
+				front = null;
+				rear = null;
+			}
+			return this;
+		}
+
+	}
+
+	/* Fields */
+	private static final PersistentLinkedList<Object> EMPTY = new PersistentLinkedList<Object>(null, 0, null, 0);
+	// Never shorter than rear, so it is only null when the list is empty
+	private final Stream<E> front;
+	private final int frontSize;
+	private final Cell<E> rear;
+	private final int rearSize;
+
+	/* Constructor */
+	private PersistentLinkedList(Stream<E> front, int frontSize, Cell<E> rear, int rearSize) {
+		this.front = front;
+		this.frontSize = frontSize;
+		this.rear = rear;
+		this.rearSize = rearSize;
+	}
+
+	/* Methods */
+	/**
+	 * @return PersistentLinkedList The empty list.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentLinkedList<E> empty() {
+		return (PersistentLinkedList<E>) EMPTY;
+	}
+
+	/**
+	 * Makes a persistent list of the elements of list in O(1) time. Later
+	 * changes to list make it copy its nodes instead of changing the ones this
+	 * reads.
+	 *
+	 * @see MyLinkedList#clone()
+	 * @param list
+	 * @return PersistentLinkedList A list of the elements list has now.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentLinkedList<E> from(MyLinkedList<E> list) {
+		MyLinkedList<E> snapshot = (MyLinkedList<E>) list.clone();
+		if (snapshot.isEmpty()) {
+			return empty();
+		}
+		return new PersistentLinkedList<E>(Stream.over(snapshot, snapshot.firstNode()), snapshot.size(), null,
+				0);
+	}
+
+	/**
+	 * Makes a MyLinkedList of the elements of this version. A version made by
+	 * {@link #from(MyLinkedList)} and then only popped shares its nodes with
+	 * the new list in O(1) time, and any other version is copied in O(n)
+	 * time.
+	 *
+	 * @return MyLinkedList A new list that can be changed freely.
+	 */
+	public MyLinkedList<E> toMyLinkedList() {
+		if (rear == null && front != null && front.node != null) {
+			return front.snapshot.cloneFrom(front.node, frontSize);
+		}
+		return new MyLinkedList<E>(this);
+	}
+
+	@Override
+	public int size() {
+		return frontSize + rearSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return front == null;
+	}
+
+	/**
+	 * @return E The first element, or null if the list is empty.
+	 */
+	public E peek() {
+		return (front == null) ? null : front.force().data;
+	}
+
+	/**
+	 * @param e
+	 * @return PersistentLinkedList This version with e added at the front.
+	 */
+	public PersistentLinkedList<E> push(E e) {
+		return new PersistentLinkedList<E>(Stream.cons(e, front), frontSize + 1, rear, rearSize);
+	}
+
+	/**
+	 * @return PersistentLinkedList This version without its first element.
+	 * @throws NoSuchElementException
+	 *             if the list is empty.
+	 */
+	public PersistentLinkedList<E> pop() {
+		if (front == null) {
+			throw new NoSuchElementException();
+		}
+		return check(front.force().next, frontSize - 1, rear, rearSize);
+	}
+
+	/**
+	 * @param e
+	 * @return PersistentLinkedList This version with e added at the end.
+	 */
+	public PersistentLinkedList<E> addLast(E e) {
+		return check(front, frontSize, new Cell<E>(e, rear), rearSize + 1);
+	}
+
+	/**
+	 * The queue form of {@link #pop()}, which returns the empty list itself
+	 * instead of throwing.
+	 *
+	 * @return PersistentLinkedList This version without its first element.
+	 */
+	public PersistentLinkedList<E> pollFirst() {
+		return (front == null) ? this : pop();
+	}
+
+	/**
+	 * @return Iterator An iterator over the elements from first to last.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private Stream<E> s = front;
+			// The elements of rear in order, filled once front runs out
+			private Object[] rest = null;
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return s != null || i < rearSize;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (s != null) {
+					Stream<E> cell = s.force();
+					s = cell.next;
+					return cell.data;
+				}
+				if (i >= rearSize) {
+					throw new NoSuchElementException();
+				}
+				if (rest == null) {
+					rest = new Object[rearSize];
+					int k = rearSize;
+					for (Cell<E> c = rear; c != null; c = c.next) {
+						rest[--k] = c.data;
+					}
+				}
+				return (E) rest[i++];
+			}
+		};
+	}
+
+	/**
+	 * Makes a version from its parts, moving rear into a new suspended front
+	 * if it has grown longer than front.
+	 *
+	 * @param front
+	 * @param frontSize
+	 * @param rear
+	 * @param rearSize
+	 * @return PersistentLinkedList The new version.
+	 */
+	private static <E> PersistentLinkedList<E> check(Stream<E> front, int frontSize, Cell<E> rear, int rearSize) {
+		if (rearSize <= frontSize) {
+			return new PersistentLinkedList<E>(front, frontSize, rear, rearSize);
+		}
+		return new PersistentLinkedList<E>(Stream.append(front, rear), frontSize + rearSize, null, 0);
+	}
+
+}
@@ -0,0 +1,242 @@
+package list;
+
+/**
+ * An indexable skip list laid over the Node chain of a MyLinkedList.
+ * <p>
+ * Each node is promoted to a random number of index levels, with one quarter
+ * of the nodes on each level promoted again to the level above it. Every entry
+ * stores the span, or the number of positions, to the entry on its right so a
+ * positional seek can skip whole runs of nodes and finish with a short walk
+ * of the Node links. Seeks, insertions, and removals all take O(log n)
+ * expected time. The owning list reports every insertion and removal with its
+ * position so the spans stay correct.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements stored in the indexed list
+ */
+final class SkipListIndex<E> {
+	/* Inner Classes */
+	/**
+	 * One level of a promoted node's tower. The sentinel entries at the left
+	 * of each level have a null node and sit before index 0.
+	 *
+	 * @author David Simmons
+	 *
+	 * @param <E>
+	 *            The type of the elements stored in the indexed list
+	 */
+	static final class Entry<E> {
+		final MyLinkedList.Node<E> node;
+		Entry<E> right;
+		Entry<E> down;
+		// Positions from this entry to right, or to the end of the list when
+		// right is null
+		int span;
+
+		Entry(MyLinkedList.Node<E> node, Entry<E> down, int span) {
+			this.node = node;
+			this.down = down;
+			this.span = span;
+		}
+	}
+
+	/* Fields */
+	// randomLevel() can not go past 15 with a 32 bit seed
+	private static final int MAX_LEVEL = 16;
+	// The sentinel of the highest level, or null if no node is promoted
+	private Entry<E> top = null;
+	private int height = 0;
+	private int size = 0;
+	private int seed = 0x2545F491;
+	// Scratch space for the entries before a position on each level
+	private final Entry<E>[] update;
+	private final int[] rank = new int[MAX_LEVEL + 1];
+
+	/* Constructor */
+	/**
+	 * Builds the index over an existing chain in one pass.
+	 *
+	 * @param head
+	 *            The first node of the chain or null if it is empty.
+	 * @param size
+	 *            The number of nodes in the chain.
+	 */
+	@SuppressWarnings("unchecked")
+	SkipListIndex(MyLinkedList.Node<E> head, int size) {
+		update = (Entry<E>[]) new Entry<?>[MAX_LEVEL + 1];
+		Entry<E>[] last = update;
+		int pos = 0;
+		for (MyLinkedList.Node<E> x = head; x != null; x = x.next) {
+			int level = randomLevel();
+			growTo(level, 0);
+			Entry<E> below = null;
+			for (int l = 1; l <= level; l++) {
+				Entry<E> e = new Entry<E>(x, below, 0);
+				last[l].right = e;
+				last[l].span = pos - rank[l];
+				last[l] = e;
+				rank[l] = pos;
+				below = e;
+			}
+			pos++;
+		}
+		for (int l = 1; l <= height; l++) {
+			last[l].span = size - rank[l];
+		}
+		this.size = size;
+	}
+
+	/* Methods */
+	/**
+	 * Find the node at index by skipping along the index levels and walking
+	 * the rest of the way along the Node links.
+	 *
+	 * @param index
+	 *            The index of the node, which must be in bounds.
+	 * @param head
+	 *            The head of the indexed list.
+	 * @return Node The node at index.
+	 */
+	MyLinkedList.Node<E> node(int index, MyLinkedList.Node<E> head) {
+		int pos = -1;
+		Entry<E> x = top;
+		while (x != null) {
+			while (x.right != null && pos + x.span <= index) {
+				pos += x.span;
+				x = x.right;
+			}
+			if (pos == index) {
+				return x.node;
+			}
+			if (x.down == null) {
+				break;
+			}
+			x = x.down;
+		}
+		MyLinkedList.Node<E> n;
+		if (pos < 0) {
+			n = head;
+			pos = 0;
+		} else {
+			n = x.node;
+		}
+		for (; pos < index; pos++) {
+			n = n.next;
+		}
+		return n;
+	}
+
+	/**
+	 * Record that node was linked into the list at index.
+	 *
+	 * @param index
+	 *            The index of the new node.
+	 * @param node
+	 *            The new node.
+	 */
+	void inserted(int index, MyLinkedList.Node<E> node) {
+		int level = randomLevel();
+		findBefore(index);
+		growTo(level, size + 1);
+		Entry<E> below = null;
+		for (int l = 1; l <= height; l++) {
+			Entry<E> x = update[l];
+			if (l <= level) {
+				Entry<E> e = new Entry<E>(node, below, rank[l] + x.span + 1 - index);
+				e.right = x.right;
+				x.right = e;
+				x.span = index - rank[l];
+				below = e;
+			} else {
+				x.span++;
+			}
+		}
+		size++;
+	}
+
+	/**
+	 * Record that node was unlinked from the list at index.
+	 *
+	 * @param index
+	 *            The index the node had.
+	 * @param node
+	 *            The removed node.
+	 */
+	void removed(int index, MyLinkedList.Node<E> node) {
+		findBefore(index);
+		for (int l = 1; l <= height; l++) {
+			Entry<E> x = update[l];
+			if (x.right != null && x.right.node == node) {
+				x.span += x.right.span - 1;
+				x.right = x.right.right;
+			} else {
+				x.span--;
+			}
+		}
+		size--;
+		while (top != null && top.right == null) {
+			top = top.down;
+			height--;
+		}
+	}
+
+	/**
+	 * Fill update and rank with the last entry before index on each level and
+	 * its position.
+	 *
+	 * @param index
+	 */
+	private void findBefore(int index) {
+		int pos = -1;
+		Entry<E> x = top;
+		for (int l = height; l > 0; l--) {
+			while (x.right != null && pos + x.span < index) {
+				pos += x.span;
+				x = x.right;
+			}
+			update[l] = x;
+			rank[l] = pos;
+			x = x.down;
+		}
+	}
+
+	/**
+	 * Add sentinel levels until there are at least level of them. The new
+	 * levels are also recorded as the entries before any position.
+	 *
+	 * @param level
+	 * @param span
+	 *            The span of the new sentinels.
+	 */
+	private void growTo(int level, int span) {
+		while (height < level) {
+			top = new Entry<E>(null, top, span);
+			height++;
+			update[height] = top;
+			rank[height] = -1;
+		}
+	}
+
+	/**
+	 * @return int A level from 0 to MAX_LEVEL that is at least l with
+	 *         probability 4^-l.
+	 */
+	private int randomLevel() {
+		// xorshift to avoid the synchronization in java.util.Random
+		int r = seed;
+		r ^= r << 13;
+		r ^= r >>> 17;
+		r ^= r << 5;
+		seed = r;
+		int level = 0;
+		while ((r & 3) == 0 && level < MAX_LEVEL) {
+			level++;
+			r >>>= 2;
+		}
+		return level;
+	}
+
+}
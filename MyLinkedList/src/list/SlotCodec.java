@@ -0,0 +1,104 @@
+package list;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from a fixed number of bytes so they can be stored
+ * in the slots of {@link MyOffHeapLinkedList}.
+ * <p>
+ * Implementations read and write with the absolute get and put methods of
+ * ByteBuffer so they never move the buffer's position.
+ * </p>
+ *
+ * @author David Simmons (GitHub: davsim1)
+ *
+ * @param <E>
+ *            The type of the elements to convert
+ */
+public interface SlotCodec<E> {
+	/**
+	 * Stores Integer elements in 4 bytes.
+	 */
+	SlotCodec<Integer> INTEGER = new SlotCodec<Integer>() {
+		@Override
+		public int size() {
+			return 4;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Integer e) {
+			buffer.putInt(offset, e);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer, int offset) {
+			return buffer.getInt(offset);
+		}
+	};
+
+	/**
+	 * Stores Long elements in 8 bytes.
+	 */
+	SlotCodec<Long> LONG = new SlotCodec<Long>() {
+		@Override
+		public int size() {
+			return 8;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Long e) {
+			buffer.putLong(offset, e);
+		}
+
+		@Override
+		public Long read(ByteBuffer buffer, int offset) {
+			return buffer.getLong(offset);
+		}
+	};
+
+	/**
+	 * Stores Double elements in 8 bytes.
+	 */
+	SlotCodec<Double> DOUBLE = new SlotCodec<Double>() {
+		@Override
+		public int size() {
+			return 8;
+		}
+
+		@Override
+		public void write(ByteBuffer buffer, int offset, Double e) {
+			buffer.putDouble(offset, e);
+		}
+
+		@Override
+		public Double read(ByteBuffer buffer, int offset) {
+			return buffer.getDouble(offset);
+		}
+	};
+
+	/**
+	 * @return int The number of bytes every element takes, at most 32759 so
+	 *         a chunk of 65536 slots fits in an int of bytes.
+	 */
+	int size();
+
+	/**
+	 * Store e in the size() bytes of buffer starting at offset.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @param e
+	 *            The element to store, never null.
+	 */
+	void write(ByteBuffer buffer, int offset, E e);
+
+	/**
+	 * Read an element from the size() bytes of buffer starting at offset.
+	 *
+	 * @param buffer
+	 * @param offset
+	 * @return E The element stored there.
+	 */
+	E read(ByteBuffer buffer, int offset);
+
+}
@@ -1,13 +1,43 @@
 package list;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * A Class to test MyLinkedList.
@@ -23,10 +53,11 @@ import java.util.Random;
 public class Tester {
 	/**
 	 * An instance of my class MyLinkedList which I coded from scratch looking
-	 * just at the Oracle specification (not the original source code). Parallel
-	 * to {@link Tester#list}.
+	 * just at the Oracle specification (not the original source code), or of
+	 * another implementation from {@link Tester#implementations()} while its
+	 * randomized tests run. Parallel to {@link Tester#list}.
 	 */
-	public static MyLinkedList<Integer> myList = new MyLinkedList<Integer>();
+	public static ListDeque<Integer> myList = new MyLinkedList<Integer>();
 	/**
 	 * An instance of LinkedList. Parallel to {@link Tester#myList}.
 	 */
@@ -59,53 +90,82 @@ public class Tester {
 		test4();
 		test5();
 		test6();
-		numTests += 6;
+		test7();
+		test10();
+		test11();
+		test12();
+		test13();
+		test14();
+		test15();
+		test16();
+		test17();
+		test18();
+		test19();
+		test20();
+		test21();
+		test22();
+		test23();
+		test24();
+		test25();
+		test26();
+		test27();
+		test28();
+		test29();
+		numTests += 27;
 
-		// Try many repetitions of randomized tests to make a thorough test
-		// suite.
-		for (int i = 0; i < 500; i++) {
-			trace.clear();
-			populate();
-			/*
-			 * System.out.println("   populate My list: " + myList);
-			 * System.out.println("populate Other list: " + list);
-			 */
-			// Run all the tests for this set of data
-			for (int j = 1; j <= 39; j++) {
-				doMethod(j);
-				numTests++;
-			}
-
-			// Reset the lists and run tests in a random order to cover the
-			// range of possibilities because order matters with these tests
-			populate();
-			/*
-			 * System.out.println("   populate My list: " + myList);
-			 * System.out.println("populate Other list: " + list);
-			 */
-			for (int j = 0; j < 750; j++) {
-				randTest = rand.nextInt(38) + 1;
-				trace.push(randTest);
-				myPrevList = myOrigList;
-				prevList = origList;
-				myOrigList = myList.clone();
-				origList = list.clone();
-				try {
-					doMethod(randTest);
+		// Run the iterator and randomized tests against every implementation
+		for (ListDeque<Integer> impl : implementations()) {
+			myList = impl;
+			test8();
+			test9();
+			numTests += 2;
+
+			// Try many repetitions of randomized tests to make a thorough test
+			// suite.
+			for (int i = 0; i < 500; i++) {
+				trace.clear();
+				populate();
+				/*
+				 * System.out.println("   populate My list: " + myList);
+				 * System.out.println("populate Other list: " + list);
+				 */
+				// Run all the tests for this set of data
+				for (int j = 1; j <= 39; j++) {
+					doMethod(j);
 					numTests++;
-				} catch (Exception e) {
-					/*
-					 * System.out.println("Test sequence" + trace);
-					 * System.out.println("prev my list    " +
-					 * (MyLinkedList<Integer>)myPrevList); System.out.println(
-					 * "prev other list " + (LinkedList<Integer>)prevList);
-					 * System.out.println("original my list    " +
-					 * (MyLinkedList<Integer>)myOrigList); System.out.println(
-					 * "original other list " + (LinkedList<Integer>)origList);
-					 * System.out.println("   My list: " + myList);
-					 * System.out.println("Other list: " + list);
-					 */
-					throw e;
+				}
+
+				// Reset the lists and run tests in a random order to cover the
+				// range of possibilities because order matters with these tests
+				populate();
+				/*
+				 * System.out.println("   populate My list: " + myList);
+				 * System.out.println("populate Other list: " + list);
+				 */
+				for (int j = 0; j < 750; j++) {
+					randTest = rand.nextInt(38) + 1;
+					trace.push(randTest);
+					myPrevList = myOrigList;
+					prevList = origList;
+					myOrigList = myList.clone();
+					origList = list.clone();
+					try {
+						doMethod(randTest);
+						numTests++;
+					} catch (Exception e) {
+						/*
+						 * System.out.println("Test sequence" + trace);
+						 * System.out.println("prev my list    " +
+						 * (MyLinkedList<Integer>)myPrevList); System.out.println(
+						 * "prev other list " + (LinkedList<Integer>)prevList);
+						 * System.out.println("original my list    " +
+						 * (MyLinkedList<Integer>)myOrigList); System.out.println(
+						 * "original other list " + (LinkedList<Integer>)origList);
+						 * System.out.println("   My list: " + myList);
+						 * System.out.println("Other list: " + list);
+						 */
+						throw e;
+					}
 				}
 			}
 		}
@@ -114,6 +174,21 @@ public class Tester {
 	}
 
 	/* Methods */
+	/**
+	 * @return List Empty instances of every ListDeque implementation to run
+	 *         the randomized tests against.
+	 */
+	public static List<ListDeque<Integer>> implementations() {
+		List<ListDeque<Integer>> result = new ArrayList<ListDeque<Integer>>();
+		result.add(new MyLinkedList<Integer>());
+		// A small chunk capacity so the random lists split and merge chunks
+		result.add(new MyUnrolledLinkedList<Integer>(4));
+		result.add(new MyIntLinkedList());
+		// A small capacity so the random lists grow and reuse free slots
+		result.add(new MyArrayLinkedList<Integer>(2));
+		return result;
+	}
+
 	/**
 	 * Clear myList and list and add the same 10 random integers to each.
 	 * 
@@ -297,6 +372,2322 @@ public class Tester {
 		assertSame(my, their);
 	}
 
+	/**
+	 * Test the Deque operations on either end with null elements, which must
+	 * be unlinked like any other element.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test7() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		my.offer(null);
+		their.offer(null);
+		my.push(1);
+		their.push(1);
+		my.offerLast(null);
+		their.offerLast(null);
+		assertSame(my, their);
+		assertTrue(my.pollLast() == their.pollLast());
+		assertTrue(my.pop().equals(their.pop()));
+		assertTrue(my.poll() == their.poll());
+		assertTrue(my.isEmpty() && my.peekFirst() == null && my.peekLast() == null);
+		assertTrue(my.poll() == null && my.pollLast() == null);
+		my.addLast(2);
+		their.addLast(2);
+		my.addFirst(3);
+		their.addFirst(3);
+		assertTrue(my.removeLast().equals(their.removeLast()));
+		assertTrue(my.removeFirst().equals(their.removeFirst()));
+		assertSame(my, their);
+	}
+
+	/**
+	 * Test a listIterator started at a random index that changes direction
+	 * and adds, removes, and sets at random.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test8() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			populate();
+			int start = rand.nextInt(list.size() + 1);
+			ListIterator<Integer> myIter = myList.listIterator(start);
+			ListIterator<Integer> iter = list.listIterator(start);
+			boolean canAlter = false;
+			for (int j = 0; j < 50; j++) {
+				assertTrue(myIter.nextIndex() == iter.nextIndex());
+				assertTrue(myIter.hasNext() == iter.hasNext());
+				assertTrue(myIter.hasPrevious() == iter.hasPrevious());
+				switch (rand.nextInt(5)) {
+				case 0:
+					if (iter.hasNext()) {
+						assertTrue(myIter.next().equals(iter.next()));
+						canAlter = true;
+					}
+					break;
+				case 1:
+					if (iter.hasPrevious()) {
+						assertTrue(myIter.previous().equals(iter.previous()));
+						canAlter = true;
+					}
+					break;
+				case 2:
+					myIter.add(j);
+					iter.add(j);
+					canAlter = false;
+					break;
+				case 3:
+					if (canAlter) {
+						myIter.remove();
+						iter.remove();
+						canAlter = false;
+					}
+					break;
+				default:
+					if (canAlter) {
+						myIter.set(-j);
+						iter.set(-j);
+					}
+				}
+				assertSame(myList, list);
+			}
+		}
+	}
+
+	/**
+	 * Test positional access in ascending and descending index loops mixed
+	 * with positional adds and removes, which reuse the last seek position.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test9() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			populate();
+			for (int j = 0; j < list.size(); j++) {
+				assertTrue(myList.get(j).equals(list.get(j)));
+				if (rand.nextInt(4) == 0) {
+					assertTrue(myList.remove(j).equals(list.remove(j)));
+				} else if (rand.nextInt(4) == 0) {
+					myList.add(j, -j);
+					list.add(j, -j);
+				}
+			}
+			for (int j = list.size() - 1; j >= 0; j--) {
+				assertTrue(myList.set(j, j).equals(list.set(j, j)));
+				if (rand.nextInt(4) == 0) {
+					myList.addFirst(j);
+					list.addFirst(j);
+				}
+			}
+			assertSame(myList, list);
+		}
+	}
+
+	/**
+	 * Test random positional and end operations on a list large enough for
+	 * the skip list index to be used for seeks.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test10() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			my.add(i);
+			their.add(i);
+		}
+		my.setIndexed(true);
+		assertTrue(my.isIndexed());
+		for (int i = 0; i < 20000; i++) {
+			int idx = rand.nextInt(their.size() + 1);
+			switch (rand.nextInt(6)) {
+			case 0:
+				my.add(idx, i);
+				their.add(idx, i);
+				break;
+			case 1:
+				if (idx < their.size()) {
+					assertTrue(my.remove(idx).equals(their.remove(idx)));
+				}
+				break;
+			case 2:
+				my.addFirst(i);
+				their.addFirst(i);
+				my.addLast(-i);
+				their.addLast(-i);
+				break;
+			case 3:
+				if (their.size() > 2) {
+					assertTrue(my.pollFirst().equals(their.pollFirst()));
+					assertTrue(my.pollLast().equals(their.pollLast()));
+				}
+				break;
+			case 4:
+				ListIterator<Integer> myIter = my.listIterator(idx);
+				ListIterator<Integer> iter = their.listIterator(idx);
+				myIter.add(i);
+				iter.add(i);
+				if (iter.hasNext()) {
+					assertTrue(myIter.next().equals(iter.next()));
+					myIter.remove();
+					iter.remove();
+				}
+				break;
+			default:
+				if (idx < their.size()) {
+					assertTrue(my.get(idx).equals(their.get(idx)));
+				}
+			}
+		}
+		assertSame(my, their);
+		my.clear();
+		their.clear();
+		for (int i = 0; i < 100; i++) {
+			my.add(i);
+			their.add(i);
+		}
+		assertTrue(my.get(60).equals(their.get(60)));
+		my.setIndexed(false);
+		assertSame(my, their);
+	}
+
+	/**
+	 * Test that nodes reused from the node pool hold the right data and links
+	 * through queue churn, iterator removals, and clear().
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test11() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		my.setNodePoolCapacity(8);
+		my.ensureCapacity(32);
+		assertTrue(my.getNodePoolCapacity() == 32);
+		for (int i = 0; i < 5000; i++) {
+			switch (rand.nextInt(4)) {
+			case 0:
+				my.offer(i);
+				their.offer(i);
+				my.push(-i);
+				their.push(-i);
+				break;
+			case 1:
+				assertTrue(Objects.equals(my.poll(), their.poll()));
+				break;
+			case 2:
+				assertTrue(Objects.equals(my.pollLast(), their.pollLast()));
+				break;
+			default:
+				Iterator<Integer> myIter = my.iterator();
+				Iterator<Integer> iter = their.iterator();
+				while (iter.hasNext()) {
+					assertTrue(myIter.next().equals(iter.next()));
+					if (rand.nextInt(8) == 0) {
+						myIter.remove();
+						iter.remove();
+					}
+				}
+			}
+			if (i % 1000 == 0) {
+				my.clear();
+				their.clear();
+			}
+			assertTrue(my.size() == their.size());
+		}
+		assertSame(my, their);
+		my.setNodePoolCapacity(0);
+		assertSame(my, their);
+	}
+
+	/**
+	 * Test the unboxed methods of MyIntLinkedList, MyLongLinkedList, and
+	 * MyDoubleLinkedList against MyLinkedList with the boxed types, including
+	 * extreme values, NaN, and -0.0, that they serialize, and that they keep
+	 * the same methods.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test12() throws Exception {
+		MyIntLinkedList ints = new MyIntLinkedList();
+		MyLongLinkedList longs = new MyLongLinkedList();
+		MyDoubleLinkedList doubles = new MyDoubleLinkedList();
+		MyLinkedList<Integer> myInts = new MyLinkedList<Integer>();
+		MyLinkedList<Long> myLongs = new MyLinkedList<Long>();
+		MyLinkedList<Double> myDoubles = new MyLinkedList<Double>();
+		for (int i = 0; i < 5000; i++) {
+			int v = rand.nextInt(10);
+			switch (rand.nextInt(7)) {
+			case 0:
+				ints.addLast(v);
+				longs.addLast(v);
+				doubles.addLast(v);
+				myInts.addLast(v);
+				myLongs.addLast((long) v);
+				myDoubles.addLast((double) v);
+				break;
+			case 1:
+				ints.push(v);
+				longs.push(v);
+				doubles.push(v);
+				myInts.push(v);
+				myLongs.push((long) v);
+				myDoubles.push((double) v);
+				break;
+			case 2:
+				assertTrue(ints.pollFirstInt(-1) == (myInts.isEmpty() ? -1 : myInts.pollFirst()));
+				assertTrue(longs.pollFirstLong(-1) == (myLongs.isEmpty() ? -1 : myLongs.pollFirst()));
+				assertTrue(doubles.pollFirstDouble(-1) == (myDoubles.isEmpty() ? -1 : myDoubles.pollFirst()));
+				break;
+			case 3:
+				assertTrue(ints.pollLastInt(-1) == (myInts.isEmpty() ? -1 : myInts.pollLast()));
+				assertTrue(longs.pollLastLong(-1) == (myLongs.isEmpty() ? -1 : myLongs.pollLast()));
+				assertTrue(doubles.pollLastDouble(-1) == (myDoubles.isEmpty() ? -1 : myDoubles.pollLast()));
+				break;
+			case 4:
+				assertTrue(ints.contains(v) == myInts.contains(v));
+				assertTrue(longs.indexOf((long) v) == myLongs.indexOf((long) v));
+				assertTrue(doubles.lastIndexOf((double) v) == myDoubles.lastIndexOf((double) v));
+				break;
+			case 5:
+				assertTrue(ints.removeFirstOccurrence(v) == myInts.removeFirstOccurrence(v));
+				assertTrue(longs.removeFirstOccurrence((long) v) == myLongs.removeFirstOccurrence((long) v));
+				assertTrue(doubles.removeLastOccurrence((double) v) == myDoubles
+						.removeLastOccurrence((double) v));
+				break;
+			default:
+				// The lists of each type hold different values by now
+				if (!myInts.isEmpty()) {
+					int idx = rand.nextInt(myInts.size());
+					assertTrue(ints.setInt(idx, v) == myInts.set(idx, v));
+				}
+				if (!myLongs.isEmpty()) {
+					int idx = rand.nextInt(myLongs.size());
+					assertTrue(longs.getLong(idx) == myLongs.get(idx));
+					assertTrue(longs.removeLong(idx) == myLongs.remove(idx));
+				}
+				if (!myDoubles.isEmpty()) {
+					int idx = rand.nextInt(myDoubles.size());
+					doubles.addDouble(idx, v);
+					myDoubles.add(idx, (double) v);
+				}
+			}
+			assertSame(ints, myInts);
+			assertSame(longs, myLongs);
+			assertSame(doubles, myDoubles);
+		}
+		long sum = 0;
+		for (Integer e : myInts) {
+			sum += e;
+		}
+		assertTrue(ints.intStream().sum() == sum);
+		sum = 0;
+		for (Long e : myLongs) {
+			sum += e;
+		}
+		assertTrue(longs.longStream().sum() == sum);
+		assertTrue(doubles.doubleStream().count() == myDoubles.size());
+		assertTrue(ints.toIntArray().length == myInts.size());
+		try {
+			ints.add((Integer) null);
+			assertTrue(false);
+		} catch (NullPointerException e) {
+			// pass
+		}
+
+		// Each list serializes as its values
+		for (List<?> list : Arrays.<List<?>>asList(ints, longs, doubles)) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(list);
+			out.close();
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+			List<?> copy = (List<?>) in.readObject();
+			assertTrue(copy.getClass() == list.getClass() && copy.equals(list));
+		}
+
+		// Values far from 0-9, and doubles that == gets wrong: NaN equals
+		// itself and -0.0 is not 0.0, as in Double.equals
+		int[] someInts = { 0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, -123456789 };
+		long[] someLongs = { 0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40, -(1L << 40) };
+		double[] someDoubles = { 0.0, -0.0, Double.NaN, -Double.NaN, Double.MAX_VALUE, -Double.MAX_VALUE,
+				Double.MIN_VALUE, Double.NEGATIVE_INFINITY, 1e300, -1e-300 };
+		ints.clear();
+		longs.clear();
+		doubles.clear();
+		myInts.clear();
+		myLongs.clear();
+		myDoubles.clear();
+		for (int i = 0; i < 3000; i++) {
+			int vi = someInts[rand.nextInt(someInts.length)];
+			long vl = someLongs[rand.nextInt(someLongs.length)];
+			double vd = someDoubles[rand.nextInt(someDoubles.length)];
+			switch (rand.nextInt(4)) {
+			case 0:
+				ints.addLast(vi);
+				longs.addLast(vl);
+				doubles.addLast(vd);
+				myInts.addLast(vi);
+				myLongs.addLast(vl);
+				myDoubles.addLast(vd);
+				break;
+			case 1:
+				assertTrue(ints.indexOf((Object) vi) == myInts.indexOf(vi)
+						&& ints.indexOf(vi) == myInts.indexOf(vi));
+				assertTrue(longs.lastIndexOf((Object) vl) == myLongs.lastIndexOf(vl)
+						&& longs.lastIndexOf(vl) == myLongs.lastIndexOf(vl));
+				assertTrue(doubles.indexOf((Object) vd) == myDoubles.indexOf(vd)
+						&& doubles.indexOf(vd) == myDoubles.indexOf(vd));
+				assertTrue(doubles.lastIndexOf(vd) == myDoubles.lastIndexOf(vd));
+				break;
+			case 2:
+				assertTrue(ints.contains((Object) vi) == myInts.contains(vi)
+						&& ints.contains(vi) == myInts.contains(vi));
+				assertTrue(longs.contains(vl) == myLongs.contains(vl));
+				assertTrue(doubles.contains((Object) vd) == myDoubles.contains(vd)
+						&& doubles.contains(vd) == myDoubles.contains(vd));
+				break;
+			default:
+				assertTrue(ints.remove((Object) vi) == myInts.remove((Object) vi));
+				assertTrue(longs.remove((Object) vl) == myLongs.remove((Object) vl));
+				if (rand.nextBoolean()) {
+					assertTrue(doubles.remove((Object) vd) == myDoubles.remove((Object) vd));
+				} else {
+					assertTrue(doubles.removeLastOccurrence(vd) == myDoubles.removeLastOccurrence(vd));
+				}
+			}
+			assertSame(ints, myInts);
+			assertSame(longs, myLongs);
+			assertSame(doubles, myDoubles);
+		}
+		assertTrue(!new MyDoubleLinkedList(0.0).contains(-0.0));
+		assertTrue(new MyDoubleLinkedList(Double.NaN).contains(Double.NaN));
+
+		// The three lists are copies of one another with the type changed, so
+		// they must keep the same methods
+		for (Class<?> other : new Class<?>[] { MyLongLinkedList.class, MyDoubleLinkedList.class }) {
+			String type = other.getSimpleName().substring(2, other.getSimpleName().indexOf("Linked"));
+			HashSet<String> expected = new HashSet<String>();
+			HashSet<String> actual = new HashSet<String>();
+			for (Method m : MyIntLinkedList.class.getDeclaredMethods()) {
+				expected.add(m.getName().replace("Int", type).replace("int", type.toLowerCase()) + "/"
+						+ m.getParameterCount());
+			}
+			for (Method m : other.getDeclaredMethods()) {
+				actual.add(m.getName() + "/" + m.getParameterCount());
+			}
+			assertTrue(expected.equals(actual));
+		}
+	}
+
+	/**
+	 * Test MyOffHeapLinkedList against LinkedList with random deque operations
+	 * and iterator removes, enough elements to need a second chunk, reuse of
+	 * free slots, close(), slots given back when a codec fails, and too big
+	 * slots.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test13() throws Exception {
+		MyOffHeapLinkedList<Integer> my = new MyOffHeapLinkedList<Integer>(SlotCodec.INTEGER);
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		for (int i = 0; i < 5000; i++) {
+			switch (rand.nextInt(6)) {
+			case 0:
+				my.offer(i);
+				their.offer(i);
+				break;
+			case 1:
+				my.push(-i);
+				their.push(-i);
+				break;
+			case 2:
+				assertTrue(Objects.equals(my.poll(), their.poll()));
+				break;
+			case 3:
+				assertTrue(Objects.equals(my.pollLast(), their.pollLast()));
+				assertTrue(Objects.equals(my.peekFirst(), their.peekFirst()));
+				break;
+			case 4:
+				Integer o = Integer.valueOf(rand.nextInt(2 * i + 1) - i);
+				assertTrue(my.removeLastOccurrence(o) == their.removeLastOccurrence(o));
+				break;
+			default:
+				boolean descending = rand.nextBoolean();
+				Iterator<Integer> myIter = descending ? my.descendingIterator() : my.iterator();
+				Iterator<Integer> iter = descending ? their.descendingIterator() : their.iterator();
+				while (iter.hasNext()) {
+					assertTrue(myIter.next().equals(iter.next()));
+					if (rand.nextInt(8) == 0) {
+						myIter.remove();
+						iter.remove();
+					}
+				}
+				assertTrue(!myIter.hasNext());
+			}
+			assertTrue(my.size() == their.size());
+		}
+		assertTrue(my.toString().equals(their.toString()));
+
+		// Cross into the second chunk, then cycle without growing
+		my.clear();
+		their.clear();
+		for (int i = 0; i < MyOffHeapLinkedList.CHUNK_SLOTS + 10; i++) {
+			my.addLast(i);
+			their.addLast(i);
+		}
+		long bytes = my.allocatedBytes();
+		for (int i = 0; i < 100000; i++) {
+			my.addLast(my.removeFirst());
+			their.addLast(their.removeFirst());
+		}
+		assertTrue(my.allocatedBytes() == bytes);
+		Iterator<Integer> myIter = my.descendingIterator();
+		Iterator<Integer> iter = their.descendingIterator();
+		while (iter.hasNext()) {
+			assertTrue(myIter.next().equals(iter.next()));
+		}
+		assertTrue(!myIter.hasNext());
+
+		my.close();
+		assertTrue(my.isEmpty() && my.allocatedBytes() == 0);
+		try {
+			my.add(1);
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+			// pass
+		}
+
+		// A slot whose element fails to be written is given back
+		SlotCodec<Integer> positive = new SlotCodec<Integer>() {
+			@Override
+			public int size() {
+				return 4;
+			}
+
+			@Override
+			public void write(ByteBuffer buffer, int offset, Integer e) {
+				if (e < 0) {
+					throw new IllegalArgumentException();
+				}
+				buffer.putInt(offset, e);
+			}
+
+			@Override
+			public Integer read(ByteBuffer buffer, int offset) {
+				return buffer.getInt(offset);
+			}
+		};
+		my = new MyOffHeapLinkedList<Integer>(positive);
+		for (int i = 0; i < MyOffHeapLinkedList.CHUNK_SLOTS - 1; i++) {
+			my.addLast(i);
+		}
+		bytes = my.allocatedBytes();
+		my.removeFirst();
+		for (int i = 0; i < 3; i++) {
+			try {
+				my.addFirst(-1);
+				assertTrue(false);
+			} catch (IllegalArgumentException e) {
+				// pass
+			}
+		}
+		my.addFirst(0);
+		my.addLast(MyOffHeapLinkedList.CHUNK_SLOTS);
+		assertTrue(my.allocatedBytes() == bytes && my.size() == MyOffHeapLinkedList.CHUNK_SLOTS);
+		assertTrue(my.getFirst() == 0 && my.getLast() == MyOffHeapLinkedList.CHUNK_SLOTS);
+
+		// A chunk of slots this big would not fit in an int of bytes
+		try {
+			new MyOffHeapLinkedList<Integer>(new SlotCodec<Integer>() {
+				@Override
+				public int size() {
+					return 1 << 15;
+				}
+
+				@Override
+				public void write(ByteBuffer buffer, int offset, Integer e) {
+				}
+
+				@Override
+				public Integer read(ByteBuffer buffer, int offset) {
+					return 0;
+				}
+			});
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	/**
+	 * Test MyArrayLinkedList.compact() between random insertions and removals,
+	 * that it invalidates open iterators, and that reading a damaged size
+	 * fails, or a damaged chunk capacity for MyUnrolledLinkedList.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test14() throws Exception {
+		MyArrayLinkedList<Integer> my = new MyArrayLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			int idx = rand.nextInt(their.size() + 1);
+			switch (rand.nextInt(5)) {
+			case 0:
+			case 1:
+				my.add(idx, i);
+				their.add(idx, i);
+				break;
+			case 2:
+				if (idx < their.size()) {
+					assertTrue(my.remove(idx).equals(their.remove(idx)));
+				}
+				break;
+			case 3:
+				my.compact();
+				for (int j = 0; j < their.size(); j++) {
+					assertTrue(my.get(j).equals(their.get(j)));
+				}
+				if (idx < their.size()) {
+					assertTrue(my.set(idx, -i).equals(their.set(idx, -i)));
+				}
+				break;
+			default:
+				assertTrue(Objects.equals(my.pollFirst(), their.pollFirst()));
+				my.addLast(i);
+				their.addLast(i);
+			}
+			assertSame(my, their);
+		}
+		Iterator<Integer> iter = my.iterator();
+		my.compact();
+		try {
+			iter.next();
+			assertTrue(false);
+		} catch (ConcurrentModificationException e) {
+			// pass
+		}
+		my.clear();
+		my.compact();
+		assertTrue(my.isEmpty() && my.peekLast() == null);
+		my.push(1);
+		assertTrue(my.getFirst() == 1 && my.getLast() == 1);
+
+		// The size in the stream is checked and not trusted for allocation.
+		// An empty list ends with its size in a block of data.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(new MyArrayLinkedList<Integer>());
+		out.close();
+		byte[] stream = bytes.toByteArray();
+		for (int n : new int[] { -1, Integer.MAX_VALUE }) {
+			ByteBuffer.wrap(stream).putInt(stream.length - 5, n);
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream))) {
+				in.readObject();
+				assertTrue(false);
+			} catch (InvalidObjectException e) {
+				assertTrue(n < 0);
+			} catch (IOException e) {
+				// Out of elements long before Integer.MAX_VALUE of them
+				assertTrue(n > 0);
+			}
+		}
+
+		// MyUnrolledLinkedList checks its chunk capacity, which ends its
+		// fields just before the block with the size, as well as the size
+		bytes = new ByteArrayOutputStream();
+		out = new ObjectOutputStream(bytes);
+		out.writeObject(new MyUnrolledLinkedList<Integer>(4));
+		out.close();
+		stream = bytes.toByteArray();
+		assertTrue(ByteBuffer.wrap(stream).getInt(stream.length - 11) == 4);
+		for (int at : new int[] { 11, 11, 5 }) {
+			byte[] damaged = stream.clone();
+			ByteBuffer.wrap(damaged).putInt(damaged.length - at, (at == 5) ? -1 : rand.nextInt(4) - 1);
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(damaged))) {
+				in.readObject();
+				assertTrue(false);
+			} catch (InvalidObjectException e) {
+				// pass
+			}
+		}
+	}
+
+	/**
+	 * Test the MyLinkedList spliterator: split sizes, streams with and without
+	 * the skip list index, and fail-fast traversal.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test15() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		ArrayList<Integer> their = new ArrayList<Integer>();
+		for (int i = 0; i < 10000; i++) {
+			int v = rand.nextInt(1000);
+			my.add(v);
+			their.add(v);
+		}
+		for (boolean indexed : new boolean[] { false, true }) {
+			my.setIndexed(indexed);
+			assertTrue(my.stream().collect(Collectors.toList()).equals(their));
+			assertTrue(my.parallelStream().collect(Collectors.toList()).equals(their));
+			assertTrue(my.parallelStream().mapToLong(Integer::longValue).sum() == their.stream()
+					.mapToLong(Integer::longValue).sum());
+
+			// Split a few levels and check that the pieces cover the list
+			List<Spliterator<Integer>> pieces = new ArrayList<Spliterator<Integer>>();
+			pieces.add(my.spliterator());
+			for (int level = 0; level < 5; level++) {
+				List<Spliterator<Integer>> next = new ArrayList<Spliterator<Integer>>();
+				for (Spliterator<Integer> s : pieces) {
+					long size = s.estimateSize();
+					Spliterator<Integer> prefix = s.trySplit();
+					assertTrue(prefix.hasCharacteristics(Spliterator.SUBSIZED));
+					assertTrue(prefix.estimateSize() + s.estimateSize() == size);
+					assertTrue(Math.abs(prefix.estimateSize() - s.estimateSize()) <= 1);
+					next.add(prefix);
+					next.add(s);
+				}
+				pieces = next;
+			}
+			final List<Integer> all = new ArrayList<Integer>();
+			for (Spliterator<Integer> s : pieces) {
+				if (rand.nextBoolean()) {
+					s.tryAdvance(all::add);
+				}
+				s.forEachRemaining(all::add);
+				assertTrue(!s.tryAdvance(all::add) && s.estimateSize() == 0);
+			}
+			assertTrue(all.equals(their));
+		}
+
+		Spliterator<Integer> s = my.spliterator();
+		my.add(1);
+		their.add(1);
+		// Late binding sees the added element
+		assertTrue(s.estimateSize() == their.size());
+		my.removeLast();
+		try {
+			s.forEachRemaining(e -> {
+			});
+			assertTrue(false);
+		} catch (ConcurrentModificationException e) {
+			// pass
+		}
+	}
+
+	/**
+	 * Test the parallel bulk operations of MyLinkedList against the
+	 * sequential ones of LinkedList, with and without the skip list index and
+	 * node pool.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test16() throws Exception {
+		for (int round = 0; round < 4; round++) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			LinkedList<Integer> their = new LinkedList<Integer>();
+			my.setIndexed(round % 2 == 1);
+			my.setNodePoolCapacity(round >= 2 ? 1000 : 0);
+			int n = rand.nextInt(50000);
+			for (int i = 0; i < n; i++) {
+				Integer v = rand.nextInt(20) == 0 ? null : rand.nextInt(n);
+				my.add(v);
+				their.add(v);
+			}
+			for (int i = 0; i < 20; i++) {
+				Integer o = rand.nextInt(10) == 0 ? null : rand.nextInt(n + 1);
+				assertTrue(my.parallelIndexOf(o) == their.indexOf(o));
+				assertTrue(my.parallelContains(o) == their.contains(o));
+			}
+			final int mod = rand.nextInt(5) + 1;
+			my.parallelReplaceAll(e -> e == null ? null : e + 1);
+			their.replaceAll(e -> e == null ? null : e + 1);
+			assertSame(my, their);
+			assertTrue(my.parallelRemoveIf(e -> e != null && e % mod == 0) == their
+					.removeIf(e -> e != null && e % mod == 0));
+			assertSame(my, their);
+			for (int i = 0; i < 100 && !their.isEmpty(); i++) {
+				int idx = rand.nextInt(their.size());
+				assertTrue(Objects.equals(my.get(idx), their.get(idx)));
+			}
+			assertTrue(my.parallelRemoveIf(e -> e == null) == their.removeIf(e -> e == null));
+			final AtomicLong sum = new AtomicLong();
+			my.parallelForEach(e -> sum.addAndGet(e));
+			long expected = 0;
+			for (Integer e : their) {
+				expected += e;
+			}
+			assertTrue(sum.get() == expected);
+			my.push(-1);
+			their.push(-1);
+			my.addLast(-2);
+			their.addLast(-2);
+			assertSame(my, their);
+			try {
+				my.parallelRemoveIf(e -> {
+					throw new IllegalStateException();
+				});
+				assertTrue(false);
+			} catch (IllegalStateException e) {
+				// The list is unchanged
+				assertSame(my, their);
+			}
+			assertTrue(my.parallelRemoveIf(e -> true) == !their.isEmpty());
+			their.clear();
+			assertSame(my, their);
+			assertTrue(my.peekFirst() == null && my.peekLast() == null);
+		}
+	}
+
+	/**
+	 * Test the bulk additions of MyLinkedList that splice a whole chain at
+	 * once, with and without the skip list index.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test17() throws Exception {
+		for (boolean indexed : new boolean[] { false, true }) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			LinkedList<Integer> their = new LinkedList<Integer>();
+			my.setIndexed(indexed);
+			my.setNodePoolCapacity(16);
+			for (int i = 0; i < 300; i++) {
+				int n = rand.nextInt(i % 50 == 0 ? 1000 : 8);
+				ArrayList<Integer> items = new ArrayList<Integer>();
+				for (int j = 0; j < n; j++) {
+					items.add(rand.nextInt(10) == 0 ? null : rand.nextInt(100));
+				}
+				int idx = rand.nextInt(their.size() + 1);
+				switch (rand.nextInt(6)) {
+				case 0:
+					assertTrue(my.addAll(idx, items) == their.addAll(idx, items));
+					break;
+				case 1:
+					assertTrue(my.addAll(items.toArray(new Integer[0])) == their.addAll(items));
+					break;
+				case 2:
+					assertTrue(my.addAll(items.iterator()) == their.addAll(items));
+					break;
+				case 3:
+					assertTrue(my.prependAll(items) == their.addAll(0, items));
+					break;
+				case 4:
+					if (their.size() < 2000) {
+						assertTrue(my.addAll(idx, my) == their.addAll(idx, new ArrayList<Integer>(their)));
+					}
+					break;
+				default:
+					// Remove some so the pool and the index see removals too
+					for (int j = 0; j < n && !their.isEmpty(); j++) {
+						idx = rand.nextInt(their.size());
+						assertTrue(Objects.equals(my.remove(idx), their.remove(idx)));
+					}
+				}
+				assertSame(my, their);
+				if (!their.isEmpty()) {
+					idx = rand.nextInt(their.size());
+					assertTrue(Objects.equals(my.get(idx), their.get(idx)));
+					assertTrue(Objects.equals(my.getLast(), their.getLast()));
+				}
+				if (their.size() > 5000) {
+					my.clear();
+					their.clear();
+				}
+			}
+			assertSame(new MyLinkedList<Integer>(their), their);
+			@SuppressWarnings("unchecked")
+			MyLinkedList<Integer> copy = (MyLinkedList<Integer>) my.clone();
+			assertSame(copy, their);
+
+			// One modCount change for a non-empty addition, none for an empty one
+			my.addFirst(0);
+			Iterator<Integer> iter = my.iterator();
+			assertTrue(!my.addAll(new ArrayList<Integer>()));
+			assertTrue(iter.next() == 0);
+			iter = my.listIterator(my.size());
+			my.addAll(Arrays.asList(1, 2, 3));
+			try {
+				iter.next();
+				assertTrue(false);
+			} catch (ConcurrentModificationException e) {
+				// pass
+			}
+			try {
+				my.addAll(my.size() + 1, Arrays.asList(1));
+				assertTrue(false);
+			} catch (IndexOutOfBoundsException e) {
+				// pass
+			}
+		}
+	}
+
+	/**
+	 * Test spliceFirst, spliceLast, and spliceAt between MyLinkedLists, with
+	 * and without the skip list index.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test18() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		for (int i = 0; i < 300; i++) {
+			MyLinkedList<Integer> other = new MyLinkedList<Integer>();
+			other.setIndexed(rand.nextBoolean());
+			int n = rand.nextInt(i % 30 == 0 ? 500 : 5);
+			for (int j = 0; j < n; j++) {
+				other.add(rand.nextInt(100));
+			}
+			ArrayList<Integer> copy = new ArrayList<Integer>(other);
+			my.setIndexed(i % 100 < 50);
+			Iterator<Integer> otherIter = other.iterator();
+			int idx = rand.nextInt(their.size() + 1);
+			switch (rand.nextInt(3)) {
+			case 0:
+				assertTrue(my.spliceFirst(other) == their.addAll(0, copy));
+				break;
+			case 1:
+				assertTrue(my.spliceLast(other) == their.addAll(copy));
+				break;
+			default:
+				assertTrue(my.spliceAt(idx, other) == their.addAll(idx, copy));
+			}
+			assertTrue(other.isEmpty() && other.peekFirst() == null && other.peekLast() == null);
+			if (n > 0) {
+				try {
+					otherIter.next();
+					assertTrue(false);
+				} catch (ConcurrentModificationException e) {
+					// pass
+				}
+			}
+			// The emptied list is still usable
+			other.add(7);
+			assertSame(other, Arrays.asList(7));
+			assertSame(my, their);
+			if (!their.isEmpty()) {
+				idx = rand.nextInt(their.size());
+				assertTrue(my.get(idx).equals(their.get(idx)));
+				idx = rand.nextInt(their.size());
+				assertTrue(my.remove(idx).equals(their.remove(idx)));
+			}
+		}
+		try {
+			my.spliceAt(my.size() + 1, new MyLinkedList<Integer>(Arrays.asList(1)));
+			assertTrue(false);
+		} catch (IndexOutOfBoundsException e) {
+			// pass
+		}
+		try {
+			my.spliceLast(my);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		assertSame(my, their);
+	}
+
+	/**
+	 * Test the subList views of MyLinkedList against those of LinkedList,
+	 * including nested views, clear(), changes through view iterators, and
+	 * fail-fast behavior after the list changes.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test19() throws Exception {
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		LinkedList<Integer> their = new LinkedList<Integer>();
+		for (int i = 0; i < 500; i++) {
+			my.setIndexed(i % 200 >= 100);
+			my.setNodePoolCapacity(i % 2 == 0 ? 8 : 0);
+			while (their.size() < 40) {
+				int v = rand.nextInt(100);
+				my.add(v);
+				their.add(v);
+			}
+			int from = rand.nextInt(their.size() + 1);
+			int to = from + rand.nextInt(their.size() - from + 1);
+			List<Integer> mySub = my.subList(from, to);
+			List<Integer> sub = their.subList(from, to);
+			if (rand.nextBoolean() && !sub.isEmpty()) {
+				// Nest one level deeper
+				int f = rand.nextInt(sub.size() + 1);
+				int t = f + rand.nextInt(sub.size() - f + 1);
+				mySub = mySub.subList(f, t);
+				sub = sub.subList(f, t);
+			}
+			assertSame(mySub, sub);
+			for (int j = 0; j < 5; j++) {
+				int idx = rand.nextInt(sub.size() + 1);
+				switch (rand.nextInt(6)) {
+				case 0:
+					mySub.add(idx, -j);
+					sub.add(idx, -j);
+					break;
+				case 1:
+					if (idx < sub.size()) {
+						assertTrue(mySub.remove(idx).equals(sub.remove(idx)));
+					}
+					break;
+				case 2:
+					if (idx < sub.size()) {
+						assertTrue(mySub.set(idx, j).equals(sub.set(idx, j)));
+						assertTrue(mySub.get(idx).equals(sub.get(idx)));
+					}
+					break;
+				case 3:
+					ListIterator<Integer> myIter = mySub.listIterator(idx);
+					ListIterator<Integer> iter = sub.listIterator(idx);
+					while (iter.hasPrevious()) {
+						assertTrue(myIter.previousIndex() == iter.previousIndex());
+						assertTrue(myIter.previous().equals(iter.previous()));
+						if (rand.nextInt(4) == 0) {
+							myIter.remove();
+							iter.remove();
+						} else if (rand.nextInt(4) == 0) {
+							myIter.add(100 + j);
+							iter.add(100 + j);
+						}
+					}
+					assertTrue(!myIter.hasPrevious() && myIter.nextIndex() == iter.nextIndex());
+					break;
+				case 4:
+					assertTrue(mySub.indexOf(j) == sub.indexOf(j));
+					assertTrue(mySub.contains(j) == sub.contains(j));
+					break;
+				default:
+					mySub.clear();
+					sub.clear();
+				}
+				assertSame(mySub, sub);
+				assertSame(my, their);
+			}
+			if (!their.isEmpty()) {
+				int idx = rand.nextInt(their.size());
+				assertTrue(my.get(idx).equals(their.get(idx)));
+				assertTrue(my.getFirst().equals(their.getFirst()));
+				assertTrue(my.getLast().equals(their.getLast()));
+			}
+			my.add(1);
+			their.add(1);
+			try {
+				mySub.size();
+				assertTrue(false);
+			} catch (ConcurrentModificationException e) {
+				// pass
+			}
+		}
+		try {
+			my.subList(2, 1);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		try {
+			my.subList(0, my.size() + 1);
+			assertTrue(false);
+		} catch (IndexOutOfBoundsException e) {
+			// pass
+		}
+	}
+
+	/**
+	 * Test MyLinkedList.sort against LinkedList.sort on random, presorted, and
+	 * reversed data, that it is stable, and that a throwing comparator leaves
+	 * every element in a consistent list.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test20() throws Exception {
+		// Compare by tens so equal keys show whether the sort is stable
+		Comparator<Integer> byTens = (a, b) -> Integer.compare(a / 10, b / 10);
+		for (int i = 0; i < 200; i++) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			LinkedList<Integer> their = new LinkedList<Integer>();
+			my.setIndexed(i % 2 == 0);
+			int n = rand.nextInt(i < 100 ? 20 : 3000);
+			for (int j = 0; j < n; j++) {
+				int v;
+				switch (i % 4) {
+				case 0:
+					v = j;
+					break;
+				case 1:
+					v = n - j;
+					break;
+				case 2:
+					// Mostly sorted
+					v = rand.nextInt(10) == 0 ? rand.nextInt(n) : j;
+					break;
+				default:
+					v = rand.nextInt(n);
+				}
+				my.add(v);
+				their.add(v);
+			}
+			my.sort(byTens);
+			their.sort(byTens);
+			assertSame(my, their);
+			Iterator<Integer> myIter = my.descendingIterator();
+			for (Iterator<Integer> iter = their.descendingIterator(); iter.hasNext();) {
+				assertTrue(myIter.next().equals(iter.next()));
+			}
+			if (n > 0) {
+				int idx = rand.nextInt(n);
+				assertTrue(my.get(idx).equals(their.get(idx)));
+				assertTrue(my.getLast().equals(their.getLast()));
+			}
+			my.sort(null);
+			Collections.sort(their);
+			assertSame(my, their);
+		}
+
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+		for (int j = 0; j < 1000; j++) {
+			my.add(rand.nextInt(1000));
+		}
+		ArrayList<Integer> sorted = new ArrayList<Integer>(my);
+		Collections.sort(sorted);
+		for (int limit : new int[] { 0, 100, 500, 5000 }) {
+			final int[] calls = { 0 };
+			try {
+				my.sort((a, b) -> {
+					if (++calls[0] > limit) {
+						throw new IllegalStateException();
+					}
+					return a.compareTo(b);
+				});
+				assertTrue(false);
+			} catch (IllegalStateException e) {
+				// pass
+			}
+			assertTrue(my.size() == sorted.size());
+			ArrayList<Integer> backwards = new ArrayList<Integer>();
+			for (Iterator<Integer> iter = my.descendingIterator(); iter.hasNext();) {
+				backwards.add(iter.next());
+			}
+			Collections.reverse(backwards);
+			assertTrue(backwards.equals(new ArrayList<Integer>(my)));
+			Collections.sort(backwards);
+			assertTrue(backwards.equals(sorted));
+		}
+	}
+
+	/**
+	 * Test the single pass removeIf, removeAll, retainAll, and containsAll of
+	 * MyLinkedList with small and large collections, nulls, and a skip list
+	 * index.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test21() throws Exception {
+		for (int i = 0; i < 200; i++) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			LinkedList<Integer> their = new LinkedList<Integer>();
+			my.setIndexed(i % 2 == 0);
+			my.setNodePoolCapacity(i % 3 == 0 ? 10 : 0);
+			int n = rand.nextInt(i % 10 == 0 ? 2000 : 50);
+			for (int j = 0; j < n; j++) {
+				Integer v = rand.nextInt(20) == 0 ? null : rand.nextInt(100);
+				my.add(v);
+				their.add(v);
+			}
+			Collection<Integer> c = rand.nextBoolean() ? new ArrayList<Integer>() : new HashSet<Integer>();
+			int m = rand.nextInt(rand.nextBoolean() ? 10 : 100);
+			for (int j = 0; j < m; j++) {
+				c.add(rand.nextInt(10) == 0 ? null : rand.nextInt(120));
+			}
+			assertTrue(my.containsAll(c) == their.containsAll(c));
+			assertTrue(my.containsAll(my));
+			switch (rand.nextInt(3)) {
+			case 0:
+				assertTrue(my.removeAll(c) == their.removeAll(c));
+				break;
+			case 1:
+				assertTrue(my.retainAll(c) == their.retainAll(c));
+				break;
+			default:
+				final int mod = rand.nextInt(7) + 1;
+				assertTrue(my.removeIf(e -> e == null || e % mod == 0) == their
+						.removeIf(e -> e == null || e % mod == 0));
+			}
+			assertSame(my, their);
+			assertTrue(my.containsAll(their) && their.containsAll(my));
+			if (!their.isEmpty()) {
+				int idx = rand.nextInt(their.size());
+				assertTrue(Objects.equals(my.get(idx), their.get(idx)));
+				assertTrue(Objects.equals(my.getLast(), their.getLast()));
+			}
+			my.add(-1);
+			their.add(-1);
+			assertSame(my, their);
+		}
+
+		// A throwing filter keeps the removals made before it threw
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6));
+		try {
+			my.removeIf(e -> {
+				if (e == 4) {
+					throw new IllegalStateException();
+				}
+				return e % 2 == 1;
+			});
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+			// pass
+		}
+		assertSame(my, Arrays.asList(2, 4, 5, 6));
+		assertTrue(my.size() == 4 && my.getLast() == 6);
+	}
+
+	/**
+	 * Test the copy on write clone of MyLinkedList by changing a family of
+	 * clones in random ways and comparing each with its own LinkedList, and
+	 * test that iterators, spliterators, and sublists made before a clone
+	 * keep working after the copy.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void test22() throws Exception {
+		for (int i = 0; i < 300; i++) {
+			ArrayList<MyLinkedList<Integer>> mine = new ArrayList<MyLinkedList<Integer>>();
+			ArrayList<LinkedList<Integer>> theirs = new ArrayList<LinkedList<Integer>>();
+			MyLinkedList<Integer> first = new MyLinkedList<Integer>();
+			first.setIndexed(i % 2 == 0);
+			first.setNodePoolCapacity(i % 3 == 0 ? 8 : 0);
+			for (int j = rand.nextInt(i % 10 == 0 ? 200 : 20); j > 0; j--) {
+				first.add(rand.nextInt(100));
+			}
+			mine.add(first);
+			theirs.add(new LinkedList<Integer>(first));
+			for (int step = 0; step < 40; step++) {
+				int k = rand.nextInt(mine.size());
+				MyLinkedList<Integer> my = mine.get(k);
+				LinkedList<Integer> their = theirs.get(k);
+				int size = their.size();
+				int idx = (size == 0) ? 0 : rand.nextInt(size);
+				Integer v = rand.nextInt(100);
+				switch (rand.nextInt(12)) {
+				case 0:
+				case 1:
+					mine.add((MyLinkedList<Integer>) my.clone());
+					theirs.add((LinkedList<Integer>) their.clone());
+					break;
+				case 2:
+					my.addFirst(v);
+					their.addFirst(v);
+					my.add(v);
+					their.add(v);
+					break;
+				case 3:
+					if (size > 0) {
+						assertTrue(my.set(idx, v).equals(their.set(idx, v)));
+						assertTrue(my.removeLast().equals(their.removeLast()));
+					}
+					break;
+				case 4:
+					my.add(idx, v);
+					their.add(idx, v);
+					if (size > 0) {
+						assertTrue(my.remove(idx).equals(their.remove(idx)));
+					}
+					break;
+				case 5:
+					// The iterator doing the write moves onto the copied nodes
+					ListIterator<Integer> myIter = my.listIterator(idx);
+					ListIterator<Integer> theirIter = their.listIterator(idx);
+					if (size > 0 && (idx == 0 || rand.nextBoolean())) {
+						assertTrue(myIter.next().equals(theirIter.next()));
+					} else if (idx > 0) {
+						assertTrue(myIter.previous().equals(theirIter.previous()));
+					}
+					if (size > 0) {
+						switch (rand.nextInt(3)) {
+						case 0:
+							myIter.set(v);
+							theirIter.set(v);
+							break;
+						case 1:
+							myIter.remove();
+							theirIter.remove();
+							break;
+						default:
+							myIter.add(v);
+							theirIter.add(v);
+						}
+						assertTrue(myIter.nextIndex() == theirIter.nextIndex());
+						if (myIter.hasNext()) {
+							assertTrue(myIter.next().equals(theirIter.next()));
+						}
+					}
+					break;
+				case 6:
+					int to = idx + rand.nextInt(size - idx + 1);
+					List<Integer> mySub = my.subList(idx, to);
+					List<Integer> theirSub = their.subList(idx, to);
+					if (to > idx && rand.nextBoolean()) {
+						mySub.set(0, v);
+						theirSub.set(0, v);
+						mySub.add(v);
+						theirSub.add(v);
+					} else {
+						mySub.clear();
+						theirSub.clear();
+					}
+					assertTrue(mySub.equals(theirSub));
+					break;
+				case 7:
+					my.sort(null);
+					Collections.sort(their);
+					break;
+				case 8:
+					final int mod = rand.nextInt(5) + 2;
+					assertTrue(my.removeIf(e -> e % mod == 0) == their.removeIf(e -> e % mod == 0));
+					break;
+				case 9:
+					// Splice in a clone of another list of the family
+					int other = rand.nextInt(mine.size());
+					my.spliceLast((MyLinkedList<Integer>) mine.get(other).clone());
+					their.addAll(theirs.get(other));
+					break;
+				case 10:
+					my.parallelReplaceAll(e -> e + 1);
+					their.replaceAll(e -> e + 1);
+					break;
+				default:
+					if (rand.nextInt(4) == 0) {
+						my.clear();
+						their.clear();
+					}
+				}
+				for (int j = 0; j < mine.size(); j++) {
+					assertSame(mine.get(j), theirs.get(j));
+				}
+			}
+		}
+
+		// Reading a clone costs nothing, and the first write copies the nodes
+		// without failing the other iterators of the list that wrote
+		MyLinkedList<Integer> my = new MyLinkedList<Integer>(Arrays.asList(1, 2, 3));
+		MyLinkedList<Integer> copy = (MyLinkedList<Integer>) my.clone();
+		Iterator<Integer> reader = my.iterator();
+		Iterator<Integer> copyReader = copy.iterator();
+		assertTrue(reader.next() == 1);
+		my.set(0, 9);
+		assertTrue(reader.next() == 2);
+		List<Integer> sub = my.subList(1, 3);
+		copy = (MyLinkedList<Integer>) my.clone();
+		my.set(0, 7);
+		assertTrue(sub.size() == 2 && sub.get(0) == 2);
+		// The clone was the last to use the shared nodes, so it keeps them
+		int copies = copy.copies();
+		copy.set(1, 8);
+		assertTrue(copy.copies() == copies);
+		assertTrue(copyReader.next() == 1 && copyReader.next() == 2);
+		assertSame(my, Arrays.asList(7, 2, 3));
+		assertSame(copy, Arrays.asList(9, 8, 3));
+		// A clone that was cleared no longer makes the list copy
+		copies = my.copies();
+		((MyLinkedList<Integer>) my.clone()).clear();
+		my.set(0, 6);
+		assertTrue(my.copies() == copies);
+
+		// Iterators, spliterators, and sublists made before a clone keep
+		// working across the copy made by the next set, as with LinkedList
+		for (int i = 0; i < 300; i++) {
+			int n = rand.nextInt(20) + 1;
+			my = new MyLinkedList<Integer>();
+			for (int j = 0; j < n; j++) {
+				my.add(j);
+			}
+			my.setIndexed(rand.nextBoolean());
+			LinkedList<Integer> their = new LinkedList<Integer>(my);
+			int at = rand.nextInt(n + 1);
+			ListIterator<Integer> myIter = my.listIterator(at);
+			ListIterator<Integer> theirIter = their.listIterator(at);
+			int from = rand.nextInt(n + 1);
+			int to = from + rand.nextInt(n - from + 1);
+			List<Integer> mySub = my.subList(from, to);
+			List<Integer> theirSub = their.subList(from, to);
+			Spliterator<Integer> mySplit = my.spliterator();
+			Spliterator<Integer> theirSplit = their.spliterator();
+			ArrayList<Integer> mySeen = new ArrayList<Integer>();
+			ArrayList<Integer> theirSeen = new ArrayList<Integer>();
+			mySplit.tryAdvance(mySeen::add);
+			theirSplit.tryAdvance(theirSeen::add);
+			copy = (MyLinkedList<Integer>) my.clone();
+			int idx = rand.nextInt(n);
+			my.set(idx, -1);
+			their.set(idx, -1);
+			if (rand.nextBoolean() && theirIter.hasPrevious()) {
+				assertTrue(myIter.previous().equals(theirIter.previous()));
+				myIter.set(-2);
+				theirIter.set(-2);
+			}
+			while (theirIter.hasNext()) {
+				assertTrue(myIter.next().equals(theirIter.next()));
+			}
+			assertTrue(mySub.size() == theirSub.size() && mySub.equals(theirSub));
+			if (to > from) {
+				mySub.set(0, -3);
+				theirSub.set(0, -3);
+			}
+			mySplit.forEachRemaining(mySeen::add);
+			theirSplit.forEachRemaining(theirSeen::add);
+			assertTrue(mySeen.equals(theirSeen));
+			assertSame(my, their);
+			for (int j = 0; j < n; j++) {
+				assertTrue(copy.get(j) == j);
+			}
+		}
+
+		// A set made by the action of forEachRemaining is seen by the rest of
+		// the walk
+		my = new MyLinkedList<Integer>(Arrays.asList(1, 2, 3, 4));
+		copy = (MyLinkedList<Integer>) my.clone();
+		final MyLinkedList<Integer> walked = my;
+		ArrayList<Integer> seen = new ArrayList<Integer>();
+		walked.spliterator().forEachRemaining(e -> {
+			if (seen.isEmpty()) {
+				walked.set(3, 5);
+			}
+			seen.add(e);
+		});
+		assertTrue(seen.equals(Arrays.asList(1, 2, 3, 5)));
+		assertSame(copy, Arrays.asList(1, 2, 3, 4));
+	}
+
+	/**
+	 * Test PersistentLinkedList by changing random old versions and checking
+	 * every version against a copy made when it was created, and its
+	 * conversions to and from MyLinkedList.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test23() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			ArrayList<PersistentLinkedList<Integer>> versions = new ArrayList<PersistentLinkedList<Integer>>();
+			ArrayList<List<Integer>> expected = new ArrayList<List<Integer>>();
+			MyLinkedList<Integer> source = new MyLinkedList<Integer>();
+			for (int j = rand.nextInt(30); j > 0; j--) {
+				source.add(rand.nextInt(100));
+			}
+			versions.add(PersistentLinkedList.<Integer>empty());
+			expected.add(new ArrayList<Integer>());
+			versions.add(PersistentLinkedList.from(source));
+			expected.add(new ArrayList<Integer>(source));
+			// Changing the source afterwards must not change the version
+			source.addFirst(-1);
+			source.set(source.size() - 1, -2);
+			for (int step = 0; step < 200; step++) {
+				int k = rand.nextInt(versions.size());
+				PersistentLinkedList<Integer> version = versions.get(k);
+				LinkedList<Integer> next = new LinkedList<Integer>(expected.get(k));
+				Integer v = rand.nextInt(100);
+				switch (rand.nextInt(5)) {
+				case 0:
+					version = version.push(v);
+					next.addFirst(v);
+					break;
+				case 1:
+				case 2:
+					version = version.addLast(v);
+					next.addLast(v);
+					break;
+				case 3:
+					assertTrue(Objects.equals(version.peek(), next.peekFirst()));
+					version = version.pollFirst();
+					next.pollFirst();
+					break;
+				default:
+					// Round trip through a list that is then changed
+					MyLinkedList<Integer> my = version.toMyLinkedList();
+					assertSame(my, next);
+					version = PersistentLinkedList.from(my);
+					my.add(v);
+					my.removeFirst();
+				}
+				versions.add(version);
+				expected.add(next);
+			}
+			for (int k = 0; k < versions.size(); k++) {
+				PersistentLinkedList<Integer> version = versions.get(k);
+				List<Integer> list = expected.get(k);
+				assertTrue(version.size() == list.size() && version.isEmpty() == list.isEmpty());
+				assertTrue(new ArrayList<Integer>(version).equals(list));
+				assertTrue(version.toString().equals(list.toString()));
+				MyLinkedList<Integer> my = version.toMyLinkedList();
+				assertSame(my, list);
+				my.clear();
+			}
+		}
+
+		// pop throws on the empty list and pollFirst does not
+		PersistentLinkedList<Integer> empty = PersistentLinkedList.empty();
+		assertTrue(empty.pollFirst() == empty && empty.peek() == null);
+		try {
+			empty.pop();
+			assertTrue(false);
+		} catch (NoSuchElementException e) {
+			// pass
+		}
+		PersistentLinkedList<Integer> stack = empty.push(1).push(2).push(3);
+		assertTrue(stack.peek() == 3 && stack.pop().peek() == 2 && stack.pop().pop().pop().isEmpty());
+
+		// A list handed the nodes of a popped version owns them once the
+		// version is gone, and its head has nothing before it
+		for (int k = 0; k < 3; k++) {
+			MyLinkedList<Integer> tailOf = PersistentLinkedList.from(new MyLinkedList<Integer>(Arrays.asList(1, 2, 3, 4)))
+					.pop().toMyLinkedList();
+			System.gc();
+			switch (k) {
+			case 0:
+				assertTrue(tailOf.removeIf(x -> x == 2));
+				assertTrue(tailOf.toString().equals("[3, 4]"));
+				break;
+			case 1:
+				tailOf.addAll(0, Arrays.asList(0, 1));
+				assertTrue(tailOf.toString().equals("[0, 1, 2, 3, 4]"));
+				break;
+			default:
+				tailOf.listIterator().add(1);
+				tailOf.removeFirst();
+				tailOf.add(0, 1);
+				assertTrue(tailOf.toString().equals("[1, 2, 3, 4]"));
+			}
+			Iterator<Integer> back = tailOf.descendingIterator();
+			while (back.hasNext()) {
+				back.next();
+			}
+		}
+	}
+
+	/**
+	 * Test that MyLinkedList survives serialization at sizes from 0 up to
+	 * 1M, far past the depth where recursing through the nodes would
+	 * overflow the stack, and still works afterwards.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public static void test24() throws Exception {
+		for (int n = 0; n <= 1000000; n = (n == 0) ? 1 : n * 10) {
+			MyLinkedList<Integer> my = new MyLinkedList<Integer>();
+			for (int i = 0; i < n; i++) {
+				my.add((i % 7 == 3) ? null : i);
+			}
+			my.setIndexed(n % 2 == 0);
+			// A shared clone serializes the same way
+			MyLinkedList<Integer> original = (n % 100 == 0) ? (MyLinkedList<Integer>) my.clone() : my;
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(original);
+			out.close();
+			ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+			MyLinkedList<Integer> copy = (MyLinkedList<Integer>) in.readObject();
+			assertTrue(copy.size() == n);
+			assertTrue(copy.equals(my));
+			if (n > 0) {
+				assertTrue(Objects.equals(copy.get(n / 2), my.get(n / 2)));
+				assertTrue(Objects.equals(copy.getLast(), my.getLast()));
+				assertTrue(Objects.equals(copy.descendingIterator().next(), my.getLast()));
+			}
+			copy.addFirst(-1);
+			copy.add(-2);
+			assertTrue(copy.removeFirst() == -1 && copy.removeLast() == -2);
+			assertTrue(copy.size() == n && my.size() == n);
+		}
+	}
+
+	/**
+	 * Test MyLinkedListCodec round trips through a DataOutput, a ByteBuffer,
+	 * and a file channel with and without compression, and its rejection of
+	 * damaged streams.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test25() throws Exception {
+		for (int n = 0; n <= 300000; n = (n == 0) ? 1 : n * 7) {
+			MyLinkedList<Long> longs = new MyLinkedList<Long>();
+			MyLinkedList<Integer> ints = new MyLinkedList<Integer>();
+			long time = rand.nextLong();
+			for (int i = 0; i < n; i++) {
+				time += rand.nextInt(1000) - (i % 50 == 0 ? 1000000 : 0);
+				longs.add(i % 1000 == 7 ? Long.MIN_VALUE : time);
+				ints.add(rand.nextInt(3) == 0 ? rand.nextInt() : i);
+			}
+			for (boolean compress : new boolean[] { false, true }) {
+				// DataOutput
+				MyLinkedListCodec<Long> longCodec = new MyLinkedListCodec<Long>(
+						compress ? ElementCodec.DELTA_LONG : ElementCodec.VARINT_LONG, compress);
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				longCodec.write(longs, new DataOutputStream(bytes));
+				MyLinkedList<Long> longCopy = longCodec
+						.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+				assertTrue(longCopy.equals(longs));
+
+				// ByteBuffer, with other data after the list
+				MyLinkedListCodec<Integer> intCodec = new MyLinkedListCodec<Integer>(
+						compress ? ElementCodec.VARINT_INTEGER : ElementCodec.DELTA_INTEGER, compress);
+				ByteBuffer buffer = ByteBuffer.allocate(n * 5 + 1000);
+				intCodec.write(ints, buffer);
+				buffer.putInt(12345);
+				buffer.flip();
+				MyLinkedList<Integer> intCopy = intCodec.read(buffer);
+				assertTrue(intCopy.equals(ints) && buffer.getInt() == 12345);
+				intCopy.add(1);
+				assertTrue(intCopy.size() == n + 1 && intCopy.getLast() == 1);
+			}
+		}
+
+		// Two lists one after the other in a file
+		MyLinkedList<String> strings = new MyLinkedList<String>(Arrays.asList("a", "", "\u00e9t\u00e9", "b"));
+		MyLinkedListCodec<String> stringCodec = new MyLinkedListCodec<String>(ElementCodec.UTF, true);
+		File file = File.createTempFile("codec", ".bin");
+		try {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+				stringCodec.write(strings, channel);
+				stringCodec.write(new MyLinkedList<String>(), channel);
+			}
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				assertTrue(stringCodec.read(channel).equals(strings));
+				assertTrue(stringCodec.read(channel).isEmpty());
+				assertTrue(channel.position() == channel.size());
+			}
+		} finally {
+			file.delete();
+		}
+
+		// Damaged streams
+		MyLinkedList<Integer> list = new MyLinkedList<Integer>(Arrays.asList(1, 2, 3));
+		MyLinkedListCodec<Integer> codec = new MyLinkedListCodec<Integer>(ElementCodec.DELTA_INTEGER);
+		ByteBuffer buffer = ByteBuffer.allocate(100);
+		codec.write(list, buffer);
+		buffer.flip();
+		ByteBuffer truncated = buffer.duplicate();
+		truncated.limit(buffer.limit() - 1);
+		try {
+			codec.read(truncated);
+			assertTrue(false);
+		} catch (EOFException e) {
+			// pass
+		}
+		buffer.put(0, (byte) 0);
+		try {
+			codec.read(buffer);
+			assertTrue(false);
+		} catch (StreamCorruptedException e) {
+			// pass
+		}
+	}
+
+	/**
+	 * Test that MyMappedLinkedList keeps its elements, free slots, and order
+	 * across closing and opening its file again, including past the first
+	 * chunk, finishes a change cut short part way, refuses changes once
+	 * closed, and refuses a second opener, a codec of another size, or a file
+	 * that is not a list.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test26() throws Exception {
+		File file = File.createTempFile("mapped", ".list");
+		file.delete();
+		try {
+			LinkedList<Long> their = new LinkedList<Long>();
+			for (int round = 0; round < 6; round++) {
+				MyMappedLinkedList<Long> my = new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+				assertTrue(my.toString().equals(their.toString()));
+				int steps = (round == 3) ? MyOffHeapLinkedList.CHUNK_SLOTS + 5000 : 3000;
+				for (long i = 0; i < steps; i++) {
+					switch (rand.nextInt(round == 3 ? 2 : 5)) {
+					case 0:
+						my.offerLast(i);
+						their.offerLast(i);
+						break;
+					case 1:
+						my.push(-i);
+						their.push(-i);
+						break;
+					case 2:
+						assertTrue(Objects.equals(my.pollFirst(), their.pollFirst()));
+						break;
+					case 3:
+						assertTrue(Objects.equals(my.pollLast(), their.pollLast()));
+						break;
+					default:
+						Long o = i - rand.nextInt(100);
+						assertTrue(my.removeFirstOccurrence(o) == their.removeFirstOccurrence(o));
+					}
+				}
+				assertTrue(my.size() == their.size());
+				if (round == 4) {
+					my.clear();
+					their.clear();
+					my.add(7L);
+					their.add(7L);
+				}
+				if (round == 2) {
+					// Only one list at a time may have the file
+					try {
+						new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+						assertTrue(false);
+					} catch (IOException e) {
+						// pass
+					}
+				}
+				my.close();
+				my.close();
+				try {
+					my.add(1L);
+					assertTrue(false);
+				} catch (IllegalStateException e) {
+					// pass
+				}
+				// Clearing a closed list must not empty its file
+				try {
+					my.clear();
+					assertTrue(false);
+				} catch (IllegalStateException e) {
+					// pass
+				}
+			}
+
+			// The slots are 12 bytes with INTEGER instead of 16
+			try {
+				new MyMappedLinkedList<Integer>(file.toPath(), SlotCodec.INTEGER);
+				assertTrue(false);
+			} catch (IOException e) {
+				// pass
+			}
+
+			// A change cut short after some of its link stores, as a killed
+			// process leaves it, is made again when the file is opened
+			for (int op = 0; op < 4; op++) {
+				for (int c = 0; c <= MyOffHeapLinkedList.MAX_CHANGE_STORES; c++) {
+					final int cut = c;
+					file.delete();
+					their.clear();
+					MyMappedLinkedList<Long> my = new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+					for (long i = 0; i < 10; i++) {
+						my.add(i);
+						their.add(i);
+					}
+					my.pollFirst();
+					their.pollFirst();
+					my.close();
+					my = new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG) {
+						@Override
+						void applyStores(int[] slots, int[] fields, int[] values, int count) {
+							super.applyStores(slots, fields, values, Math.min(cut, count));
+							throw new IllegalStateException("killed");
+						}
+					};
+					try {
+						switch (op) {
+						case 0:
+							their.offerFirst(20L);
+							my.offerFirst(20L);
+							break;
+						case 1:
+							their.offerLast(20L);
+							my.offerLast(20L);
+							break;
+						case 2:
+							their.removeFirstOccurrence(5L);
+							my.removeFirstOccurrence(5L);
+							break;
+						default:
+							their.pollLast();
+							my.pollLast();
+						}
+						assertTrue(false);
+					} catch (IllegalStateException e) {
+						// pass
+					}
+					my.close();
+					my = new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+					assertTrue(my.toString().equals(their.toString()));
+					assertTrue(my.size() == their.size());
+					my.offerLast(30L);
+					their.offerLast(30L);
+					my.close();
+					my = new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+					assertTrue(my.toString().equals(their.toString()));
+					my.close();
+				}
+			}
+
+			// A file that is not a list is refused without being changed
+			for (int length : new int[] { 100, MyMappedLinkedList.HEADER_BYTES + 100 }) {
+				byte[] junk = new byte[length];
+				rand.nextBytes(junk);
+				Files.write(file.toPath(), junk);
+				try {
+					new MyMappedLinkedList<Long>(file.toPath(), SlotCodec.LONG);
+					assertTrue(false);
+				} catch (IOException e) {
+					// pass
+				}
+				assertTrue(file.length() == length);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test that MyJournaledLinkedList gets back every change that returned
+	 * after being closed, after a copy of its files taken while it was open
+	 * as a crash would leave them, and after a partly written batch, with
+	 * checkpoints in between, that concurrent callers share forces, and that
+	 * a damaged batch before the last fails to open.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test27() throws Exception {
+		Path dir = Files.createTempDirectory("journal");
+		Path crash = Files.createTempDirectory("crash");
+		try {
+			LinkedList<Integer> their = new LinkedList<Integer>();
+			MyJournaledLinkedList<Integer> my = new MyJournaledLinkedList<Integer>(dir, ElementCodec.VARINT_INTEGER,
+					0, 4000);
+			for (int i = 0; i < 3000; i++) {
+				switch (rand.nextInt(10)) {
+				case 0:
+				case 1:
+					assertTrue(my.offerFirst(i) && their.offerFirst(i));
+					break;
+				case 2:
+				case 3:
+					assertTrue(my.offer(-i) && their.offer(-i));
+					break;
+				case 4:
+					assertTrue(Objects.equals(my.poll(), their.poll()));
+					break;
+				case 5:
+					assertTrue(Objects.equals(my.pollLast(), their.pollLast()));
+					break;
+				case 6:
+					Integer o = rand.nextBoolean() ? rand.nextInt(i + 1) : -rand.nextInt(i + 1);
+					assertTrue(my.removeFirstOccurrence(o) == their.removeFirstOccurrence(o));
+					break;
+				case 7:
+					if (rand.nextInt(20) == 0) {
+						my.clear();
+						their.clear();
+					} else if (rand.nextInt(5) == 0) {
+						my.checkpoint();
+						assertTrue(my.toMyLinkedList().equals(their));
+					}
+					break;
+				case 8:
+					if (rand.nextInt(10) == 0) {
+						// Copy the log before the snapshot, the order a crash
+						// during a checkpoint could leave them in
+						for (String name : new String[] { "log", "snapshot" }) {
+							Path file = dir.resolve(name);
+							if (Files.exists(file)) {
+								Files.copy(file, crash.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+							} else {
+								Files.deleteIfExists(crash.resolve(name));
+							}
+						}
+						MyJournaledLinkedList<Integer> copy = new MyJournaledLinkedList<Integer>(crash,
+								ElementCodec.VARINT_INTEGER);
+						assertTrue(copy.toMyLinkedList().equals(their));
+						copy.close();
+					}
+					break;
+				default:
+					if (rand.nextInt(10) == 0) {
+						my.close();
+						try {
+							my.offer(1);
+							assertTrue(false);
+						} catch (IllegalStateException e) {
+							// pass
+						}
+						if (rand.nextBoolean()) {
+							// A batch cut short by a crash is dropped
+							try (FileChannel log = FileChannel.open(dir.resolve("log"), StandardOpenOption.WRITE,
+									StandardOpenOption.APPEND)) {
+								log.write(ByteBuffer.wrap(new byte[] { 0, 0, 0, 40, 1, 2, 3 }));
+							}
+						}
+						my = new MyJournaledLinkedList<Integer>(dir, ElementCodec.VARINT_INTEGER, 0, 4000);
+					}
+				}
+				assertTrue(my.size() == their.size());
+				assertTrue(Objects.equals(my.peekFirst(), their.peekFirst()));
+				assertTrue(Objects.equals(my.peekLast(), their.peekLast()));
+				assertTrue(my.logBytes() < 8000);
+			}
+			my.close();
+			my = new MyJournaledLinkedList<Integer>(dir, ElementCodec.VARINT_INTEGER, 1000, 64L << 20);
+			assertTrue(my.toMyLinkedList().equals(their));
+
+			// Concurrent offers share forces within the commit delay
+			my.clear();
+			final MyJournaledLinkedList<Integer> shared = my;
+			long syncs = shared.syncs();
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				final int base = t * 1000;
+				threads[t] = new Thread(() -> {
+					for (int i = 0; i < 200; i++) {
+						shared.offer(base + i);
+					}
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			assertTrue(shared.size() == 800);
+			assertTrue(shared.syncs() - syncs < 800);
+			MyLinkedList<Integer> before = shared.toMyLinkedList();
+			shared.close();
+			my = new MyJournaledLinkedList<Integer>(dir, ElementCodec.VARINT_INTEGER);
+			assertTrue(my.toMyLinkedList().equals(before));
+			my.close();
+
+			// A damaged batch before the last is an error, not the end of the
+			// log, since the batches after it were durable
+			for (Path file : new Path[] { crash.resolve("log"), crash.resolve("snapshot") }) {
+				Files.deleteIfExists(file);
+			}
+			my = new MyJournaledLinkedList<Integer>(crash, ElementCodec.VARINT_INTEGER);
+			for (int i = 0; i < 5; i++) {
+				my.offer(i);
+			}
+			my.close();
+			byte[] log = Files.readAllBytes(crash.resolve("log"));
+			// The first batch's records, CRC32, flipped length, and length
+			for (int at : new int[] { 12 + 12, 12 + 8, 12 + 4, 12, -1 }) {
+				byte[] damaged = log.clone();
+				if (at >= 0) {
+					damaged[at + 1] ^= 0x10;
+				} else {
+					ByteBuffer.wrap(damaged).putInt(12, 0x7fff0000);
+				}
+				Files.write(crash.resolve("log"), damaged);
+				try {
+					new MyJournaledLinkedList<Integer>(crash, ElementCodec.VARINT_INTEGER);
+					assertTrue(false);
+				} catch (StreamCorruptedException e) {
+					// pass
+				}
+				assertTrue(Files.size(crash.resolve("log")) == log.length);
+			}
+			// Not a log, and a log newer than the snapshot it follows
+			for (int at : new int[] { 0, 11 }) {
+				byte[] damaged = log.clone();
+				damaged[at] ^= 0x01;
+				Files.write(crash.resolve("log"), damaged);
+				try {
+					new MyJournaledLinkedList<Integer>(crash, ElementCodec.VARINT_INTEGER);
+					assertTrue(false);
+				} catch (StreamCorruptedException e) {
+					// pass
+				}
+			}
+			// The last batch damaged is a partial write
+			byte[] torn = log.clone();
+			torn[torn.length - 1] ^= 0x10;
+			Files.write(crash.resolve("log"), torn);
+			my = new MyJournaledLinkedList<Integer>(crash, ElementCodec.VARINT_INTEGER);
+			assertTrue(my.size() == 4);
+			my.close();
+			// Zeros where the last batch should be are a partial write
+			byte[] grown = Arrays.copyOf(log, log.length + 40);
+			Files.write(crash.resolve("log"), grown);
+			my = new MyJournaledLinkedList<Integer>(crash, ElementCodec.VARINT_INTEGER);
+			assertTrue(my.size() == 5 && my.logBytes() == log.length);
+			my.close();
+		} finally {
+			for (Path root : new Path[] { dir, crash }) {
+				for (File file : root.toFile().listFiles()) {
+					Files.delete(file.toPath());
+				}
+				Files.delete(root);
+			}
+		}
+	}
+
+	/**
+	 * Test MyConcurrentLinkedDeque against ArrayDeque on one thread, that
+	 * threads offering, polling, and removing from the middle at once lose
+	 * and repeat no element, and that an iterator running beside them sees
+	 * every element that stays in the deque in order, and that addAll refuses
+	 * the deque itself.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test28() throws Exception {
+		MyConcurrentLinkedDeque<Integer> my = new MyConcurrentLinkedDeque<Integer>();
+		ArrayDeque<Integer> their = new ArrayDeque<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			Integer e = rand.nextInt(100);
+			switch (rand.nextInt(9)) {
+			case 0:
+				my.push(e);
+				their.push(e);
+				break;
+			case 1:
+				assertTrue(my.offer(e) && their.offer(e));
+				break;
+			case 2:
+				assertTrue(Objects.equals(my.pollFirst(), their.pollFirst()));
+				break;
+			case 3:
+				assertTrue(Objects.equals(my.pollLast(), their.pollLast()));
+				break;
+			case 4:
+				assertTrue(my.removeFirstOccurrence(e) == their.removeFirstOccurrence(e));
+				break;
+			case 5:
+				assertTrue(my.removeLastOccurrence(e) == their.removeLastOccurrence(e));
+				break;
+			case 6:
+				boolean ascending = rand.nextBoolean();
+				Iterator<Integer> myIter = ascending ? my.iterator() : my.descendingIterator();
+				Iterator<Integer> theirIter = ascending ? their.iterator() : their.descendingIterator();
+				while (theirIter.hasNext()) {
+					assertTrue(myIter.next().equals(theirIter.next()));
+					if (rand.nextInt(4) == 0) {
+						myIter.remove();
+						theirIter.remove();
+					}
+				}
+				assertTrue(!myIter.hasNext());
+				break;
+			case 7:
+				if (rand.nextInt(50) == 0) {
+					my.clear();
+					their.clear();
+				} else if (rand.nextInt(10) == 0) {
+					List<Integer> more = Collections.nCopies(rand.nextInt(3), e);
+					assertTrue(my.addAll(more) == their.addAll(more));
+				}
+				assertTrue(my.contains(e) == their.contains(e));
+				break;
+			default:
+				assertTrue(Objects.equals(my.peekFirst(), their.peekFirst()));
+				assertTrue(Objects.equals(my.peekLast(), their.peekLast()));
+			}
+			assertTrue(my.size() == their.size() && my.isEmpty() == their.isEmpty());
+		}
+		assertTrue(Arrays.equals(my.toArray(), their.toArray()));
+		assertTrue(my.stream().collect(Collectors.toList()).equals(new ArrayList<Integer>(their)));
+		try {
+			my.offerFirst(null);
+			assertTrue(false);
+		} catch (NullPointerException e) {
+			// pass
+		}
+		my.clear();
+		try {
+			my.removeLast();
+			assertTrue(false);
+		} catch (NoSuchElementException e) {
+			// pass
+		}
+
+		// Elements 0 to 999 stay in the deque while the threads work on both
+		// sides of them
+		final MyConcurrentLinkedDeque<Integer> shared = new MyConcurrentLinkedDeque<Integer>();
+		final int stable = 1000;
+		for (int i = 0; i < stable; i++) {
+			shared.offer(i);
+		}
+		final int threads = 4;
+		final int each = 20000;
+		final AtomicLong taken = new AtomicLong();
+		final AtomicInteger takenCount = new AtomicInteger();
+		final AtomicInteger failures = new AtomicInteger();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			final int base = stable + t * each;
+			workers[t] = new Thread(() -> {
+				Random r = new Random(base);
+				for (int i = 0; i < each; i++) {
+					Integer e = base + i;
+					// Each poll follows an offer to the same end, so polls
+					// never reach past the elements the threads added
+					boolean first = r.nextBoolean();
+					if (first) {
+						shared.offerFirst(e);
+					} else {
+						shared.offerLast(e);
+					}
+					Integer polled;
+					if (r.nextInt(3) == 0) {
+						polled = shared.removeFirstOccurrence(e) ? e : null;
+					} else {
+						polled = first ? shared.pollFirst() : shared.pollLast();
+					}
+					if (polled != null && polled < stable) {
+						failures.incrementAndGet();
+					} else if (polled != null) {
+						taken.addAndGet(polled);
+						takenCount.incrementAndGet();
+					}
+				}
+			});
+		}
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (int round = 0; round < 20; round++) {
+			int expected = 0;
+			for (Integer e : shared) {
+				if (e >= 0 && e < stable) {
+					assertTrue(e == expected++);
+				}
+			}
+			assertTrue(expected == stable);
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertTrue(failures.get() == 0);
+		long left = 0;
+		int leftCount = 0;
+		for (Integer e : shared) {
+			if (e >= stable) {
+				left += e;
+				leftCount++;
+			}
+		}
+		long all = 0;
+		for (int e = stable; e < stable + threads * each; e++) {
+			all += e;
+		}
+		assertTrue(takenCount.get() + leftCount == threads * each);
+		assertTrue(taken.get() + left == all);
+		// Adding the deque to itself would never end, and a null adds nothing
+		int before = shared.size();
+		try {
+			shared.addAll(shared);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		try {
+			shared.addAll(Arrays.asList(1, null));
+			assertTrue(false);
+		} catch (NullPointerException e) {
+			// pass
+		}
+		assertTrue(shared.size() == before);
+	}
+
+	/**
+	 * Test MyLinkedBlockingDeque against ArrayDeque with a capacity of 8, that
+	 * the timed and blocking calls wait and can be interrupted, and that
+	 * producers and consumers at both ends lose and repeat no element and
+	 * never pass the capacity.
+	 * 
+	 * @throws Exception
+	 *             if a test fails.
+	 */
+	public static void test29() throws Exception {
+		final int capacity = 8;
+		MyLinkedBlockingDeque<Integer> my = new MyLinkedBlockingDeque<Integer>(capacity);
+		ArrayDeque<Integer> their = new ArrayDeque<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			Integer e = rand.nextInt(20);
+			boolean room = their.size() < capacity;
+			switch (rand.nextInt(9)) {
+			case 0:
+				assertTrue(my.offerFirst(e) == room);
+				if (room) {
+					their.offerFirst(e);
+				}
+				break;
+			case 1:
+				assertTrue(my.offerLast(e, 0, TimeUnit.SECONDS) == room);
+				if (room) {
+					their.offerLast(e);
+				}
+				break;
+			case 2:
+				assertTrue(Objects.equals(my.pollFirst(), their.pollFirst()));
+				break;
+			case 3:
+				assertTrue(Objects.equals(my.pollLast(0, TimeUnit.SECONDS), their.pollLast()));
+				break;
+			case 4:
+				assertTrue(my.removeFirstOccurrence(e) == their.removeFirstOccurrence(e));
+				assertTrue(my.removeLastOccurrence(e) == their.removeLastOccurrence(e));
+				break;
+			case 5:
+				boolean ascending = rand.nextBoolean();
+				Iterator<Integer> myIter = ascending ? my.iterator() : my.descendingIterator();
+				Iterator<Integer> theirIter = ascending ? their.iterator() : their.descendingIterator();
+				while (theirIter.hasNext()) {
+					assertTrue(myIter.next().equals(theirIter.next()));
+					if (rand.nextInt(4) == 0) {
+						myIter.remove();
+						theirIter.remove();
+					}
+				}
+				assertTrue(!myIter.hasNext());
+				break;
+			case 6:
+				if (rand.nextInt(10) == 0) {
+					ArrayList<Integer> drained = new ArrayList<Integer>();
+					int max = rand.nextInt(capacity + 2);
+					int n = my.drainTo(drained, max);
+					assertTrue(n == Math.min(max, their.size()) && n == drained.size());
+					for (Integer d : drained) {
+						assertTrue(d.equals(their.pollFirst()));
+					}
+				} else if (rand.nextInt(10) == 0) {
+					my.clear();
+					their.clear();
+				}
+				break;
+			case 7:
+				assertTrue(my.contains(e) == their.contains(e));
+				break;
+			default:
+				assertTrue(Objects.equals(my.peekFirst(), their.peekFirst()));
+				assertTrue(Objects.equals(my.peekLast(), their.peekLast()));
+			}
+			assertTrue(my.size() == their.size() && my.remainingCapacity() == capacity - their.size());
+		}
+		assertTrue(Arrays.equals(my.toArray(), their.toArray()));
+
+		// Timed calls give up and blocked calls can be interrupted
+		my.clear();
+		long start = System.nanoTime();
+		assertTrue(my.pollFirst(20, TimeUnit.MILLISECONDS) == null);
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+		for (int i = 0; i < capacity; i++) {
+			my.put(i);
+		}
+		try {
+			my.addLast(capacity);
+			assertTrue(false);
+		} catch (IllegalStateException e) {
+			// pass
+		}
+		assertTrue(!my.offerFirst(-1, 10, TimeUnit.MILLISECONDS));
+		final MyLinkedBlockingDeque<Integer> blocked = new MyLinkedBlockingDeque<Integer>();
+		final AtomicInteger interrupted = new AtomicInteger();
+		Thread taker = new Thread(() -> {
+			try {
+				blocked.takeLast();
+			} catch (InterruptedException e) {
+				interrupted.incrementAndGet();
+			}
+		});
+		taker.start();
+		Thread.sleep(20);
+		taker.interrupt();
+		taker.join();
+		assertTrue(interrupted.get() == 1 && blocked.isEmpty());
+
+		// Producers and consumers at both ends of a small deque
+		final MyLinkedBlockingDeque<Integer> shared = new MyLinkedBlockingDeque<Integer>(16);
+		final int producers = 4;
+		final int consumers = 3;
+		final int each = 20000;
+		final AtomicLong sum = new AtomicLong();
+		final AtomicInteger taken = new AtomicInteger();
+		final AtomicInteger overfull = new AtomicInteger();
+		Thread[] threads = new Thread[producers + consumers];
+		for (int t = 0; t < producers; t++) {
+			final int base = t * each;
+			threads[t] = new Thread(() -> {
+				Random r = new Random(base);
+				try {
+					for (int i = 0; i < each; i++) {
+						if (r.nextBoolean()) {
+							shared.putFirst(base + i);
+						} else {
+							while (!shared.offerLast(base + i, 1, TimeUnit.MILLISECONDS)) {
+								// Retry until there is room
+							}
+						}
+						if (shared.size() > 16) {
+							overfull.incrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for (int t = producers; t < threads.length; t++) {
+			final int seed = t;
+			threads[t] = new Thread(() -> {
+				Random r = new Random(seed);
+				ArrayList<Integer> drained = new ArrayList<Integer>();
+				try {
+					while (taken.get() < producers * each) {
+						drained.clear();
+						switch (r.nextInt(4)) {
+						case 0:
+							drained.add(shared.pollFirst(1, TimeUnit.MILLISECONDS));
+							break;
+						case 1:
+							drained.add(shared.pollLast(1, TimeUnit.MILLISECONDS));
+							break;
+						case 2:
+							shared.drainTo(drained, 5);
+							break;
+						default:
+							drained.add(shared.pollLast());
+						}
+						for (Integer e : drained) {
+							if (e != null) {
+								sum.addAndGet(e);
+								taken.incrementAndGet();
+							}
+						}
+					}
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long all = (long) producers * each * (producers * each - 1) / 2;
+		assertTrue(taken.get() == producers * each && sum.get() == all);
+		assertTrue(overfull.get() == 0 && shared.isEmpty());
+	}
+
 	/* Method for randomized testing. */
 	/**
 	 * Verify results from one method between the canonical
@@ -737,7 +3128,7 @@ public class Tester {
 			assertTrue(lst1.equals(lst2));
 			break;
 		case 37: // clone()
-			MyLinkedList<Integer> myClone = (MyLinkedList<Integer>) myList.clone();
+			List<Integer> myClone = (List<Integer>) myList.clone();
 			LinkedList<Integer> clone = (LinkedList<Integer>) list.clone();
 			assertTrue(myClone.equals(clone));
 			assertTrue(clone != list);